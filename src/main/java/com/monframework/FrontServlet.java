@@ -1,14 +1,34 @@
 package com.monframework;
 
+import com.monframework.accesslog.AccessLog;
+import com.monframework.dispatch.DispatchContext;
+import com.monframework.dispatch.DispatchPhase;
+import com.monframework.dispatch.RequestObserver;
+import com.monframework.dispatch.SlowRequestSampler;
+import com.monframework.dispatch.SpanFileRecorder;
+import com.monframework.jfr.DispatchEvents;
+import com.monframework.log.Log;
+import com.monframework.log.Logger;
+import com.monframework.mapping.ControllerHolder;
 import com.monframework.mapping.ControllerScanner;
+import com.monframework.mapping.RouteIndex;
+import com.monframework.mapping.RouteMatch;
 import com.monframework.mapping.RouteRegistry;
 import com.monframework.mapping.URLRoute;
+import com.monframework.metrics.MetricsRegistry;
+import com.monframework.mvc.BodyFormat;
+import com.monframework.mvc.BodyFormats;
+import com.monframework.mvc.FormRequestWrapper;
+import com.monframework.mvc.JsonResponse;
 import com.monframework.mvc.ModelView;
 import com.monframework.mvc.ModelAndView;
 import com.monframework.mvc.ParameterResolver;
+import com.monframework.mvc.RequestBodyException;
 import com.monframework.mvc.UploadedFile;
-import com.monframework.annotation.RemoveSessionAttribute;
 import com.monframework.security.SecurityManager;
+import com.monframework.web.CountingResponseWrapper;
+import com.monframework.web.NotFoundCache;
+import com.monframework.web.StaticResourceCache;
 
 import jakarta.servlet.RequestDispatcher;
 import jakarta.servlet.ServletConfig;
@@ -19,16 +39,23 @@ import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import jakarta.servlet.annotation.MultipartConfig;
 import jakarta.servlet.http.Part;
+import jdk.jfr.Event;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintWriter;
 import java.lang.reflect.Method;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
+import java.util.ServiceLoader;
+import java.util.Set;
 
 @MultipartConfig(
     maxFileSize = 1024 * 1024 * 5,      // 5 MB max par fichier
@@ -36,8 +63,22 @@ import java.util.Scanner;
 )
 public class FrontServlet extends HttpServlet {
 
+    private static final Logger LOG = Log.get(FrontServlet.class);
+
     private RequestDispatcher defaultDispatcher;
     private RouteRegistry routeRegistry;
+    private StaticResourceCache resourceCache;
+    private NotFoundCache notFoundCache; // null si désactivé
+    private int controllerInitThreads;
+    private long controllerInitWarnMillis;
+    private boolean directFormParsing;
+    private MetricsRegistry metrics; // null si désactivé
+    private String metricsPath;
+    private RequestObserver observer; // null si aucun
+    private SlowRequestSampler slowRequests; // null si désactivé
+    private String slowRequestPath;
+    private Set<String> slowRequestClients; // adresses autorisées à lire slowRequestPath
+    private AccessLog accessLog; // null si désactivé
 
     @Override
     public void init(ServletConfig config) throws ServletException {
@@ -50,86 +91,354 @@ public class FrontServlet extends HttpServlet {
             basePackage = "com.giga.springlab.controller";
         }
 
-        System.out.println("=== Initialisation du FrontServlet ===");
-        System.out.println("Scan du package: " + basePackage);
+        LOG.info("=== Initialisation du FrontServlet ===");
 
-        List<URLRoute> routes = ControllerScanner.scanPackage(basePackage);
-        routeRegistry.registerRoutes(routes);
+        controllerInitThreads = (int) longParam(config, "controller-init-threads", Runtime.getRuntime().availableProcessors());
+        controllerInitWarnMillis = longParam(config, "controller-init-warn-ms", 1000);
+        routeRegistry.registerRoutes(loadControllers(basePackage, "true".equalsIgnoreCase(config.getInitParameter("route-index"))));
+        // Accessible aux applications pour modifier les routes à chaud
+        getServletContext().setAttribute(RouteRegistry.class.getName(), routeRegistry);
 
         routeRegistry.printRoutes();
-        System.out.println("=== FrontServlet initialisé ===");
+
+        // Cache des ressources statiques et des chemins inconnus
+        long cacheTtl = longParam(config, "static-cache-ttl", 60_000L);
+        String apiPrefixes = config.getInitParameter("api-prefixes");
+        resourceCache = new StaticResourceCache(getServletContext(),
+                (int) longParam(config, "static-cache-size", 1024),
+                cacheTtl,
+                apiPrefixes == null || apiPrefixes.isBlank() ? new String[0] : apiPrefixes.trim().split("\\s*,\\s*"));
+        int notFoundCacheSize = (int) longParam(config, "not-found-cache-size", 1024);
+        notFoundCache = notFoundCacheSize > 0 ? new NotFoundCache(notFoundCacheSize, cacheTtl) : null;
+        LOG.info(() -> "Ressources statiques indexées: " + resourceCache.getIndexSize());
+
+        // Paramètres lus par FormParameters plutôt que par le conteneur
+        directFormParsing = "true".equalsIgnoreCase(config.getInitParameter("direct-form-parsing"));
+        ParameterResolver.setMaxRequestBodySize(longParam(config, "request-body-max-size", 1024 * 1024));
+        FormRequestWrapper.setMaxParameterCount((int) longParam(config, "form-max-parameters", 10_000));
+        registerBodyFormats(config);
+
+        // Métriques Prometheus servies sur ce chemin (désactivées si absent)
+        metricsPath = config.getInitParameter("metrics-path");
+        if (metricsPath != null && !metricsPath.isBlank()) {
+            metricsPath = metricsPath.trim();
+            metrics = new MetricsRegistry(routeRegistry);
+            getServletContext().setAttribute(MetricsRegistry.class.getName(), metrics);
+            LOG.info(() -> "Métriques exposées sur: " + metricsPath);
+        }
+
+        observer = RequestObserver.of(loadObservers(config));
+
+        // Journal d'accès en segments projetés en mémoire (désactivé si absent)
+        String accessLogDir = config.getInitParameter("access-log-dir");
+        if (accessLogDir != null && !accessLogDir.isBlank()) {
+            AccessLog.Format format = "binary".equalsIgnoreCase(config.getInitParameter("access-log-format"))
+                    ? AccessLog.Format.BINARY : AccessLog.Format.TEXT;
+            try {
+                accessLog = new AccessLog(Paths.get(accessLogDir.trim()), format,
+                        (int) Math.min(Integer.MAX_VALUE, longParam(config, "access-log-segment-size", 64L << 20)),
+                        longParam(config, "access-log-rotate-ms", 3_600_000L),
+                        longParam(config, "access-log-flush-ms", 1000));
+            } catch (IOException | IllegalArgumentException e) {
+                throw new ServletException("Ouverture du journal d'accès impossible: " + accessLogDir, e);
+            }
+            LOG.info("Journal d'accès (" + format + ") dans: " + accessLogDir.trim());
+        }
+
+        LOG.info("=== FrontServlet initialisé ===");
+    }
+
+    private List<RequestObserver> loadObservers(ServletConfig config) throws ServletException {
+        List<RequestObserver> observers = new ArrayList<>();
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        for (RequestObserver found : ServiceLoader.load(RequestObserver.class, loader)) {
+            observers.add(found);
+        }
+        String classNames = config.getInitParameter("request-observers");
+        if (classNames != null && !classNames.isBlank()) {
+            for (String className : classNames.trim().split("\\s*,\\s*")) {
+                try {
+                    observers.add((RequestObserver) Class.forName(className, true, loader).getConstructor().newInstance());
+                } catch (ReflectiveOperationException | ClassCastException e) {
+                    throw new ServletException("RequestObserver invalide: " + className, e);
+                }
+            }
+        }
+        String traceFile = config.getInitParameter("trace-file");
+        if (traceFile != null && !traceFile.isBlank()) {
+            observers.add(new SpanFileRecorder(Paths.get(traceFile.trim()),
+                    longParam(config, "trace-min-duration-micros", 0),
+                    (int) longParam(config, "trace-queue-size", 8192)));
+            LOG.info(() -> "Spans écrits dans: " + traceFile.trim());
+        }
+        long slowThreshold = longParam(config, "slow-request-threshold-ms", 0);
+        if (slowThreshold > 0) {
+            String masked = config.getInitParameter("slow-request-masked-params");
+            List<String> maskedFragments = new ArrayList<>(SlowRequestSampler.DEFAULT_MASKED);
+            if (masked != null && !masked.isBlank()) {
+                maskedFragments.addAll(Arrays.asList(masked.trim().split("\\s*,\\s*")));
+            }
+            slowRequests = new SlowRequestSampler(slowThreshold,
+                    longParam(config, "slow-request-interval-ms", 20),
+                    (int) longParam(config, "slow-request-reports", 100),
+                    maskedFragments);
+            observers.add(slowRequests);
+            slowRequestPath = config.getInitParameter("slow-request-path");
+            if (slowRequestPath != null) {
+                slowRequestPath = slowRequestPath.trim();
+            }
+            // Les rapports contiennent piles et paramètres: boucle locale seulement par défaut.
+            // Derrière un proxy, l'adresse vue est celle du proxy, qui doit alors filtrer ce chemin.
+            String clients = config.getInitParameter("slow-request-allowed-addresses");
+            slowRequestClients = clients == null || clients.isBlank()
+                    ? Set.of("127.0.0.1", "0:0:0:0:0:0:0:1", "::1")
+                    : new LinkedHashSet<>(Arrays.asList(clients.trim().split("\\s*,\\s*")));
+            LOG.info(() -> "Requêtes lentes échantillonnées au-delà de " + slowThreshold + " ms"
+                    + (slowRequestPath != null ? ", rapports sur: " + slowRequestPath : ""));
+        }
+        for (RequestObserver registered : observers) {
+            LOG.info(() -> "RequestObserver: " + registered.getClass().getName());
+        }
+        return observers;
+    }
+
+    // Formats de corps en plus de JSON et CBOR: ServiceLoader puis init-param "body-formats"
+    private void registerBodyFormats(ServletConfig config) throws ServletException {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        List<BodyFormat> formats = new ArrayList<>();
+        for (BodyFormat found : ServiceLoader.load(BodyFormat.class, loader)) {
+            formats.add(found);
+        }
+        String classNames = config.getInitParameter("body-formats");
+        if (classNames != null && !classNames.isBlank()) {
+            for (String className : classNames.trim().split("\\s*,\\s*")) {
+                try {
+                    formats.add((BodyFormat) Class.forName(className, true, loader).getConstructor().newInstance());
+                } catch (ReflectiveOperationException | ClassCastException e) {
+                    throw new ServletException("BodyFormat invalide: " + className, e);
+                }
+            }
+        }
+        for (BodyFormat format : formats) {
+            BodyFormats.register(format);
+            LOG.info(() -> "BodyFormat: " + format.getMediaType() + " (" + format.getClass().getName() + ")");
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (observer != null) {
+            try {
+                observer.close();
+            } catch (RuntimeException e) {
+                LOG.warn(() -> "RequestObserver en échec à l'arrêt: " + e);
+            }
+        }
+        if (accessLog != null) {
+            accessLog.close();
+        }
+        // Thread d'écriture des logs: ne doit pas survivre au redéploiement
+        Log.shutdown(1000);
+        super.destroy();
+    }
+
+    private List<URLRoute> loadControllers(String basePackage, boolean useIndex) {
+        // Index généré à la compilation sur demande (init-param "route-index"), sinon scan du package
+        List<URLRoute> routes = null;
+        if (useIndex) {
+            try {
+                routes = RouteIndex.load(Thread.currentThread().getContextClassLoader(), basePackage);
+            } catch (IOException e) {
+                LOG.warn(() -> "Lecture de l'index des routes impossible: " + e.getMessage());
+            }
+        }
+        if (routes != null) {
+            LOG.info(() -> "Index des routes chargé pour le package: " + basePackage);
+        } else {
+            LOG.info(() -> "Scan du package: " + basePackage);
+            routes = ControllerScanner.scanPackage(basePackage);
+        }
+
+        // Contrôleurs EAGER créés en parallèle; ceux dont init() échoue sont retirés
+        Set<ControllerHolder> controllers = new LinkedHashSet<>();
+        for (URLRoute route : routes) {
+            controllers.add(route.getControllerHolder());
+        }
+        ControllerHolder.initializeAll(controllers, controllerInitThreads, controllerInitWarnMillis);
+        routes.removeIf(route -> route.getControllerHolder().isFailed());
+
+        return routes;
+    }
+
+    /**
+     * Rescanne un package de contrôleurs et remplace ses routes en une seule
+     * opération: les requêtes en cours continuent sur l'ancien ensemble.
+     */
+    public void reloadControllers(String basePackage) {
+        List<URLRoute> routes = loadControllers(basePackage, false);
+        String prefix = basePackage + ".";
+        routeRegistry.replaceRoutes(route -> route.getControllerClass().getName().startsWith(prefix), routes);
+        LOG.info(() -> "Routes rechargées pour " + basePackage + ": " + routes.size());
+    }
+
+    private static long longParam(ServletConfig config, String name, long defaultValue) {
+        String value = config.getInitParameter(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            LOG.warn(() -> "Paramètre " + name + " invalide: " + value + ", valeur par défaut utilisée");
+            return defaultValue;
+        }
     }
 
     @Override
     protected void service(HttpServletRequest req, HttpServletResponse res) throws ServletException, IOException {
     
-        String path = req.getRequestURI().substring(req.getContextPath().length());
+        String contextPath = req.getContextPath();
+        String path = req.getRequestURI().substring(contextPath.length());
         String httpMethod = req.getMethod().toUpperCase();
-        boolean resourceExists = getServletContext().getResource(path) != null;
         String contentType = req.getContentType();
 
-        System.err.println("=== SERVICE ===");
-        System.err.println("Path: " + path);
-        System.err.println("Method: " + httpMethod);
-        System.err.println("Context Path: " + req.getContextPath());
-        System.err.println("Content-Type: " + contentType);
+        LOG.debug("=== SERVICE ===");
+        LOG.debug(() -> "Path: " + path);
+        LOG.debug(() -> "Method: " + httpMethod);
+        LOG.debug(() -> "Context Path: " + contextPath);
+        LOG.debug(() -> "Content-Type: " + contentType);
 
-        if (contentType != null && contentType.toLowerCase().startsWith("multipart/form-data")) {
-        System.err.println("  -> Requête multipart détectée");
-        handleMultipartRequest(req, res);
-        return;
+        if (metrics != null && path.equals(metricsPath)) {
+            serveMetrics(res);
+            return;
+        }
+        if (slowRequestPath != null && path.equals(slowRequestPath)) {
+            String client = req.getRemoteAddr();
+            if (!slowRequestClients.contains(client)) {
+                LOG.warn(() -> "Rapports de requêtes lentes refusés à: " + client);
+                res.sendError(HttpServletResponse.SC_FORBIDDEN);
+                return;
+            }
+            serveSlowRequests(res);
+            return;
+        }
+
+        DispatchContext dispatch = new DispatchContext(httpMethod, path);
+        if (observer != null) {
+            dispatch.observe(observer, req);
+        }
+        // Taille de la réponse comptée seulement pour le journal d'accès et les événements JFR qui la portent
+        CountingResponseWrapper counting = null;
+        if (accessLog != null || DispatchEvents.isResponseSizeEnabled()) {
+            res = counting = new CountingResponseWrapper(res);
+        }
+        try {
+            if (contentType != null && contentType.toLowerCase().startsWith("multipart/form-data")) {
+                LOG.debug("  -> Requête multipart détectée");
+                handleMultipartRequest(req, res, dispatch);
+            } else {
+                if (directFormParsing && FormRequestWrapper.supports(req)) {
+                    req = new FormRequestWrapper(req);
+                }
+                dispatch(path, httpMethod, req, res, dispatch);
+            }
+        } catch (ServletException | IOException | RuntimeException e) {
+            dispatch.setError(e);
+            throw e;
+        } finally {
+            if (counting != null) {
+                counting.flushWriter();
+                dispatch.setResponseSize(counting.getBytesWritten());
+            }
+            // Exception propagée: le conteneur répondra 500
+            dispatch.finish(dispatch.getError() != null && !res.isCommitted()
+                    ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : res.getStatus());
+            if (metrics != null) {
+                metrics.record(dispatch);
+            }
+            if (accessLog != null) {
+                accessLog.record(dispatch, req.getRemoteAddr());
+            }
+        }
     }
-        if (resourceExists) {
+
+    private void dispatch(String path, String httpMethod, HttpServletRequest req, HttpServletResponse res,
+            DispatchContext dispatch) throws ServletException, IOException {
+        long routesVersion = routeRegistry.getVersion();
+        if (notFoundCache != null && notFoundCache.contains(path, routesVersion)) {
+            customServe(req, res);
+            return;
+        }
+        if (resourceCache.exists(path)) {
             defaultServe(req, res);
         } else {
-            URLRoute route = routeRegistry.findRoute(path, httpMethod);
+            RouteMatch match = routeRegistry.resolve(path, httpMethod);
             
-            if (route != null) {
-                System.err.println("Route trouvée: " + route.getUrlPattern() + " [" + route.getHttpMethod() + "]");
-                invokeController(route, path, req, res);
-            } else {
-                URLRoute anyMethodRoute = routeRegistry.findRoute(path);
-                if (anyMethodRoute != null) {
-                    System.err.println("Méthode non autorisée! Route: " + anyMethodRoute.getHttpMethod() + ", Requête: " + httpMethod);
-                    sendMethodNotAllowed(res, httpMethod, anyMethodRoute.getHttpMethod());
-                } else {
-                    System.err.println("Aucune route trouvée pour: " + path);
-                    customServe(req, res);
+            if (match == null) {
+                LOG.debug(() -> "Aucune route trouvée pour: " + path);
+                if (notFoundCache != null) {
+                    notFoundCache.add(path, routesVersion);
                 }
+                customServe(req, res);
+            } else if (match.isMethodNotAllowed()) {
+                LOG.debug(() -> "Méthode non autorisée! Autorisées: " + match.getAllowHeader() + ", Requête: " + httpMethod);
+                sendMethodNotAllowed(res, httpMethod, match);
+            } else {
+                URLRoute route = match.getRoute();
+                LOG.debug(() -> "Route trouvée: " + route.getUrlPattern() + " [" + route.getHttpMethod() + "]");
+                invokeController(match, path, req, res, dispatch);
             }
         }
     }
 
-    private void handleMultipartRequest(HttpServletRequest req, HttpServletResponse res) 
+    private void serveMetrics(HttpServletResponse res) throws IOException {
+        StringBuilder body = new StringBuilder(8192);
+        metrics.writePrometheus(body);
+        res.setContentType(MetricsRegistry.CONTENT_TYPE);
+        try (PrintWriter out = res.getWriter()) {
+            out.write(body.toString());
+        }
+    }
+
+    private void serveSlowRequests(HttpServletResponse res) throws IOException {
+        StringBuilder body = new StringBuilder(8192);
+        slowRequests.writeJson(body);
+        res.setContentType("application/json;charset=UTF-8");
+        try (PrintWriter out = res.getWriter()) {
+            out.write(body.toString());
+        }
+    }
+
+    private void handleMultipartRequest(HttpServletRequest req, HttpServletResponse res, DispatchContext dispatch) 
         throws ServletException, IOException {
     try {
-        System.err.println("=== HANDLE MULTIPART REQUEST ===");
-        System.err.println("Content-Type: " + req.getContentType());
+        LOG.debug("=== HANDLE MULTIPART REQUEST ===");
+        LOG.debug(() -> "Content-Type: " + req.getContentType());
         
         // Utiliser la Part API de Servlet 3.0
         Collection<Part> parts = req.getParts();
-        System.err.println("Nombre de parts: " + parts.size());
+        LOG.debug(() -> "Nombre de parts: " + parts.size());
         
         Map<String, String[]> parameters = new HashMap<>();
         Map<String, UploadedFile> files = new HashMap<>();
         
         // Séparer les paramètres normaux des fichiers
         for (Part part : parts) {
-            System.err.println("Part: " + part.getName() + " - " + part.getContentType());
+            LOG.debug(() -> "Part: " + part.getName() + " - " + part.getContentType());
             if (part.getContentType() != null) {
                 // C'est un fichier
-                System.err.println("  -> Traitement comme fichier");
+                LOG.debug("  -> Traitement comme fichier");
                 UploadedFile uploadedFile = new UploadedFile(part);
                 if (uploadedFile != null) {
                     files.put(part.getName(), uploadedFile);
-                    System.err.println("  -> Fichier enregistré: " + uploadedFile.getName());
+                    LOG.debug(() -> "  -> Fichier enregistré: " + uploadedFile.getName());
                 }
             } else {
                 // C'est un paramètre normal
-                System.err.println("  -> Traitement comme paramètre");
+                LOG.debug("  -> Traitement comme paramètre");
                 String value = readPartValue(part);
                 parameters.put(part.getName(), new String[]{value});
-                System.err.println("  -> Valeur: " + value);
+                LOG.debug(() -> "  -> Valeur: " + value);
             }
         }
         
@@ -138,18 +447,20 @@ public class FrontServlet extends HttpServlet {
         
         // Continuer avec le traitement normal
         String path = req.getRequestURI().substring(req.getContextPath().length());
-        System.err.println("Path pour routing: " + path);
-        URLRoute route = routeRegistry.findRoute(path);
+        LOG.debug(() -> "Path pour routing: " + path);
+        RouteMatch match = routeRegistry.resolve(path, req.getMethod());
         
-        if (route != null) {
-            invokeController(route, path, req, res);
-        } else {
+        if (match == null) {
             customServe(req, res);
+        } else if (match.isMethodNotAllowed()) {
+            sendMethodNotAllowed(res, req.getMethod(), match);
+        } else {
+            invokeController(match, path, req, res, dispatch);
         }
         
     } catch (Exception e) {
-        System.err.println("ERREUR dans handleMultipartRequest:");
-        e.printStackTrace();
+        LOG.error("ERREUR dans handleMultipartRequest", e);
+        dispatch.setError(e);
         res.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Erreur lors du traitement du fichier: " + e.getMessage());
     }
 }
@@ -159,98 +470,87 @@ public class FrontServlet extends HttpServlet {
             return scanner.hasNext() ? scanner.next() : "";
         }
     }
-    private boolean isHttpMethodAllowed(URLRoute route, String requestMethod) {
-        String routeMethod = route.getHttpMethod().toUpperCase();
-        
-        System.err.println("=== DEBUG HTTP Method ===");
-        System.err.println("Route method: " + routeMethod);
-        System.err.println("Request method: " + requestMethod);
-        
-        // raha tsisy méthode spécifiée (ancien système) na GET, accepter toutes
-        if (routeMethod == null || routeMethod.isEmpty() || routeMethod.equals("GET")) {
-            System.err.println("  → Ancien système ou GET, autorisé");
-            return true;
-        }
-        
-        // Sinon, vérifier la correspondance
-        boolean allowed = routeMethod.equals(requestMethod);
-        System.err.println("  → Match? " + allowed);
-        return allowed;
-    }
-    
-    private void sendMethodNotAllowed(HttpServletResponse res, String requestMethod, String allowedMethod) 
+    private void sendMethodNotAllowed(HttpServletResponse res, String requestMethod, RouteMatch match) 
             throws IOException {
+        String allowedMethods = match.getAllowHeader();
         res.setStatus(HttpServletResponse.SC_METHOD_NOT_ALLOWED);
+        res.setHeader("Allow", allowedMethods);
         res.setContentType("text/html;charset=UTF-8");
         try (PrintWriter out = res.getWriter()) {
             out.println("<html><head><title>405 - Méthode non autorisée</title></head><body>");
             out.println("<h1>405 - Méthode non autorisée</h1>");
             out.println("<p>La méthode HTTP " + requestMethod + " n'est pas autorisée pour cette ressource.</p>");
-            out.println("<p>Méthode autorisée: " + allowedMethod + "</p>");
+            out.println("<p>Méthodes autorisées: " + allowedMethods + "</p>");
             out.println("</body></html>");
         }
     }
 
-  private void invokeController(URLRoute route, String path, HttpServletRequest req, HttpServletResponse res)
-        throws IOException, ServletException {
+  private void invokeController(RouteMatch match, String path, HttpServletRequest req, HttpServletResponse res,
+        DispatchContext dispatch) throws IOException, ServletException {
+    URLRoute route = match.getRoute();
+    dispatch.setRoute(route);
+    if (metrics != null) {
+        metrics.requestStarted(route);
+    }
     try {
        
-        System.out.println("=== DEBUG FrontServlet ===");
-        System.out.println("URL demandée: " + path);
-        System.out.println("Méthode HTTP: " + req.getMethod());
-        System.out.println("Route trouvée: " + route.getUrlPattern());
-        System.out.println("Méthode route: " + route.getHttpMethod());
-        System.out.println("Contrôleur: " + route.getController().getClass().getName());
-        System.out.println("Méthode: " + route.getMethod().getName());
+        LOG.debug("=== DEBUG FrontServlet ===");
+        LOG.debug(() -> "URL demandée: " + path);
+        LOG.debug(() -> "Méthode HTTP: " + req.getMethod());
+        LOG.debug(() -> "Route trouvée: " + route.getUrlPattern());
+        LOG.debug(() -> "Méthode route: " + route.getHttpMethod());
+        LOG.debug(() -> "Contrôleur: " + route.getControllerClass().getName());
+        LOG.debug(() -> "Méthode: " + route.getMethod().getName());
         
-        Map<String, String> urlParams = route.extractParams(path);
-        System.out.println("Paramètres URL extraits: " + urlParams);
-        System.out.println("Paramètres Query: " + req.getParameterMap());
+        LOG.debug(() -> "Paramètres URL extraits: " + match.getPathVariables());
+        LOG.debug(() -> "Paramètres Query: " + req.getParameterMap());
         
         Method method = route.getMethod();
-        Object controller = route.getController();
         Object result;
 
-       
-        if (!SecurityManager.checkAccess(method, controller.getClass(), req, res)) {
-            System.out.println("Accès refusé par SecurityManager");
+        // Contrôle sur la classe: un contrôleur LAZY n'est créé (par l'invoker) qu'une fois l'accès accordé
+        dispatch.enter(DispatchPhase.SECURITY);
+        if (!SecurityManager.checkAccess(method, route.getControllerClass(), req, res)) {
+            LOG.debug("Accès refusé par SecurityManager");
             return; 
         }
         
-        Object[] args = ParameterResolver.resolveParameters(method, req, res, urlParams);
+        dispatch.enter(DispatchPhase.PARAMETERS);
+        Object[] args = ParameterResolver.resolveParameters(method, req, res, match);
         
-        System.out.println("Paramètres résolus: " + java.util.Arrays.toString(args));
+        LOG.debug(() -> "Paramètres résolus: " + java.util.Arrays.toString(args));
         
-        result = method.invoke(controller, args);
+        dispatch.enter(DispatchPhase.INVOCATION);
+        result = route.getInvoker().invoke(args);
 
         // Gérer @RemoveSessionAttribute après l'exécution
-        RemoveSessionAttribute removeSessionAttr = method.getAnnotation(RemoveSessionAttribute.class);
-        if (removeSessionAttr != null) {
+        String[] removedAttributes = route.getParameterPlan().getRemovedSessionAttributes();
+        if (removedAttributes.length > 0) {
+            dispatch.enter(DispatchPhase.SESSION);
             HttpSession session = req.getSession(false);
             if (session != null) {
-                for (String attrName : removeSessionAttr.value()) {
+                for (String attrName : removedAttributes) {
                     session.removeAttribute(attrName);
-                    System.err.println("Attribut de session supprimé: " + attrName);
+                    LOG.debug(() -> "Attribut de session supprimé: " + attrName);
                 }
             }
         }
 
         // Traiter le retour selon le type (SEULEMENT si la méthode n'a pas déjà écrit la réponse)
-        boolean methodHandledResponse = false;
-        for (Object arg : args) {
-            if (arg == res) {
-                methodHandledResponse = true;
-                break;
-            }
-        }
-        
-        if (!methodHandledResponse) {
-            handleMethodResult(result, req, res, urlParams);
+        if (!route.getParameterPlan().handlesResponse()) {
+            dispatch.enter(DispatchPhase.RENDERING);
+            handleMethodResult(result, req, res, match, dispatch);
         }
 
+    } catch (RequestBodyException e) {
+        // Erreur du client (400, 413, 415): pas une erreur du contrôleur
+        LOG.debug(() -> "Corps de requête refusé: " + e.getMessage());
+        sendRequestBodyError(req, res, e, route, dispatch);
+    } catch (ResponseAbortedException e) {
+        throw e; // corps déjà en partie envoyé: plus de page d'erreur possible
     } catch (Exception e) {
-        System.err.println("ERREUR lors de l'invocation du contrôleur: " + e.getMessage());
-        e.printStackTrace();
+        LOG.error(() -> "ERREUR lors de l'invocation du contrôleur: " + e.getMessage(), e);
+        dispatch.setError(e);
 
         res.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
         res.setContentType("text/html;charset=UTF-8");
@@ -264,14 +564,57 @@ public class FrontServlet extends HttpServlet {
         }
     }
 }
+    private void sendRequestBodyError(HttpServletRequest req, HttpServletResponse res, RequestBodyException e,
+            URLRoute route, DispatchContext dispatch) throws IOException {
+        if (route.getParameterPlan().getJsonKey() != null) {
+            writeBody(new JsonResponse("error", e.getStatus(), e.getMessage()), "data", req, res, dispatch);
+            return;
+        }
+        res.setStatus(e.getStatus());
+        res.setContentType("text/html;charset=UTF-8");
+        try (PrintWriter out = res.getWriter()) {
+            out.println("<html><head><title>" + e.getStatus() + " - Requête refusée</title></head><body>");
+            out.println("<h1>" + e.getStatus() + " - Requête refusée</h1>");
+            out.println("<p>" + escapeHtml(e.getMessage()) + "</p>");
+            out.println("</body></html>");
+        }
+    }
+
+    // Le message peut reprendre un en-tête de la requête (Content-Type)
+    private static String escapeHtml(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder out = new StringBuilder(text.length() + 16);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<': out.append("&lt;"); break;
+                case '>': out.append("&gt;"); break;
+                case '&': out.append("&amp;"); break;
+                case '"': out.append("&quot;"); break;
+                case '\'': out.append("&#39;"); break;
+                default: out.append(c);
+            }
+        }
+        return out.toString();
+    }
+
     private void handleMethodResult(Object result, HttpServletRequest req, 
-                               HttpServletResponse res, Map<String, String> urlParams) 
+                               HttpServletResponse res, RouteMatch match, DispatchContext dispatch) 
         throws IOException, ServletException {
     
+    // @Json: résultat enveloppé dans JsonResponse, quel que soit son type
+    String jsonKey = dispatch.getRoute().getParameterPlan().getJsonKey();
+    if (jsonKey != null) {
+        writeBody(result, jsonKey, req, res, dispatch);
+        return;
+    }
+    
     if (result instanceof String) {
         // Retour String -> PrintWriter direct
         String responseString = (String) result;
-        System.out.println("Retour String: " + responseString);
+        LOG.debug(() -> "Retour String: " + responseString);
         res.setContentType("text/html;charset=UTF-8");
         try (PrintWriter out = res.getWriter()) {
             out.print(responseString);
@@ -280,47 +623,132 @@ public class FrontServlet extends HttpServlet {
     } else if (result instanceof ModelView) {
         ModelView mv = (ModelView) result;
         String viewName = mv.getView();
-        System.out.println("Retour ModelView -> JSP: " + viewName);
+        LOG.debug(() -> "Retour ModelView -> JSP: " + viewName);
         
         Map<String, Object> data = mv.getData();
         for (Map.Entry<String, Object> entry : data.entrySet()) {
             req.setAttribute(entry.getKey(), entry.getValue());
-            System.out.println("Donnée JSP: " + entry.getKey() + " = " + entry.getValue());
+            LOG.debug(() -> "Donnée JSP: " + entry.getKey() + " = " + entry.getValue());
         }
         
-        urlParams.forEach(req::setAttribute);
+        match.getPathVariables().forEach(req::setAttribute);
         
-        RequestDispatcher dispatcher = req.getRequestDispatcher("/" + viewName);
-        if (dispatcher != null) {
-            dispatcher.forward(req, res);
-            System.out.println("Forward réussi vers: " + viewName);
-        } else {
-            throw new ServletException("JSP non trouvée: " + viewName);
-        }
+        forward(viewName, req, res, dispatch);
     } 
     else if (result instanceof ModelAndView) {
         ModelAndView mv = (ModelAndView) result;
         String viewName = mv.getView();
-        System.out.println("Retour ModelAndView -> JSP: " + viewName);
+        LOG.debug(() -> "Retour ModelAndView -> JSP: " + viewName);
         
         Map<String, Object> model = mv.getModel();
         for (Map.Entry<String, Object> entry : model.entrySet()) {
             req.setAttribute(entry.getKey(), entry.getValue());
-            System.out.println("Donnée JSP: " + entry.getKey() + " = " + entry.getValue());
+            LOG.debug(() -> "Donnée JSP: " + entry.getKey() + " = " + entry.getValue());
         }
         
-        urlParams.forEach(req::setAttribute);
+        match.getPathVariables().forEach(req::setAttribute);
         
-        RequestDispatcher dispatcher = req.getRequestDispatcher("/" + viewName);
-        if (dispatcher != null) {
-            dispatcher.forward(req, res);
-            System.out.println("Forward réussi vers: " + viewName);
+        forward(viewName, req, res, dispatch);
+    }
+    // Si result est null, ne rien faire
+} 
+    /**
+     * Échec pendant l'écriture du corps (cycle, getter qui lève, conteneur
+     * modifié, client parti). Réponse pas encore validée: le début du corps
+     * est effacé et remplacé par une erreur 500 dans le même format, sur le
+     * flux éventuellement déjà pris (getWriter() n'est plus permis). Réponse
+     * déjà validée: l'exception remonte au conteneur, qui coupe la connexion
+     * au lieu de terminer un corps tronqué comme s'il était complet.
+     */
+    private void sendSerializationError(Throwable error, HttpServletRequest req, HttpServletResponse res,
+            BodyFormat format, DispatchContext dispatch) throws IOException {
+        dispatch.setError(error);
+        if (res.isCommitted()) {
+            LOG.error(() -> "Écriture de la réponse interrompue (" + req.getRequestURI() + "): " + error, error);
+            throw new ResponseAbortedException(error);
+        }
+        LOG.error(() -> "ERREUR lors de l'écriture de la réponse: " + error, error);
+        res.resetBuffer();
+        res.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        try {
+            format.write(new JsonResponse("error", HttpServletResponse.SC_INTERNAL_SERVER_ERROR,
+                    "Erreur lors de l'écriture de la réponse"), res);
+        } catch (IOException e) {
+            throw new ResponseAbortedException(e);
+        }
+    }
+
+    /**
+     * Réponse validée dont le corps n'a pas pu être terminé: traversée
+     * volontaire des gestionnaires d'erreur jusqu'au conteneur.
+     */
+    private static final class ResponseAbortedException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        ResponseAbortedException(Throwable cause) {
+            super("Réponse interrompue: " + cause, cause);
+        }
+    }
+
+    /**
+     * Écrit le résultat d'une méthode @Json sur le flux de la réponse, dans le
+     * format demandé par l'en-tête Accept (JSON par défaut, CBOR...). Un
+     * JsonResponse retourné par le contrôleur est écrit tel quel et son code
+     * devient le statut HTTP.
+     */
+    private void writeBody(Object result, String jsonKey, HttpServletRequest req, HttpServletResponse res,
+            DispatchContext dispatch) throws IOException {
+        JsonResponse response;
+        if (result instanceof JsonResponse) {
+            response = (JsonResponse) result;
+            if (response.getCode() >= 100 && response.getCode() < 600) {
+                res.setStatus(response.getCode());
+            }
         } else {
+            response = new JsonResponse("success", HttpServletResponse.SC_OK, result);
+            response.setDataKey(jsonKey);
+        }
+        BodyFormat format = BodyFormats.forAccept(req.getHeader("Accept"));
+        Event event = DispatchEvents.beginJsonSerialization();
+        res.setHeader("Vary", "Accept");
+        res.setContentType(format.getContentType());
+        long size;
+        try {
+            size = format.write(response, res);
+        } catch (IOException | RuntimeException | Error e) {
+            sendSerializationError(e, req, res, format, dispatch);
+            return;
+        }
+        DispatchEvents.endJsonSerialization(event, dispatch, result != null ? result.getClass() : null,
+                format.getMediaType(), size);
+        LOG.debug(() -> "Retour " + format.getMediaType() + ": " + size + " octets");
+    }
+
+    private void forward(String viewName, HttpServletRequest req, HttpServletResponse res, DispatchContext dispatch)
+            throws ServletException, IOException {
+        RequestDispatcher dispatcher = req.getRequestDispatcher("/" + viewName);
+        if (dispatcher == null) {
             throw new ServletException("JSP non trouvée: " + viewName);
         }
+        Event event = DispatchEvents.beginViewForward();
+        CountingResponseWrapper counting = res instanceof CountingResponseWrapper ? (CountingResponseWrapper) res : null;
+        long before = 0;
+        if (event != null && counting != null) {
+            counting.flushWriter();
+            before = counting.getBytesWritten();
+        }
+        dispatcher.forward(req, res);
+        if (event != null) {
+            long size = -1;
+            if (counting != null) {
+                counting.flushWriter();
+                size = counting.getBytesWritten() - before;
+            }
+            DispatchEvents.endViewForward(event, dispatch, viewName, size);
+        }
+        LOG.debug(() -> "Forward réussi vers: " + viewName);
     }
-    // Si result est null, ne rien faire
-} 
+
     private void customServe(HttpServletRequest req, HttpServletResponse res) throws IOException {
         String uri = req.getRequestURI();
         String responseBody =
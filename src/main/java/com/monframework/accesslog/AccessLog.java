@@ -0,0 +1,357 @@
+package com.monframework.accesslog;
+
+import com.monframework.dispatch.DispatchContext;
+import com.monframework.log.Log;
+import com.monframework.log.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Journal d'accès (init-param "access-log-dir"): un enregistrement par
+ * requête, écrit dans des segments projetés en mémoire.
+ *
+ * L'enregistrement est encodé dans un tampon propre au thread puis copié
+ * dans le segment courant à une position réservée par getAndAdd: pas de
+ * verrou ni de file entre la requête et le fichier. Le thread
+ * "monframework-access-log" force les pages sur disque, fait tourner le
+ * segment après rotateMillis, ferme (tronque) les segments pleins et
+ * prépare le suivant pour que la rotation ne crée pas de fichier sur le
+ * thread de la requête.
+ *
+ * Format TEXT (fichiers .log), une ligne par requête:
+ *
+ * 2026-10-18T18:13:06.010Z 127.0.0.1 GET /p/42 /p/{id} 200 1234 15234
+ *
+ * horodatage UTC, client, méthode, chemin, route (- si aucune), statut,
+ * octets de réponse (- si non comptés), latence en microsecondes.
+ *
+ * Format BINARY (fichiers .bin, en-tête "MFAL" + version), big-endian:
+ * u16 longueur totale, i64 epochMillis, i32 latence µs, u16 statut,
+ * i32 octets (-1 si non comptés), puis client (u8 + UTF-8), méthode
+ * (u8 + UTF-8), route (u16 + UTF-8, vide si aucune), chemin (u16 + UTF-8).
+ * Relu par AccessLogDump.
+ *
+ * Après un arrêt brutal, la fin du dernier segment est remplie de zéros:
+ * les lecteurs s'arrêtent au premier octet nul.
+ */
+public final class AccessLog implements Closeable {
+
+    private static final Logger LOG = Log.get(AccessLog.class);
+
+    public enum Format { TEXT, BINARY }
+
+    static final byte[] BINARY_HEADER = {'M', 'F', 'A', 'L', 1};
+
+    private static final int MAX_CLIENT = 64;
+    private static final int MAX_METHOD = 16;
+    private static final int MAX_ROUTE = 1024;
+    private static final int MAX_PATH = 2048;
+
+    private static final ThreadLocal<RecordBuffer> BUFFERS = ThreadLocal.withInitial(RecordBuffer::new);
+
+    private final Path directory;
+    private final Format format;
+    private final int segmentSize;
+    private final long rotateMillis;
+    private final long flushMillis;
+    private final String filePrefix;
+    private final byte[] header;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final Queue<Segment> retired = new ConcurrentLinkedQueue<>();
+    private final Thread flusher;
+    private volatile Segment current; // null une fois fermé ou en échec
+    private Segment spare; // protégé par this
+    private volatile boolean closed;
+
+    /**
+     * @param segmentSize  taille d'un segment en octets (rotation par taille)
+     * @param rotateMillis âge maximal d'un segment, 0 pour ne tourner qu'à la taille
+     * @param flushMillis  intervalle entre deux écritures forcées sur disque
+     */
+    public AccessLog(Path directory, Format format, int segmentSize, long rotateMillis, long flushMillis)
+            throws IOException {
+        this.directory = directory;
+        this.format = format;
+        this.header = format == Format.BINARY ? BINARY_HEADER : new byte[0];
+        if (segmentSize < header.length + 256) {
+            throw new IllegalArgumentException("Segment trop petit: " + segmentSize);
+        }
+        this.segmentSize = segmentSize;
+        this.rotateMillis = rotateMillis;
+        this.flushMillis = Math.max(10, flushMillis);
+        this.filePrefix = "access-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + "-";
+        Files.createDirectories(directory);
+        this.current = newSegment();
+        this.flusher = new Thread(this::run, "monframework-access-log");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Enregistre une requête terminée (après DispatchContext.finish).
+     */
+    public void record(DispatchContext dispatch, String client) {
+        if (closed) {
+            return;
+        }
+        RecordBuffer buffer = BUFFERS.get();
+        buffer.reset();
+        long now = System.currentTimeMillis();
+        String route = dispatch.getRoute() != null ? dispatch.getRoute().getUrlPattern() : null;
+        if (format == Format.BINARY) {
+            encodeBinary(buffer, now, client, dispatch, route);
+        } else {
+            encodeText(buffer, now, client, dispatch, route);
+        }
+        append(buffer.bytes, buffer.length);
+    }
+
+    private static void encodeText(RecordBuffer buffer, long now, String client, DispatchContext dispatch, String route) {
+        buffer.putTimestamp(now);
+        buffer.put((byte) ' ');
+        buffer.putUtf8(client != null ? client : "-", MAX_CLIENT, true);
+        buffer.put((byte) ' ');
+        buffer.putUtf8(dispatch.getHttpMethod(), MAX_METHOD, true);
+        buffer.put((byte) ' ');
+        buffer.putUtf8(dispatch.getPath(), MAX_PATH, true);
+        buffer.put((byte) ' ');
+        buffer.putUtf8(route != null ? route : "-", MAX_ROUTE, true);
+        buffer.put((byte) ' ');
+        buffer.putDecimal(dispatch.getStatus());
+        buffer.put((byte) ' ');
+        if (dispatch.getResponseSize() >= 0) {
+            buffer.putDecimal(dispatch.getResponseSize());
+        } else {
+            buffer.put((byte) '-');
+        }
+        buffer.put((byte) ' ');
+        buffer.putDecimal(dispatch.getDurationNanos() / 1000);
+        buffer.put((byte) '\n');
+    }
+
+    private static void encodeBinary(RecordBuffer buffer, long now, String client, DispatchContext dispatch, String route) {
+        buffer.putShort(0); // longueur, renseignée à la fin
+        buffer.putLong(now);
+        buffer.putInt((int) Math.min(Integer.MAX_VALUE, dispatch.getDurationNanos() / 1000));
+        buffer.putShort(dispatch.getStatus());
+        buffer.putInt((int) Math.min(Integer.MAX_VALUE, dispatch.getResponseSize()));
+        putShortString(buffer, client != null ? client : "", MAX_CLIENT);
+        putShortString(buffer, dispatch.getHttpMethod(), MAX_METHOD);
+        putLongString(buffer, route != null ? route : "", MAX_ROUTE);
+        putLongString(buffer, dispatch.getPath(), MAX_PATH);
+        buffer.setShort(0, buffer.length);
+    }
+
+    private static void putShortString(RecordBuffer buffer, String value, int max) {
+        int at = buffer.length;
+        buffer.put((byte) 0);
+        int written = buffer.putUtf8(value, max, false); // peut réallouer buffer.bytes
+        buffer.bytes[at] = (byte) written;
+    }
+
+    private static void putLongString(RecordBuffer buffer, String value, int max) {
+        int at = buffer.length;
+        buffer.putShort(0);
+        buffer.setShort(at, buffer.putUtf8(value, max, false));
+    }
+
+    private void append(byte[] bytes, int length) {
+        while (true) {
+            Segment segment = current;
+            if (segment == null || length > segmentSize - header.length) {
+                dropped.incrementAndGet();
+                return;
+            }
+            // Compté avant de vérifier current: close() d'un segment remplacé attend ce compteur
+            segment.writers.incrementAndGet();
+            if (current != segment) {
+                segment.writers.decrementAndGet();
+                continue;
+            }
+            long start = segment.reserve(length);
+            if (segment.fits(start, length)) {
+                segment.write(start, bytes, length);
+                segment.writers.decrementAndGet();
+                return;
+            }
+            boolean sealer = segment.isSealer(start, length);
+            if (sealer) {
+                segment.end = start;
+            }
+            segment.writers.decrementAndGet();
+            if (sealer) {
+                rotate(segment);
+            } else {
+                while (current == segment) {
+                    Thread.onSpinWait();
+                }
+            }
+        }
+    }
+
+    /**
+     * Remplace le segment scellé par le segment de réserve (ou un nouveau).
+     */
+    private synchronized void rotate(Segment sealed) {
+        if (current != sealed) {
+            return; // fermé entre-temps
+        }
+        Segment next = spare;
+        spare = null;
+        if (next == null) {
+            try {
+                next = newSegment();
+            } catch (IOException e) {
+                LOG.error("Rotation du journal d'accès impossible, journal désactivé", e);
+            }
+        }
+        if (next != null) {
+            next.openedMillis = System.currentTimeMillis();
+        }
+        current = next;
+        retired.add(sealed);
+    }
+
+    private Segment newSegment() throws IOException {
+        String extension = format == Format.BINARY ? ".bin" : ".log";
+        while (true) {
+            Path file = directory.resolve(filePrefix + String.format("%05d", sequence.incrementAndGet()) + extension);
+            try {
+                return new Segment(file, segmentSize, header);
+            } catch (FileAlreadyExistsException e) {
+                // redémarrage dans la même seconde: numéro suivant
+            }
+        }
+    }
+
+    private void run() {
+        long reportedDrops = 0;
+        while (!closed) {
+            try {
+                Thread.sleep(flushMillis);
+            } catch (InterruptedException e) {
+                break;
+            }
+            Segment segment = current;
+            if (segment != null) {
+                if (rotateMillis > 0 && System.currentTimeMillis() - segment.openedMillis >= rotateMillis
+                        && segment.position.get() > header.length) {
+                    seal(segment);
+                } else {
+                    segment.force();
+                }
+            }
+            closeRetired();
+            prepareSpare();
+            long drops = dropped.get();
+            if (drops != reportedDrops) {
+                long lost = drops - reportedDrops;
+                LOG.warn(() -> lost + " enregistrement(s) du journal d'accès perdu(s)");
+                reportedDrops = drops;
+            }
+        }
+    }
+
+    /**
+     * Scelle le segment par une réservation dépassant sa capacité; seul le
+     * scelleur effectif fait tourner le journal.
+     */
+    private void seal(Segment segment) {
+        long start = segment.reserve(segment.capacity + 1L);
+        if (segment.isSealer(start, segment.capacity + 1L)) {
+            segment.end = start;
+            rotate(segment);
+        }
+    }
+
+    private void closeRetired() {
+        Segment segment;
+        while ((segment = retired.poll()) != null) {
+            try {
+                segment.close();
+            } catch (IOException e) {
+                LOG.error("Fermeture du segment " + segment.file + " impossible", e);
+            }
+        }
+    }
+
+    private void prepareSpare() {
+        synchronized (this) {
+            if (spare != null || closed || current == null) {
+                return;
+            }
+        }
+        Segment created;
+        try {
+            created = newSegment();
+        } catch (IOException e) {
+            LOG.warn(() -> "Préparation du segment suivant impossible: " + e.getMessage());
+            return;
+        }
+        synchronized (this) {
+            if (spare == null && !closed) {
+                spare = created;
+                return;
+            }
+        }
+        discard(created);
+    }
+
+    private static void discard(Segment segment) {
+        try {
+            segment.discard();
+        } catch (IOException e) {
+            LOG.warn(() -> "Suppression du segment " + segment.file + " impossible: " + e.getMessage());
+        }
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Ferme le segment courant (tronqué à sa taille utile) et supprime le
+     * segment de réserve.
+     */
+    @Override
+    public void close() {
+        Segment unused;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            Segment segment = current;
+            current = null;
+            if (segment != null) {
+                long start = segment.reserve(segment.capacity + 1L);
+                if (segment.isSealer(start, segment.capacity + 1L)) {
+                    segment.end = start;
+                }
+                retired.add(segment);
+            }
+            unused = spare;
+            spare = null;
+        }
+        flusher.interrupt();
+        try {
+            flusher.join(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closeRetired();
+        if (unused != null) {
+            discard(unused);
+        }
+    }
+}
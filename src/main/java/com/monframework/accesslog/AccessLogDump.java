@@ -0,0 +1,103 @@
+package com.monframework.accesslog;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.function.Consumer;
+
+/**
+ * Convertit des segments binaires du journal d'accès (.bin) au format texte.
+ *
+ * mvn -q compile exec:java -Dexec.mainClass=com.monframework.accesslog.AccessLogDump -Dexec.args="logs/access-*.bin"
+ */
+public class AccessLogDump {
+
+    private static final DateTimeFormatter TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'").withZone(ZoneOffset.UTC);
+
+    public static void main(String[] args) throws IOException {
+        PrintStream out = System.out;
+        for (String arg : args) {
+            Path file = Paths.get(arg);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                ByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                StringBuilder text = new StringBuilder(64 * 1024);
+                int count = decode(in, line -> {
+                    text.append(line).append('\n');
+                    if (text.length() > 60 * 1024) {
+                        out.print(text);
+                        text.setLength(0);
+                    }
+                });
+                out.print(text);
+                if (count < 0) {
+                    System.err.println(arg + ": pas un segment binaire du journal d'accès");
+                }
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Décode un segment binaire, une ligne texte par enregistrement.
+     *
+     * @return nombre d'enregistrements, -1 si l'en-tête est absent
+     */
+    public static int decode(ByteBuffer in, Consumer<String> lines) {
+        byte[] header = AccessLog.BINARY_HEADER;
+        if (in.remaining() < header.length) {
+            return -1;
+        }
+        for (byte b : header) {
+            if (in.get() != b) {
+                return -1;
+            }
+        }
+        int count = 0;
+        StringBuilder line = new StringBuilder(256);
+        // Fin utile: fin du fichier ou premier enregistrement nul (arrêt brutal)
+        while (in.remaining() >= 2) {
+            int start = in.position();
+            int length = in.getShort() & 0xFFFF;
+            if (length == 0 || length > in.remaining() + 2) {
+                break;
+            }
+            long epochMillis = in.getLong();
+            int micros = in.getInt();
+            int status = in.getShort() & 0xFFFF;
+            int size = in.getInt();
+            String client = string(in, in.get() & 0xFF);
+            String method = string(in, in.get() & 0xFF);
+            String route = string(in, in.getShort() & 0xFFFF);
+            String path = string(in, in.getShort() & 0xFFFF);
+            in.position(start + length);
+
+            line.setLength(0);
+            TIMESTAMP.formatTo(Instant.ofEpochMilli(epochMillis), line);
+            line.append(' ').append(client.isEmpty() ? "-" : client)
+                .append(' ').append(method)
+                .append(' ').append(path)
+                .append(' ').append(route.isEmpty() ? "-" : route)
+                .append(' ').append(status)
+                .append(' ').append(size >= 0 ? String.valueOf(size) : "-")
+                .append(' ').append(micros);
+            lines.accept(line.toString());
+            count++;
+        }
+        return count;
+    }
+
+    private static String string(ByteBuffer in, int length) {
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,157 @@
+package com.monframework.accesslog;
+
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Tampon d'encodage d'un enregistrement, un par thread (ThreadLocal): aucun
+ * objet n'est alloué par ligne une fois le tampon à la bonne taille.
+ */
+final class RecordBuffer {
+
+    byte[] bytes = new byte[256];
+    int length;
+
+    // Préfixe "yyyy-MM-ddTHH:mm:ss." de la dernière seconde formatée
+    private long cachedSecond = Long.MIN_VALUE;
+    private final byte[] secondPrefix = new byte[20];
+
+    void reset() {
+        length = 0;
+    }
+
+    private void ensure(int extra) {
+        if (length + extra > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+        }
+    }
+
+    void put(byte b) {
+        ensure(1);
+        bytes[length++] = b;
+    }
+
+    void putShort(int value) {
+        ensure(2);
+        bytes[length++] = (byte) (value >>> 8);
+        bytes[length++] = (byte) value;
+    }
+
+    void putInt(int value) {
+        ensure(4);
+        bytes[length++] = (byte) (value >>> 24);
+        bytes[length++] = (byte) (value >>> 16);
+        bytes[length++] = (byte) (value >>> 8);
+        bytes[length++] = (byte) value;
+    }
+
+    void putLong(long value) {
+        putInt((int) (value >>> 32));
+        putInt((int) value);
+    }
+
+    void setShort(int index, int value) {
+        bytes[index] = (byte) (value >>> 8);
+        bytes[index + 1] = (byte) value;
+    }
+
+    /**
+     * Nombre décimal en ASCII.
+     */
+    void putDecimal(long value) {
+        if (value < 0) {
+            put((byte) '-');
+            if (value == Long.MIN_VALUE) {
+                putAscii("9223372036854775808");
+                return;
+            }
+            value = -value;
+        }
+        ensure(19);
+        int start = length;
+        do {
+            bytes[length++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        for (int i = start, j = length - 1; i < j; i++, j--) {
+            byte tmp = bytes[i];
+            bytes[i] = bytes[j];
+            bytes[j] = tmp;
+        }
+    }
+
+    void putAscii(String value) {
+        ensure(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            bytes[length++] = (byte) value.charAt(i);
+        }
+    }
+
+    /**
+     * UTF-8 de value, au plus maxBytes octets (sans couper un caractère).
+     * Si token, espaces et caractères de contrôle sont remplacés par '?'
+     * pour garder une ligne texte découpable sur les espaces.
+     */
+    int putUtf8(String value, int maxBytes, boolean token) {
+        int start = length;
+        ensure(Math.min(maxBytes, value.length() * 3));
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            int room = maxBytes - (length - start);
+            if (c < 0x80) {
+                if (room < 1) {
+                    break;
+                }
+                bytes[length++] = (byte) (token && c <= ' ' ? '?' : c);
+            } else if (c < 0x800) {
+                if (room < 2) {
+                    break;
+                }
+                bytes[length++] = (byte) (0xC0 | (c >> 6));
+                bytes[length++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                if (room < 4) {
+                    break;
+                }
+                int cp = Character.toCodePoint(c, value.charAt(++i));
+                bytes[length++] = (byte) (0xF0 | (cp >> 18));
+                bytes[length++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                bytes[length++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                bytes[length++] = (byte) (0x80 | (cp & 0x3F));
+            } else {
+                if (room < 3) {
+                    break;
+                }
+                char encoded = Character.isSurrogate(c) ? '?' : c;
+                bytes[length++] = (byte) (0xE0 | (encoded >> 12));
+                bytes[length++] = (byte) (0x80 | ((encoded >> 6) & 0x3F));
+                bytes[length++] = (byte) (0x80 | (encoded & 0x3F));
+            }
+        }
+        return length - start;
+    }
+
+    /**
+     * Horodatage ISO-8601 UTC à la milliseconde (yyyy-MM-ddTHH:mm:ss.SSSZ).
+     */
+    void putTimestamp(long epochMillis) {
+        long second = Math.floorDiv(epochMillis, 1000);
+        if (second != cachedSecond) {
+            String text = Instant.ofEpochSecond(second).toString(); // yyyy-MM-ddTHH:mm:ssZ
+            for (int i = 0; i < 19; i++) {
+                secondPrefix[i] = (byte) text.charAt(i);
+            }
+            secondPrefix[19] = '.';
+            cachedSecond = second;
+        }
+        ensure(24);
+        System.arraycopy(secondPrefix, 0, bytes, length, 20);
+        length += 20;
+        int millis = Math.floorMod(epochMillis, 1000);
+        bytes[length++] = (byte) ('0' + millis / 100);
+        bytes[length++] = (byte) ('0' + millis / 10 % 10);
+        bytes[length++] = (byte) ('0' + millis % 10);
+        bytes[length++] = 'Z';
+    }
+}
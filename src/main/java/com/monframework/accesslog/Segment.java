@@ -0,0 +1,109 @@
+package com.monframework.accesslog;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fichier de journal projeté en mémoire, de taille fixe.
+ *
+ * Les écrivains réservent une plage par getAndAdd sur position puis copient
+ * leur enregistrement à cet endroit: aucun verrou. La première réservation
+ * qui dépasse la capacité scelle le segment; son début devient la fin du
+ * fichier (end), qui est tronqué à cette taille une fois les écrivains
+ * partis.
+ */
+final class Segment {
+
+    final Path file;
+    final int capacity;
+    volatile long openedMillis = System.currentTimeMillis(); // mis à jour à l'activation
+    final AtomicLong position = new AtomicLong();
+    final AtomicInteger writers = new AtomicInteger(); // écrivains en cours de copie
+    volatile long end = -1; // fixé par le scellement
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+
+    Segment(Path file, int capacity, byte[] header) throws IOException {
+        this.file = file;
+        this.capacity = capacity;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        if (header.length > 0) {
+            buffer.put(0, header);
+            position.set(header.length);
+        }
+    }
+
+    /**
+     * Réserve length octets.
+     *
+     * @return début de la plage; si la plage dépasse la capacité, l'appelant
+     *         ne doit pas écrire (voir isSealer)
+     */
+    long reserve(long length) {
+        return position.getAndAdd(length);
+    }
+
+    boolean fits(long start, long length) {
+        return start + length <= capacity;
+    }
+
+    /**
+     * true si la réservation [start, start + length) est celle qui a
+     * dépassé la capacité en premier.
+     */
+    boolean isSealer(long start, long length) {
+        return start <= capacity && start + length > capacity;
+    }
+
+    void write(long start, byte[] bytes, int length) {
+        buffer.put((int) start, bytes, 0, length);
+    }
+
+    /**
+     * Force l'écriture sur disque de ce qui a été réservé.
+     */
+    void force() {
+        long written = Math.min(position.get(), capacity);
+        if (written > 0) {
+            buffer.force(0, (int) written);
+        }
+    }
+
+    /**
+     * Attend la fin des copies en cours, force, tronque à end et ferme.
+     * Appelé après remplacement du segment courant.
+     */
+    void close() throws IOException {
+        while (writers.get() > 0) {
+            Thread.onSpinWait();
+        }
+        long size = end >= 0 ? end : Math.min(position.get(), capacity);
+        try {
+            buffer.force(0, (int) size);
+            channel.truncate(size);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Supprime un segment jamais utilisé.
+     */
+    void discard() throws IOException {
+        channel.close();
+        Files.deleteIfExists(file);
+    }
+}
@@ -10,4 +10,5 @@ import java.lang.annotation.Target;
 @Target(ElementType.TYPE)
 public @interface Controller {
     String value() default "";
+    InstantiationPolicy instantiation() default InstantiationPolicy.EAGER;
 }
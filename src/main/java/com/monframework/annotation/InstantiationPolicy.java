@@ -0,0 +1,9 @@
+package com.monframework.annotation;
+
+/**
+ * Moment de création d'un contrôleur et de l'appel à son init().
+ */
+public enum InstantiationPolicy {
+    EAGER, // au démarrage, en parallèle avec les autres contrôleurs
+    LAZY   // à la première requête qui cible le contrôleur
+}
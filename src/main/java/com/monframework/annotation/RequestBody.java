@@ -0,0 +1,13 @@
+package com.monframework.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.PARAMETER)
+public @interface RequestBody {
+    boolean required() default true; // Corps vide refusé (400) si true
+    long maxSize() default -1; // Taille maximale en octets, -1: init-param "request-body-max-size"
+}
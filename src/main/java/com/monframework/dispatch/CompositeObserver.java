@@ -0,0 +1,81 @@
+package com.monframework.dispatch;
+
+import com.monframework.log.Log;
+import com.monframework.log.Logger;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Plusieurs observateurs appelés dans l'ordre (RequestObserver.of). Chaque
+ * appel est isolé: un observateur qui lève une exception est journalisé et
+ * les suivants sont appelés quand même (SlowRequestSampler, enregistré en
+ * dernier, doit recevoir requestEnded pour oublier la requête).
+ */
+final class CompositeObserver implements RequestObserver {
+
+    private static final Logger LOG = Log.get(CompositeObserver.class);
+
+    private final RequestObserver[] all;
+
+    CompositeObserver(RequestObserver[] all) {
+        this.all = all;
+    }
+
+    @Override
+    public void requestStarted(DispatchContext dispatch, HttpServletRequest request) {
+        for (RequestObserver observer : all) {
+            try {
+                observer.requestStarted(dispatch, request);
+            } catch (RuntimeException e) {
+                failed(observer, e);
+            }
+        }
+    }
+
+    @Override
+    public void phaseStarted(DispatchContext dispatch, DispatchPhase phase) {
+        for (RequestObserver observer : all) {
+            try {
+                observer.phaseStarted(dispatch, phase);
+            } catch (RuntimeException e) {
+                failed(observer, e);
+            }
+        }
+    }
+
+    @Override
+    public void phaseEnded(DispatchContext dispatch, DispatchPhase phase, long durationNanos) {
+        for (RequestObserver observer : all) {
+            try {
+                observer.phaseEnded(dispatch, phase, durationNanos);
+            } catch (RuntimeException e) {
+                failed(observer, e);
+            }
+        }
+    }
+
+    @Override
+    public void requestEnded(DispatchContext dispatch) {
+        for (RequestObserver observer : all) {
+            try {
+                observer.requestEnded(dispatch);
+            } catch (RuntimeException e) {
+                failed(observer, e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        for (RequestObserver observer : all) {
+            try {
+                observer.close();
+            } catch (RuntimeException e) {
+                failed(observer, e);
+            }
+        }
+    }
+
+    private static void failed(RequestObserver observer, RuntimeException e) {
+        LOG.warn(() -> "RequestObserver en échec (" + observer.getClass().getName() + "): " + e);
+    }
+}
@@ -0,0 +1,233 @@
+package com.monframework.dispatch;
+
+import com.monframework.jfr.DispatchEvents;
+import com.monframework.log.Log;
+import com.monframework.log.Logger;
+import com.monframework.mapping.URLRoute;
+import jakarta.servlet.http.HttpServletRequest;
+import jdk.jfr.Event;
+
+/**
+ * Suivi d'une requête dans le FrontServlet: route résolue et temps passé
+ * dans chaque DispatchPhase.
+ *
+ * Créé au début de service(), utilisé par un seul thread. La requête commence
+ * en ROUTING; enter() termine l'étape en cours et démarre la suivante,
+ * finish() termine la dernière. Si un RequestObserver est attaché (observe()),
+ * il est prévenu à chaque transition; sinon aucun appel n'est fait. Les
+ * étapes et la requête produisent aussi les événements JFR activés
+ * (DispatchEvents).
+ */
+public final class DispatchContext {
+
+    private static final Logger LOG = Log.get(DispatchContext.class);
+
+    private static final DispatchPhase[] PHASES = DispatchPhase.values();
+
+    private final String httpMethod;
+    private final String path;
+    private final long startNanos;
+    private final long[] phaseNanos = new long[PHASES.length];
+    private final long[] phaseStartNanos = new long[PHASES.length]; // première entrée
+    private int visitedPhases; // un bit par ordinal
+    private DispatchPhase phase;
+    private long phaseStart;
+    private long endNanos;
+    private URLRoute route;
+    private int status;
+    private long responseSize = -1;
+    private Throwable error;
+    private RequestObserver observer;
+    private TraceContext trace;
+    private Event phaseEvent;   // null si le type JFR est désactivé
+    private final Event requestEvent;
+
+    public DispatchContext(String httpMethod, String path) {
+        this.httpMethod = httpMethod;
+        this.path = path;
+        this.startNanos = System.nanoTime();
+        this.phase = DispatchPhase.ROUTING;
+        this.phaseStart = startNanos;
+        this.requestEvent = DispatchEvents.beginRequest();
+        this.phaseEvent = DispatchEvents.beginPhase(DispatchPhase.ROUTING);
+    }
+
+    /**
+     * Attache un observateur: lit traceparent, pose le TraceContext en
+     * attribut de requête puis signale le début de la requête et de ROUTING.
+     */
+    public void observe(RequestObserver observer, HttpServletRequest request) {
+        this.observer = observer;
+        this.trace = TraceContext.fromHeader(request.getHeader(TraceContext.HEADER));
+        request.setAttribute(TraceContext.ATTRIBUTE, trace);
+        try {
+            observer.requestStarted(this, request);
+            observer.phaseStarted(this, phase);
+        } catch (RuntimeException e) {
+            observerFailed(e);
+        }
+    }
+
+    /**
+     * Termine l'étape en cours et commence next.
+     */
+    public void enter(DispatchPhase next) {
+        long now = System.nanoTime();
+        closePhase(now);
+        phase = next;
+        phaseStart = now;
+        if ((visitedPhases & (1 << next.ordinal())) == 0) {
+            phaseStartNanos[next.ordinal()] = now;
+        }
+        phaseEvent = DispatchEvents.beginPhase(next);
+        if (observer != null) {
+            try {
+                observer.phaseStarted(this, next);
+            } catch (RuntimeException e) {
+                observerFailed(e);
+            }
+        }
+    }
+
+    /**
+     * Termine l'étape en cours et la requête; sans effet si déjà appelé.
+     *
+     * @param status statut HTTP de la réponse
+     */
+    public void finish(int status) {
+        if (phase != null) {
+            long now = System.nanoTime();
+            closePhase(now);
+            phase = null;
+            endNanos = now;
+            this.status = status;
+            DispatchEvents.endRequest(requestEvent, this, responseSize);
+            if (observer != null) {
+                try {
+                    observer.requestEnded(this);
+                } catch (RuntimeException e) {
+                    observerFailed(e);
+                }
+            }
+        }
+    }
+
+    private void closePhase(long now) {
+        if (phase != null) {
+            long elapsed = now - phaseStart;
+            phaseNanos[phase.ordinal()] += elapsed;
+            visitedPhases |= 1 << phase.ordinal();
+            if (phaseEvent != null) {
+                DispatchEvents.endPhase(phaseEvent, this);
+                phaseEvent = null;
+            }
+            if (observer != null) {
+                try {
+                    observer.phaseEnded(this, phase, elapsed);
+                } catch (RuntimeException e) {
+                    observerFailed(e);
+                }
+            }
+        }
+    }
+
+    private void observerFailed(RuntimeException e) {
+        LOG.warn(() -> "RequestObserver en échec (" + path + "): " + e);
+    }
+
+    public boolean isFinished() {
+        return phase == null;
+    }
+
+    /**
+     * @return l'étape en cours, null après finish(); lue sans synchronisation
+     *         par SlowRequestSampler (valeur indicative depuis un autre thread)
+     */
+    public DispatchPhase getPhase() {
+        return phase;
+    }
+
+    public boolean hasVisited(DispatchPhase phase) {
+        return (visitedPhases & (1 << phase.ordinal())) != 0;
+    }
+
+    /**
+     * Temps passé dans une étape terminée (0 si elle n'a pas eu lieu).
+     */
+    public long getPhaseNanos(DispatchPhase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    /**
+     * Début de la première entrée dans l'étape, relatif à getStartNanos().
+     */
+    public long getPhaseOffsetNanos(DispatchPhase phase) {
+        return phase == DispatchPhase.ROUTING ? 0 : phaseStartNanos[phase.ordinal()] - startNanos;
+    }
+
+    /**
+     * Durée totale, ou durée écoulée si la requête n'est pas terminée.
+     */
+    public long getDurationNanos() {
+        return (phase == null ? endNanos : System.nanoTime()) - startNanos;
+    }
+
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    public String getHttpMethod() {
+        return httpMethod;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * @return la route appelée, null si aucune route n'a été trouvée
+     */
+    public URLRoute getRoute() {
+        return route;
+    }
+
+    public void setRoute(URLRoute route) {
+        this.route = route;
+    }
+
+    /**
+     * @return le statut passé à finish(), 0 avant
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * @return l'exception qui a interrompu le traitement, null sinon
+     */
+    public Throwable getError() {
+        return error;
+    }
+
+    public void setError(Throwable error) {
+        this.error = error;
+    }
+
+    /**
+     * @return les octets du corps de la réponse, -1 si non comptés
+     */
+    public long getResponseSize() {
+        return responseSize;
+    }
+
+    public void setResponseSize(long responseSize) {
+        this.responseSize = responseSize;
+    }
+
+    /**
+     * @return le contexte de trace, null si aucun observateur n'est attaché
+     */
+    public TraceContext getTrace() {
+        return trace;
+    }
+}
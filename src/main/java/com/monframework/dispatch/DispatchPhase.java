@@ -0,0 +1,27 @@
+package com.monframework.dispatch;
+
+/**
+ * Étapes du traitement d'une requête par le FrontServlet, dans l'ordre.
+ */
+public enum DispatchPhase {
+    ROUTING("routing"),
+    SECURITY("security"),
+    PARAMETERS("parameters"),
+    INVOCATION("invocation"),
+    /** Retrait des attributs @RemoveSessionAttribute (seulement s'il y en a). */
+    SESSION("session"),
+    RENDERING("rendering");
+
+    private final String label;
+
+    DispatchPhase(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Nom en minuscules, utilisé dans les métriques.
+     */
+    public String getLabel() {
+        return label;
+    }
+}
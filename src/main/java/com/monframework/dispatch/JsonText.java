@@ -0,0 +1,28 @@
+package com.monframework.dispatch;
+
+/**
+ * Écriture des chaînes JSON des rapports de diagnostic.
+ */
+final class JsonText {
+
+    private JsonText() {}
+
+    static void string(StringBuilder out, String value) {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < 0x20) {
+                out.append(String.format("\\u%04x", (int) c));
+            } else {
+                out.append(c);
+            }
+        }
+        out.append('"');
+    }
+}
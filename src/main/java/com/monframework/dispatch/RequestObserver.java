@@ -0,0 +1,58 @@
+package com.monframework.dispatch;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.List;
+
+/**
+ * Observateur du cycle de vie des requêtes traitées par le FrontServlet.
+ *
+ * Les implémentations sont chargées par ServiceLoader
+ * (META-INF/services/com.monframework.dispatch.RequestObserver) et par
+ * l'init-param "request-observers" (noms de classes séparés par des
+ * virgules). Sans observateur, aucun appel n'est fait et traceparent n'est
+ * pas lu.
+ *
+ * Les méthodes sont appelées sur le thread de la requête: elles doivent
+ * être rapides et ne pas bloquer. Une exception levée par un observateur est
+ * journalisée et n'interrompt pas la requête.
+ */
+public interface RequestObserver extends AutoCloseable {
+
+    /**
+     * Début de la requête, avant l'étape ROUTING.
+     * dispatch.getTrace() est déjà renseigné.
+     */
+    default void requestStarted(DispatchContext dispatch, HttpServletRequest request) {}
+
+    default void phaseStarted(DispatchContext dispatch, DispatchPhase phase) {}
+
+    default void phaseEnded(DispatchContext dispatch, DispatchPhase phase, long durationNanos) {}
+
+    /**
+     * Fin de la requête: dispatch.getStatus() et dispatch.getError() sont
+     * renseignés.
+     */
+    default void requestEnded(DispatchContext dispatch) {}
+
+    /**
+     * Appelé à l'arrêt du servlet.
+     */
+    @Override
+    default void close() {}
+
+    /**
+     * @return null si la liste est vide, l'observateur seul, ou un
+     *         observateur qui les appelle tous dans l'ordre (l'échec de l'un
+     *         n'empêche pas l'appel des suivants)
+     */
+    static RequestObserver of(List<RequestObserver> observers) {
+        if (observers.isEmpty()) {
+            return null;
+        }
+        if (observers.size() == 1) {
+            return observers.get(0);
+        }
+        return new CompositeObserver(observers.toArray(new RequestObserver[0]));
+    }
+}
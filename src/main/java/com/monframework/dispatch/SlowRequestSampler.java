@@ -0,0 +1,377 @@
+package com.monframework.dispatch;
+
+import com.monframework.log.Log;
+import com.monframework.log.Logger;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Observateur intégré: échantillonne la pile des requêtes lentes
+ * (init-param "slow-request-threshold-ms").
+ *
+ * Les requêtes en cours sont suivies dans une table; un seul thread,
+ * "monframework-slow-requests", la parcourt toutes les intervalMillis et
+ * relève la pile (Thread.getStackTrace) de celles qui dépassent le seuil,
+ * jusqu'à leur fin. Les piles identiques sont agrégées avec l'étape en cours.
+ * Une requête lente terminée produit un rapport (route, étape, paramètres,
+ * piles) gardé dans un anneau borné: les plus anciens sont oubliés.
+ *
+ * Les paramètres sont relevés à la fin de la requête; ceux dont le nom
+ * contient un des fragments masqués (password, token...) sont remplacés
+ * par "***".
+ */
+public final class SlowRequestSampler implements RequestObserver {
+
+    private static final Logger LOG = Log.get(SlowRequestSampler.class);
+
+    public static final List<String> DEFAULT_MASKED = List.of(
+            "password", "passwd", "pwd", "secret", "token", "apikey", "api_key",
+            "auth", "credential", "session", "cookie");
+
+    private static final int MAX_FRAMES = 64;
+    private static final int MAX_STACKS = 32;
+    private static final int MAX_PARAMETERS = 50;
+    private static final int MAX_VALUE_LENGTH = 200;
+
+    private final long thresholdNanos;
+    private final long intervalNanos;
+    private final int capacity;
+    private final String[] maskedFragments;
+    private final Map<DispatchContext, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final Deque<Report> reports = new ArrayDeque<>(); // protégé par reports
+    private final Thread watchdog;
+    private volatile boolean closed;
+
+    public SlowRequestSampler(long thresholdMillis, long intervalMillis, int capacity, List<String> maskedFragments) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, intervalMillis));
+        this.capacity = Math.max(1, capacity);
+        this.maskedFragments = new String[maskedFragments.size()];
+        for (int i = 0; i < this.maskedFragments.length; i++) {
+            this.maskedFragments[i] = maskedFragments.get(i).toLowerCase(Locale.ROOT);
+        }
+        this.watchdog = new Thread(this::run, "monframework-slow-requests");
+        watchdog.setDaemon(true);
+        watchdog.start();
+    }
+
+    @Override
+    public void requestStarted(DispatchContext dispatch, HttpServletRequest request) {
+        inFlight.put(dispatch, new InFlight(dispatch, Thread.currentThread(), request));
+    }
+
+    @Override
+    public void requestEnded(DispatchContext dispatch) {
+        InFlight request = inFlight.remove(dispatch);
+        if (request == null) {
+            return;
+        }
+        synchronized (request) {
+            request.done = true;
+        }
+        if (dispatch.getDurationNanos() >= thresholdNanos) {
+            Report report = request.report(false, maskedParameters(request.request));
+            synchronized (reports) {
+                if (reports.size() == capacity) {
+                    reports.removeLast();
+                }
+                reports.addFirst(report);
+            }
+            LOG.warn(() -> "Requête lente: " + dispatch.getHttpMethod() + " " + dispatch.getPath()
+                    + " (" + TimeUnit.NANOSECONDS.toMillis(dispatch.getDurationNanos()) + " ms)");
+        }
+    }
+
+    private void run() {
+        while (!closed) {
+            LockSupport.parkNanos(this, intervalNanos);
+            long now = System.nanoTime();
+            for (InFlight request : inFlight.values()) {
+                if (now - request.dispatch.getStartNanos() >= thresholdNanos) {
+                    try {
+                        request.sample();
+                    } catch (RuntimeException e) {
+                        LOG.warn(() -> "Échantillonnage impossible: " + e);
+                    }
+                }
+            }
+        }
+    }
+
+    private Map<String, String[]> maskedParameters(HttpServletRequest request) {
+        Map<String, String[]> masked = new LinkedHashMap<>();
+        Map<String, String[]> parameters;
+        try {
+            parameters = request.getParameterMap();
+        } catch (RuntimeException e) {
+            return masked;
+        }
+        for (Map.Entry<String, String[]> entry : parameters.entrySet()) {
+            if (masked.size() == MAX_PARAMETERS) {
+                break;
+            }
+            String name = entry.getKey();
+            String[] values = entry.getValue().clone();
+            boolean secret = isMasked(name);
+            for (int i = 0; i < values.length; i++) {
+                if (secret) {
+                    values[i] = "***";
+                } else if (values[i] != null && values[i].length() > MAX_VALUE_LENGTH) {
+                    values[i] = values[i].substring(0, MAX_VALUE_LENGTH) + "...";
+                }
+            }
+            masked.put(name, values);
+        }
+        return masked;
+    }
+
+    private boolean isMasked(String name) {
+        String lower = name.toLowerCase(Locale.ROOT);
+        for (String fragment : maskedFragments) {
+            if (lower.contains(fragment)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Écrit en JSON les requêtes lentes en cours puis les rapports gardés,
+     * du plus récent au plus ancien.
+     */
+    public void writeJson(StringBuilder out) {
+        List<Report> all = new ArrayList<>();
+        long now = System.nanoTime();
+        for (InFlight request : inFlight.values()) {
+            if (now - request.dispatch.getStartNanos() >= thresholdNanos) {
+                all.add(request.report(true, null));
+            }
+        }
+        all.sort(Comparator.comparingLong((Report report) -> report.durationNanos).reversed());
+        synchronized (reports) {
+            all.addAll(reports);
+        }
+        out.append("{\"thresholdMillis\":").append(TimeUnit.NANOSECONDS.toMillis(thresholdNanos))
+           .append(",\"reports\":[");
+        for (int i = 0; i < all.size(); i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            all.get(i).appendJson(out);
+        }
+        out.append("]}");
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(watchdog);
+    }
+
+    /**
+     * Requête suivie; les échantillons sont protégés par le verrou de l'objet.
+     */
+    private static final class InFlight {
+        final DispatchContext dispatch;
+        final Thread thread;
+        final HttpServletRequest request;
+        final long startMillis = System.currentTimeMillis();
+        final Map<StackKey, int[]> stacks = new HashMap<>();
+        int samples;
+        int otherSamples; // au-delà de MAX_STACKS piles distinctes
+        DispatchPhase lastPhase;
+        boolean done;
+
+        InFlight(DispatchContext dispatch, Thread thread, HttpServletRequest request) {
+            this.dispatch = dispatch;
+            this.thread = thread;
+            this.request = request;
+        }
+
+        void sample() {
+            StackTraceElement[] stack = thread.getStackTrace();
+            DispatchPhase phase = dispatch.getPhase();
+            if (stack.length > MAX_FRAMES) {
+                stack = Arrays.copyOf(stack, MAX_FRAMES);
+            }
+            synchronized (this) {
+                // Pile relevée après la fin: elle peut appartenir à la requête suivante
+                if (done || phase == null) {
+                    return;
+                }
+                samples++;
+                lastPhase = phase;
+                StackKey key = new StackKey(phase, stack);
+                int[] count = stacks.get(key);
+                if (count != null) {
+                    count[0]++;
+                } else if (stacks.size() < MAX_STACKS) {
+                    stacks.put(key, new int[] {1});
+                } else {
+                    otherSamples++;
+                }
+            }
+        }
+
+        synchronized Report report(boolean inProgress, Map<String, String[]> parameters) {
+            List<StackCount> aggregated = new ArrayList<>(stacks.size());
+            stacks.forEach((stack, count) -> aggregated.add(new StackCount(stack, count[0])));
+            aggregated.sort((a, b) -> Integer.compare(b.count, a.count));
+            TraceContext trace = dispatch.getTrace();
+            return new Report(startMillis, dispatch.getHttpMethod(), dispatch.getPath(),
+                    dispatch.getRoute() != null ? dispatch.getRoute().getUrlPattern() : null,
+                    trace != null ? trace.getTraceId() : null,
+                    inProgress ? 0 : dispatch.getStatus(),
+                    dispatch.getDurationNanos(),
+                    inProgress ? dispatch.getPhase() : lastPhase,
+                    inProgress, parameters, samples, otherSamples, aggregated);
+        }
+    }
+
+    private static final class StackKey {
+        final DispatchPhase phase;
+        final StackTraceElement[] frames;
+        final int hash;
+
+        StackKey(DispatchPhase phase, StackTraceElement[] frames) {
+            this.phase = phase;
+            this.frames = frames;
+            this.hash = 31 * phase.hashCode() + Arrays.hashCode(frames);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof StackKey)) {
+                return false;
+            }
+            StackKey key = (StackKey) other;
+            return hash == key.hash && phase == key.phase && Arrays.equals(frames, key.frames);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class StackCount {
+        final StackKey stack;
+        final int count;
+
+        StackCount(StackKey stack, int count) {
+            this.stack = stack;
+            this.count = count;
+        }
+    }
+
+    private static final class Report {
+        final long startMillis;
+        final String method;
+        final String path;
+        final String route;
+        final String traceId;
+        final int status;
+        final long durationNanos;
+        final DispatchPhase phase;
+        final boolean inProgress;
+        final Map<String, String[]> parameters; // null si en cours
+        final int samples;
+        final int otherSamples;
+        final List<StackCount> stacks;
+
+        Report(long startMillis, String method, String path, String route, String traceId, int status,
+                long durationNanos, DispatchPhase phase, boolean inProgress, Map<String, String[]> parameters,
+                int samples, int otherSamples, List<StackCount> stacks) {
+            this.startMillis = startMillis;
+            this.method = method;
+            this.path = path;
+            this.route = route;
+            this.traceId = traceId;
+            this.status = status;
+            this.durationNanos = durationNanos;
+            this.phase = phase;
+            this.inProgress = inProgress;
+            this.parameters = parameters;
+            this.samples = samples;
+            this.otherSamples = otherSamples;
+            this.stacks = stacks;
+        }
+
+        void appendJson(StringBuilder out) {
+            out.append("{\"startedAt\":\"").append(Instant.ofEpochMilli(startMillis)).append('"');
+            out.append(",\"method\":");
+            JsonText.string(out, method);
+            out.append(",\"path\":");
+            JsonText.string(out, path);
+            out.append(",\"route\":");
+            JsonText.string(out, route);
+            out.append(",\"traceId\":");
+            JsonText.string(out, traceId);
+            out.append(",\"inProgress\":").append(inProgress);
+            if (!inProgress) {
+                out.append(",\"status\":").append(status);
+            }
+            out.append(",\"durationMillis\":").append(TimeUnit.NANOSECONDS.toMillis(durationNanos));
+            out.append(",\"phase\":");
+            JsonText.string(out, phase != null ? phase.getLabel() : null);
+            if (parameters != null) {
+                out.append(",\"parameters\":{");
+                boolean first = true;
+                for (Map.Entry<String, String[]> entry : parameters.entrySet()) {
+                    if (!first) {
+                        out.append(',');
+                    }
+                    first = false;
+                    JsonText.string(out, entry.getKey());
+                    out.append(":[");
+                    String[] values = entry.getValue();
+                    for (int i = 0; i < values.length; i++) {
+                        if (i > 0) {
+                            out.append(',');
+                        }
+                        JsonText.string(out, values[i]);
+                    }
+                    out.append(']');
+                }
+                out.append('}');
+            }
+            out.append(",\"samples\":").append(samples);
+            if (otherSamples > 0) {
+                out.append(",\"otherSamples\":").append(otherSamples);
+            }
+            out.append(",\"stacks\":[");
+            for (int i = 0; i < stacks.size(); i++) {
+                StackCount stack = stacks.get(i);
+                if (i > 0) {
+                    out.append(',');
+                }
+                out.append("{\"count\":").append(stack.count)
+                   .append(",\"phase\":\"").append(stack.stack.phase.getLabel())
+                   .append("\",\"frames\":[");
+                StackTraceElement[] frames = stack.stack.frames;
+                for (int f = 0; f < frames.length; f++) {
+                    if (f > 0) {
+                        out.append(',');
+                    }
+                    JsonText.string(out, frames[f].toString());
+                }
+                out.append("]}");
+            }
+            out.append("]}");
+        }
+    }
+}
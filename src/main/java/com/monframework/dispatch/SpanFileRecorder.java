@@ -0,0 +1,158 @@
+package com.monframework.dispatch;
+
+import com.monframework.log.Log;
+import com.monframework.log.Logger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Observateur intégré: écrit un span par requête dans un fichier local
+ * (init-param "trace-file"), une ligne JSON par requête:
+ *
+ * {"traceId":..,"spanId":..,"parentId":..,"method":"GET","path":"/p/1",
+ *  "route":"/p/{id}","status":200,"startMicros":..,"durationMicros":..,
+ *  "phases":[{"name":"routing","offsetMicros":0,"durationMicros":3},..]}
+ *
+ * Seules les requêtes d'au moins minDurationMicros sont gardées (0: toutes).
+ * La ligne est formatée sur le thread de la requête puis écrite par le
+ * thread "monframework-spans"; si la file est pleine, le span est perdu et
+ * compté.
+ */
+public final class SpanFileRecorder implements RequestObserver {
+
+    private static final Logger LOG = Log.get(SpanFileRecorder.class);
+
+    private static final DispatchPhase[] PHASES = DispatchPhase.values();
+
+    private final long minDurationNanos;
+    private final BlockingQueue<String> queue;
+    private final BufferedWriter writer;
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread consumer;
+    private volatile boolean closed;
+
+    public SpanFileRecorder(Path file, long minDurationMicros, int capacity) {
+        this.minDurationNanos = minDurationMicros * 1000;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        try {
+            this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Ouverture du fichier de spans impossible: " + file, e);
+        }
+        this.consumer = new Thread(this::run, "monframework-spans");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    @Override
+    public void requestEnded(DispatchContext dispatch) {
+        long duration = dispatch.getDurationNanos();
+        if (duration < minDurationNanos || closed) {
+            return;
+        }
+        StringBuilder line = new StringBuilder(256);
+        TraceContext trace = dispatch.getTrace();
+        line.append("{\"traceId\":\"").append(trace.getTraceId())
+            .append("\",\"spanId\":\"").append(trace.getSpanId()).append('"');
+        if (trace.getParentId() != null) {
+            line.append(",\"parentId\":\"").append(trace.getParentId()).append('"');
+        }
+        line.append(",\"method\":");
+        JsonText.string(line, dispatch.getHttpMethod());
+        line.append(",\"path\":");
+        JsonText.string(line, dispatch.getPath());
+        if (dispatch.getRoute() != null) {
+            line.append(",\"route\":");
+            JsonText.string(line, dispatch.getRoute().getUrlPattern());
+        }
+        line.append(",\"status\":").append(dispatch.getStatus());
+        if (dispatch.getError() != null) {
+            line.append(",\"error\":");
+            JsonText.string(line, dispatch.getError().toString());
+        }
+        line.append(",\"startMicros\":").append(System.currentTimeMillis() * 1000 - duration / 1000)
+            .append(",\"durationMicros\":").append(duration / 1000)
+            .append(",\"phases\":[");
+        boolean first = true;
+        for (DispatchPhase phase : PHASES) {
+            if (dispatch.hasVisited(phase)) {
+                if (!first) {
+                    line.append(',');
+                }
+                first = false;
+                line.append("{\"name\":\"").append(phase.getLabel())
+                    .append("\",\"offsetMicros\":").append(dispatch.getPhaseOffsetNanos(phase) / 1000)
+                    .append(",\"durationMicros\":").append(dispatch.getPhaseNanos(phase) / 1000)
+                    .append('}');
+            }
+        }
+        line.append("]}");
+        if (!queue.offer(line.toString())) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    private void run() {
+        List<String> batch = new ArrayList<>(256);
+        long reportedDrops = 0;
+        try {
+            while (!closed || !queue.isEmpty()) {
+                String first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, 255);
+                for (String line : batch) {
+                    writer.write(line);
+                    writer.newLine();
+                }
+                writer.flush();
+                batch.clear();
+                long drops = dropped.get();
+                if (drops != reportedDrops) {
+                    long lost = drops - reportedDrops;
+                    LOG.warn(() -> lost + " span(s) perdu(s), file pleine");
+                    reportedDrops = drops;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            LOG.error("Écriture des spans impossible", e);
+        }
+    }
+
+    /**
+     * Écrit les spans en attente puis ferme le fichier.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            consumer.join(2000);
+            writer.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            LOG.error("Fermeture du fichier de spans impossible", e);
+        }
+    }
+}
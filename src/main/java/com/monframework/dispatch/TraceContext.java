@@ -0,0 +1,109 @@
+package com.monframework.dispatch;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Contexte de trace W3C (en-tête traceparent) d'une requête.
+ *
+ * Lu depuis l'en-tête entrant s'il est valide; sinon une nouvelle trace est
+ * commencée. La requête reçoit toujours son propre span id. Le contexte est
+ * posé en attribut de requête (ATTRIBUTE): toTraceparent() donne la valeur à
+ * transmettre aux appels sortants.
+ */
+public final class TraceContext {
+
+    public static final String HEADER = "traceparent";
+    public static final String ATTRIBUTE = TraceContext.class.getName();
+
+    private static final String ZERO_TRACE = "00000000000000000000000000000000";
+    private static final String ZERO_SPAN = "0000000000000000";
+
+    private final String traceId;
+    private final String parentId; // null si la trace commence ici
+    private final String spanId;
+    private final int flags;
+
+    private TraceContext(String traceId, String parentId, String spanId, int flags) {
+        this.traceId = traceId;
+        this.parentId = parentId;
+        this.spanId = spanId;
+        this.flags = flags;
+    }
+
+    /**
+     * @param header valeur de traceparent, peut être null ou invalide
+     */
+    public static TraceContext fromHeader(String header) {
+        if (header != null) {
+            String value = header.trim();
+            // version-traceid-parentid-flags; une version future peut ajouter des champs après '-'
+            if (value.length() >= 55 && (value.length() == 55 || value.charAt(55) == '-')
+                    && value.charAt(2) == '-' && value.charAt(35) == '-' && value.charAt(52) == '-') {
+                String version = value.substring(0, 2);
+                String traceId = value.substring(3, 35);
+                String parentId = value.substring(36, 52);
+                String flags = value.substring(53, 55);
+                if (isHex(version) && !version.equals("ff") && (value.length() == 55 || !version.equals("00"))
+                        && isHex(traceId) && !traceId.equals(ZERO_TRACE)
+                        && isHex(parentId) && !parentId.equals(ZERO_SPAN)
+                        && isHex(flags)) {
+                    return new TraceContext(traceId, parentId, newSpanId(), Integer.parseInt(flags, 16) & 0x01);
+                }
+            }
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder traceId = new StringBuilder(32);
+        hex(random.nextLong(), traceId);
+        hex(random.nextLong() | 1L, traceId);
+        return new TraceContext(traceId.toString(), null, newSpanId(), 0x01);
+    }
+
+    private static String newSpanId() {
+        StringBuilder spanId = new StringBuilder(16);
+        hex(ThreadLocalRandom.current().nextLong() | 1L, spanId);
+        return spanId.toString();
+    }
+
+    private static void hex(long value, StringBuilder out) {
+        for (int shift = 60; shift >= 0; shift -= 4) {
+            out.append(Character.forDigit((int) (value >>> shift) & 0xF, 16));
+        }
+    }
+
+    // Minuscules uniquement, comme l'exige la spécification
+    private static boolean isHex(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!(c >= '0' && c <= '9') && !(c >= 'a' && c <= 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * traceparent désignant le span de cette requête, pour les appels sortants.
+     */
+    public String toTraceparent() {
+        return "00-" + traceId + "-" + spanId + "-" + (flags == 0 ? "00" : "01");
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    /**
+     * @return le span appelant, null si la trace commence avec cette requête
+     */
+    public String getParentId() {
+        return parentId;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    public boolean isSampled() {
+        return (flags & 0x01) != 0;
+    }
+}
@@ -0,0 +1,17 @@
+package com.monframework.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.monframework.ControllerInvocation")
+@Label("Controller Invocation")
+@Category({"MonFramework", "Invocation"})
+@Description("Appel de la méthode du contrôleur")
+@Enabled(false)
+@StackTrace(false)
+public final class ControllerInvocationEvent extends DispatchEvent {
+}
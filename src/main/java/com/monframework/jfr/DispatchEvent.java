@@ -0,0 +1,21 @@
+package com.monframework.jfr;
+
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Champs communs des événements JFR du framework.
+ */
+@StackTrace(false)
+abstract class DispatchEvent extends Event {
+
+    @Label("Route")
+    String route;
+
+    @Label("HTTP Method")
+    String method;
+
+    @Label("Path")
+    String path;
+}
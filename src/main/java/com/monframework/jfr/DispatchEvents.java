@@ -0,0 +1,147 @@
+package com.monframework.jfr;
+
+import com.monframework.dispatch.DispatchContext;
+import com.monframework.dispatch.DispatchPhase;
+import com.monframework.mapping.URLRoute;
+import jdk.jfr.Event;
+
+/**
+ * Création des événements JFR du framework.
+ *
+ * Chaque type est activé séparément par la configuration JFR (nom
+ * com.monframework.*, catégorie MonFramework). Seul Request est actif par
+ * défaut; les autres s'activent dans un fichier .jfc (jfr configure) ou par
+ * un Recording.enable("com.monframework.RouteMatch").
+ *
+ * Les begin*() vérifient d'abord isEnabled() sur une instance témoin: si le
+ * type est désactivé, aucun événement n'est alloué et ils retournent null;
+ * les end*() acceptent null.
+ */
+public final class DispatchEvents {
+
+    private static final RouteMatchEvent ROUTE_MATCH = new RouteMatchEvent();
+    private static final SecurityCheckEvent SECURITY_CHECK = new SecurityCheckEvent();
+    private static final ParameterBindingEvent PARAMETER_BINDING = new ParameterBindingEvent();
+    private static final ControllerInvocationEvent CONTROLLER_INVOCATION = new ControllerInvocationEvent();
+    private static final ViewForwardEvent VIEW_FORWARD = new ViewForwardEvent();
+    private static final JsonSerializationEvent JSON_SERIALIZATION = new JsonSerializationEvent();
+    private static final RequestEvent REQUEST = new RequestEvent();
+
+    private DispatchEvents() {}
+
+    /**
+     * @return l'événement de l'étape, commencé, ou null (type désactivé ou
+     *         étape sans événement)
+     */
+    public static Event beginPhase(DispatchPhase phase) {
+        DispatchEvent event;
+        switch (phase) {
+            case ROUTING:
+                event = ROUTE_MATCH.isEnabled() ? new RouteMatchEvent() : null;
+                break;
+            case SECURITY:
+                event = SECURITY_CHECK.isEnabled() ? new SecurityCheckEvent() : null;
+                break;
+            case PARAMETERS:
+                event = PARAMETER_BINDING.isEnabled() ? new ParameterBindingEvent() : null;
+                break;
+            case INVOCATION:
+                event = CONTROLLER_INVOCATION.isEnabled() ? new ControllerInvocationEvent() : null;
+                break;
+            default:
+                event = null;
+        }
+        if (event != null) {
+            event.begin();
+        }
+        return event;
+    }
+
+    public static void endPhase(Event event, DispatchContext dispatch) {
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                fill((DispatchEvent) event, dispatch);
+                event.commit();
+            }
+        }
+    }
+
+    public static Event beginRequest() {
+        return begin(REQUEST.isEnabled() ? new RequestEvent() : null);
+    }
+
+    /**
+     * @param responseSize octets écrits, -1 si inconnu
+     */
+    public static void endRequest(Event event, DispatchContext dispatch, long responseSize) {
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                RequestEvent request = (RequestEvent) event;
+                fill(request, dispatch);
+                request.status = dispatch.getStatus();
+                request.responseSize = responseSize;
+                request.commit();
+            }
+        }
+    }
+
+    public static Event beginViewForward() {
+        return begin(VIEW_FORWARD.isEnabled() ? new ViewForwardEvent() : null);
+    }
+
+    public static void endViewForward(Event event, DispatchContext dispatch, String view, long responseSize) {
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                ViewForwardEvent forward = (ViewForwardEvent) event;
+                fill(forward, dispatch);
+                forward.view = view;
+                forward.responseSize = responseSize;
+                forward.commit();
+            }
+        }
+    }
+
+    public static Event beginJsonSerialization() {
+        return begin(JSON_SERIALIZATION.isEnabled() ? new JsonSerializationEvent() : null);
+    }
+
+    public static void endJsonSerialization(Event event, DispatchContext dispatch, Class<?> resultType,
+                                            String mediaType, long responseSize) {
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                JsonSerializationEvent json = (JsonSerializationEvent) event;
+                fill(json, dispatch);
+                json.resultType = resultType;
+                json.mediaType = mediaType;
+                json.responseSize = responseSize;
+                json.commit();
+            }
+        }
+    }
+
+    /**
+     * true si un événement activé porte la taille de la réponse (il faut
+     * alors compter les octets écrits).
+     */
+    public static boolean isResponseSizeEnabled() {
+        return REQUEST.isEnabled() || VIEW_FORWARD.isEnabled() || JSON_SERIALIZATION.isEnabled();
+    }
+
+    private static Event begin(Event event) {
+        if (event != null) {
+            event.begin();
+        }
+        return event;
+    }
+
+    private static void fill(DispatchEvent event, DispatchContext dispatch) {
+        URLRoute route = dispatch.getRoute();
+        event.route = route != null ? route.getUrlPattern() : null;
+        event.method = dispatch.getHttpMethod();
+        event.path = dispatch.getPath();
+    }
+}
@@ -0,0 +1,28 @@
+package com.monframework.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.monframework.JsonSerialization")
+@Label("JSON Serialization")
+@Category({"MonFramework", "Rendering"})
+@Description("Sérialisation du résultat d'un contrôleur @Json (JSON, CBOR...)")
+@Enabled(false)
+@StackTrace(false)
+public final class JsonSerializationEvent extends DispatchEvent {
+
+    @Label("Result Type")
+    Class<?> resultType;
+
+    @Label("Media Type")
+    String mediaType;
+
+    @Label("Response Size")
+    @DataAmount
+    long responseSize;
+}
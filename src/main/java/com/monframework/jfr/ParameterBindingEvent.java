@@ -0,0 +1,17 @@
+package com.monframework.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.monframework.ParameterBinding")
+@Label("Parameter Binding")
+@Category({"MonFramework", "Binding"})
+@Description("Résolution des paramètres du contrôleur")
+@Enabled(false)
+@StackTrace(false)
+public final class ParameterBindingEvent extends DispatchEvent {
+}
@@ -0,0 +1,23 @@
+package com.monframework.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.monframework.Request")
+@Label("Request")
+@Category("MonFramework")
+@Description("Traitement complet d'une requête par le FrontServlet")
+@StackTrace(false)
+public final class RequestEvent extends DispatchEvent {
+
+    @Label("Status")
+    int status;
+
+    @Label("Response Size")
+    @DataAmount
+    long responseSize;
+}
@@ -0,0 +1,17 @@
+package com.monframework.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.monframework.RouteMatch")
+@Label("Route Matching")
+@Category({"MonFramework", "Routing"})
+@Description("Résolution de la route (RouteRegistry.resolve)")
+@Enabled(false)
+@StackTrace(false)
+public final class RouteMatchEvent extends DispatchEvent {
+}
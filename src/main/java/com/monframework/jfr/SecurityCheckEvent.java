@@ -0,0 +1,17 @@
+package com.monframework.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.monframework.SecurityCheck")
+@Label("Security Check")
+@Category({"MonFramework", "Security"})
+@Description("Vérification @Authenticated / @RoleAllowed")
+@Enabled(false)
+@StackTrace(false)
+public final class SecurityCheckEvent extends DispatchEvent {
+}
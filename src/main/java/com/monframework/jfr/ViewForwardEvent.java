@@ -0,0 +1,25 @@
+package com.monframework.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.monframework.ViewForward")
+@Label("View Forward")
+@Category({"MonFramework", "Rendering"})
+@Description("Forward vers la vue d'un ModelView / ModelAndView")
+@Enabled(false)
+@StackTrace(false)
+public final class ViewForwardEvent extends DispatchEvent {
+
+    @Label("View")
+    String view;
+
+    @Label("Response Size")
+    @DataAmount
+    long responseSize;
+}
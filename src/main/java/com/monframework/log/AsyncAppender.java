@@ -0,0 +1,172 @@
+package com.monframework.log;
+
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Tampon circulaire borné, plusieurs producteurs / un consommateur.
+ *
+ * Un producteur réserve une case par compareAndSet sur tail puis y publie son
+ * message; il ne bloque jamais: si le tampon est plein, le message est perdu
+ * et compté. Le thread "monframework-log" vide les cases dans l'ordre,
+ * formate les lignes et les écrit par lots. Sans message, il est suspendu
+ * (park) et réveillé par le producteur suivant.
+ *
+ * shutdown() vide le tampon et arrête le thread; les messages suivants sont
+ * écrits directement par le thread appelant.
+ */
+final class AsyncAppender {
+
+    private static final DateTimeFormatter TIME =
+            DateTimeFormatter.ofPattern("HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    private final AtomicReferenceArray<Event> slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong(); // écrit uniquement par le consommateur
+    private final AtomicLong dropped = new AtomicLong();
+    private final PrintStream out;
+    private final Thread consumer;
+    private volatile boolean idle; // consommateur suspendu ou sur le point de l'être
+    private volatile boolean stopped;
+
+    AsyncAppender(int capacity, PrintStream out) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1) << 1);
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.out = out;
+        this.consumer = new Thread(this::run, "monframework-log");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    void append(Level level, String logger, String message, Throwable error) {
+        Event event = new Event(System.currentTimeMillis(), level, logger,
+                Thread.currentThread().getName(), message, error);
+        if (stopped) {
+            StringBuilder line = new StringBuilder();
+            format(event, line);
+            out.print(line);
+            return;
+        }
+        long slot;
+        do {
+            slot = tail.get();
+            if (slot - head.get() >= slots.length()) {
+                dropped.incrementAndGet();
+                return;
+            }
+        } while (!tail.compareAndSet(slot, slot + 1));
+        slots.set((int) slot & mask, event);
+        if (idle) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    long getDroppedCount() {
+        return dropped.get();
+    }
+
+    void flush(long timeoutMillis) {
+        long target = tail.get();
+        long deadline = System.nanoTime() + timeoutMillis * 1_000_000L;
+        while (head.get() < target && System.nanoTime() < deadline) {
+            LockSupport.unpark(consumer);
+            LockSupport.parkNanos(100_000L);
+        }
+    }
+
+    /**
+     * Écrit les messages en attente (au plus timeoutMillis) puis arrête le
+     * thread consommateur.
+     */
+    void shutdown(long timeoutMillis) {
+        flush(timeoutMillis);
+        stopped = true;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        StringBuilder batch = new StringBuilder(4096);
+        long reportedDrops = 0;
+        while (true) {
+            long position = head.get();
+            int index = (int) position & mask;
+            Event event = slots.get(index);
+            if (event == null) {
+                if (batch.length() > 0) {
+                    out.print(batch);
+                    out.flush();
+                    batch.setLength(0);
+                }
+                long drops = dropped.get();
+                if (drops != reportedDrops) {
+                    out.println("[monframework-log] " + (drops - reportedDrops) + " message(s) perdu(s), tampon plein");
+                    reportedDrops = drops;
+                }
+                if (stopped) {
+                    return;
+                }
+                // Case vide: tampon vide, ou producteur entre réservation et
+                // publication. idle est posé avant de relire la case: un
+                // producteur qui publie ensuite voit idle et réveille le thread
+                idle = true;
+                if (slots.get(index) == null && !stopped) {
+                    LockSupport.park(this);
+                }
+                idle = false;
+                continue;
+            }
+            slots.set(index, null);
+            head.lazySet(position + 1);
+            format(event, batch);
+            if (batch.length() > 32 * 1024) {
+                out.print(batch);
+                batch.setLength(0);
+            }
+        }
+    }
+
+    private static void format(Event event, StringBuilder line) {
+        TIME.formatTo(Instant.ofEpochMilli(event.timestamp), line);
+        line.append(' ').append(event.level.name())
+            .append(" [").append(event.thread).append("] ")
+            .append(event.logger).append(" - ")
+            .append(event.message).append(System.lineSeparator());
+        if (event.error != null) {
+            StringWriter trace = new StringWriter();
+            event.error.printStackTrace(new PrintWriter(trace));
+            line.append(trace);
+        }
+    }
+
+    private static final class Event {
+        final long timestamp;
+        final Level level;
+        final String logger;
+        final String thread;
+        final String message;
+        final Throwable error;
+
+        Event(long timestamp, Level level, String logger, String thread, String message, Throwable error) {
+            this.timestamp = timestamp;
+            this.level = level;
+            this.logger = logger;
+            this.thread = thread;
+            this.message = message;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.monframework.log;
+
+import java.util.Locale;
+
+public enum Level {
+    DEBUG, INFO, WARN, ERROR, OFF;
+
+    static Level parse(String value, Level defaultLevel) {
+        if (value == null || value.isBlank()) {
+            return defaultLevel;
+        }
+        try {
+            return Level.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return defaultLevel;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.monframework.log;
+
+/**
+ * Point d'entrée du logging du framework.
+ *
+ * Le niveau est lu une seule fois au chargement de la classe, depuis la
+ * propriété système monframework.log.level (DEBUG, INFO, WARN, ERROR, OFF;
+ * WARN par défaut: seuls DEBUG et INFO sont coupés, les erreurs et
+ * avertissements restent visibles). Les constantes DEBUG, INFO... sont static final: le JIT
+ * supprime les appels désactivés, message et concaténation compris.
+ *
+ * Les messages sont écrits sur System.err par un thread dédié (AsyncAppender):
+ * les threads de requête ne prennent jamais le verrou de System.err.
+ * shutdown() arrête ce thread (FrontServlet.destroy()).
+ */
+public final class Log {
+
+    public static final Level LEVEL = Level.parse(System.getProperty("monframework.log.level"), Level.WARN);
+
+    public static final boolean DEBUG = LEVEL.compareTo(Level.DEBUG) <= 0;
+    public static final boolean INFO = LEVEL.compareTo(Level.INFO) <= 0;
+    public static final boolean WARN = LEVEL.compareTo(Level.WARN) <= 0;
+    public static final boolean ERROR = LEVEL.compareTo(Level.ERROR) <= 0;
+
+    private static final AsyncAppender APPENDER = LEVEL == Level.OFF ? null
+            : new AsyncAppender(Integer.getInteger("monframework.log.buffer", 8192), System.err);
+
+    private Log() {}
+
+    public static Logger get(Class<?> type) {
+        return new Logger(type.getSimpleName());
+    }
+
+    static void append(Level level, String logger, String message, Throwable error) {
+        if (APPENDER != null) {
+            APPENDER.append(level, logger, message, error);
+        }
+    }
+
+    /**
+     * Attend l'écriture des messages déjà publiés (au plus timeoutMillis).
+     */
+    public static void flush(long timeoutMillis) {
+        if (APPENDER != null) {
+            APPENDER.flush(timeoutMillis);
+        }
+    }
+
+    /**
+     * Écrit les messages en attente (au plus timeoutMillis) et arrête le
+     * thread d'écriture, qui retiendrait sinon le classloader de
+     * l'application après son arrêt. Les messages suivants sont écrits
+     * directement.
+     */
+    public static void shutdown(long timeoutMillis) {
+        if (APPENDER != null) {
+            APPENDER.shutdown(timeoutMillis);
+        }
+    }
+
+    /**
+     * Nombre de messages perdus parce que le tampon était plein.
+     */
+    public static long getDroppedCount() {
+        return APPENDER != null ? APPENDER.getDroppedCount() : 0;
+    }
+}
@@ -0,0 +1,74 @@
+package com.monframework.log;
+
+import java.util.function.Supplier;
+
+/**
+ * Logger nommé. Les variantes à Supplier ne construisent le message que si
+ * le niveau est actif.
+ */
+public final class Logger {
+
+    private final String name;
+
+    Logger(String name) {
+        this.name = name;
+    }
+
+    public boolean isDebugEnabled() {
+        return Log.DEBUG;
+    }
+
+    public void debug(String message) {
+        if (Log.DEBUG) {
+            Log.append(Level.DEBUG, name, message, null);
+        }
+    }
+
+    public void debug(Supplier<String> message) {
+        if (Log.DEBUG) {
+            Log.append(Level.DEBUG, name, message.get(), null);
+        }
+    }
+
+    public void info(String message) {
+        if (Log.INFO) {
+            Log.append(Level.INFO, name, message, null);
+        }
+    }
+
+    public void info(Supplier<String> message) {
+        if (Log.INFO) {
+            Log.append(Level.INFO, name, message.get(), null);
+        }
+    }
+
+    public void warn(String message) {
+        if (Log.WARN) {
+            Log.append(Level.WARN, name, message, null);
+        }
+    }
+
+    public void warn(Supplier<String> message) {
+        if (Log.WARN) {
+            Log.append(Level.WARN, name, message.get(), null);
+        }
+    }
+
+    public void error(String message) {
+        if (Log.ERROR) {
+            Log.append(Level.ERROR, name, message, null);
+        }
+    }
+
+    public void error(String message, Throwable error) {
+        if (Log.ERROR) {
+            Log.append(Level.ERROR, name, message, error);
+        }
+    }
+
+    public void error(Supplier<String> message, Throwable error) {
+        if (Log.ERROR) {
+            Log.append(Level.ERROR, name, message.get(), error);
+        }
+    }
+}
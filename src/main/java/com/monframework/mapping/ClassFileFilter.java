@@ -0,0 +1,83 @@
+package com.monframework.mapping;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Lecture du constant pool d'un fichier .class sans charger la classe.
+ *
+ * Une annotation présente sur une classe apparaît dans son constant pool sous
+ * forme de descripteur (ex: "Lcom/monframework/annotation/Controller;"). Si ce
+ * descripteur est absent, la classe ne peut pas porter l'annotation: inutile de
+ * la charger. La lecture s'arrête à la fin du constant pool.
+ */
+final class ClassFileFilter {
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private final byte[] descriptor;
+
+    ClassFileFilter(Class<?> annotation) {
+        this.descriptor = ("L" + annotation.getName().replace('.', '/') + ";").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return true si le constant pool contient le descripteur recherché
+     */
+    boolean accept(InputStream classFile) throws IOException {
+        DataInputStream in = new DataInputStream(classFile);
+        if (in.readInt() != MAGIC) {
+            return false;
+        }
+        in.skipBytes(4); // minor_version, major_version
+        int count = in.readUnsignedShort();
+        byte[] buffer = new byte[descriptor.length];
+
+        for (int i = 1; i < count; i++) {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+                case 1: // Utf8
+                    int length = in.readUnsignedShort();
+                    if (length == descriptor.length) {
+                        in.readFully(buffer);
+                        if (Arrays.equals(buffer, descriptor)) {
+                            return true;
+                        }
+                    } else {
+                        skipFully(in, length);
+                    }
+                    break;
+                case 7: case 8: case 16: case 19: case 20: // Class, String, MethodType, Module, Package
+                    skipFully(in, 2);
+                    break;
+                case 15: // MethodHandle
+                    skipFully(in, 3);
+                    break;
+                case 3: case 4: case 9: case 10: case 11: case 12: case 17: case 18:
+                    skipFully(in, 4);
+                    break;
+                case 5: case 6: // Long, Double: occupent deux entrées
+                    skipFully(in, 8);
+                    i++;
+                    break;
+                default:
+                    throw new IOException("Tag de constant pool inconnu: " + tag);
+            }
+        }
+        return false;
+    }
+
+    private static void skipFully(DataInputStream in, int n) throws IOException {
+        while (n > 0) {
+            int skipped = in.skipBytes(n);
+            if (skipped <= 0) {
+                in.readByte(); // provoque EOFException si le flux est terminé
+                skipped = 1;
+            }
+            n -= skipped;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.monframework.mapping;
+
+import com.monframework.annotation.Controller;
+import com.monframework.annotation.InstantiationPolicy;
+import com.monframework.log.Log;
+import com.monframework.log.Logger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Instance unique d'un contrôleur, partagée par toutes ses routes.
+ *
+ * La création (constructeur + init()) n'a lieu qu'une fois: au démarrage pour
+ * les contrôleurs EAGER (voir initializeAll), à la première requête pour les
+ * contrôleurs LAZY. Une fois créée, get() ne coûte qu'une lecture volatile; la
+ * garde de création est un compareAndSet, sans verrou.
+ */
+public final class ControllerHolder {
+
+    private static final Logger LOG = Log.get(ControllerHolder.class);
+
+    private final Class<?> controllerClass;
+    private final InstantiationPolicy policy;
+    private final AtomicReference<CompletableFuture<Object>> creation = new AtomicReference<>();
+    private volatile Object instance;
+    private volatile long initNanos = -1;
+    private volatile String initThread;
+
+    private ControllerHolder(Class<?> controllerClass, InstantiationPolicy policy) {
+        this.controllerClass = controllerClass;
+        this.policy = policy;
+    }
+
+    public static ControllerHolder of(Class<?> controllerClass) {
+        Controller annotation = controllerClass.getAnnotation(Controller.class);
+        InstantiationPolicy policy = annotation != null ? annotation.instantiation() : InstantiationPolicy.EAGER;
+        return new ControllerHolder(controllerClass, policy);
+    }
+
+    /**
+     * Contrôleur déjà construit (compatibilité avec les routes créées à la main).
+     */
+    public static ControllerHolder ofInstance(Object controller) {
+        ControllerHolder holder = new ControllerHolder(controller.getClass(), InstantiationPolicy.EAGER);
+        holder.instance = controller;
+        holder.initNanos = 0;
+        holder.creation.set(CompletableFuture.completedFuture(controller));
+        return holder;
+    }
+
+    public Object get() {
+        Object controller = instance;
+        return controller != null ? controller : create();
+    }
+
+    private Object create() {
+        CompletableFuture<Object> future = creation.get();
+        if (future == null) {
+            CompletableFuture<Object> mine = new CompletableFuture<>();
+            if (creation.compareAndSet(null, mine)) {
+                long start = System.nanoTime();
+                try {
+                    Object controller = ControllerScanner.instantiate(controllerClass);
+                    initNanos = System.nanoTime() - start;
+                    initThread = Thread.currentThread().getName();
+                    instance = controller;
+                    mine.complete(controller);
+                } catch (Throwable e) {
+                    initNanos = System.nanoTime() - start;
+                    mine.completeExceptionally(e);
+                }
+            }
+            future = creation.get();
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Initialisation du contrôleur " + controllerClass.getName() + " impossible",
+                    e.getCause());
+        }
+    }
+
+    public boolean isInitialized() {
+        return instance != null;
+    }
+
+    public boolean isFailed() {
+        CompletableFuture<Object> future = creation.get();
+        return future != null && future.isCompletedExceptionally();
+    }
+
+    public Class<?> getControllerClass() {
+        return controllerClass;
+    }
+
+    public InstantiationPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Durée du constructeur + init() en nanosecondes, -1 si pas encore créé.
+     */
+    public long getInitNanos() {
+        return initNanos;
+    }
+
+    public String getInitThread() {
+        return initThread;
+    }
+
+    /**
+     * Crée les contrôleurs EAGER en parallèle (au plus threads init() simultanés),
+     * puis affiche la durée de chacun, du plus lent au plus rapide: en INFO, ou
+     * en WARN si l'ensemble dépasse warnMillis (le niveau par
+     * défaut étant WARN, un démarrage lent reste visible).
+     */
+    public static void initializeAll(Collection<ControllerHolder> holders, int threads, long warnMillis) {
+        List<ControllerHolder> eager = new ArrayList<>();
+        for (ControllerHolder holder : holders) {
+            if (holder.policy == InstantiationPolicy.EAGER && !holder.isInitialized()) {
+                eager.add(holder);
+            }
+        }
+        if (eager.isEmpty()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, eager.size())), r -> {
+            Thread t = new Thread(r, "controller-init");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<CompletableFuture<?>> futures = new ArrayList<>();
+            for (ControllerHolder holder : eager) {
+                futures.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        holder.get();
+                    } catch (IllegalStateException e) {
+                        LOG.debug(() -> e.getMessage() + ": " + e.getCause());
+                    }
+                }, pool));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        } finally {
+            pool.shutdown();
+            try {
+                pool.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        long elapsed = System.nanoTime() - start;
+        eager.sort(Comparator.comparingLong(ControllerHolder::getInitNanos).reversed());
+        boolean slow = elapsed >= TimeUnit.MILLISECONDS.toNanos(warnMillis);
+        if (slow ? Log.WARN : Log.INFO) {
+            List<String> lines = new ArrayList<>();
+            lines.add("Initialisation des contrôleurs: " + eager.size() + " en "
+                    + formatMillis(elapsed) + " (" + threads + " thread(s))"
+                    + (slow ? ", seuil de " + warnMillis + " ms dépassé" : ""));
+            for (ControllerHolder holder : eager) {
+                lines.add("  ├─ " + holder.controllerClass.getSimpleName() + ": "
+                        + formatMillis(holder.initNanos) + (holder.isFailed() ? " [ÉCHEC]" : ""));
+            }
+            for (String line : lines) {
+                if (slow) {
+                    LOG.warn(line);
+                } else {
+                    LOG.info(line);
+                }
+            }
+        }
+    }
+
+    private static String formatMillis(long nanos) {
+        return String.format("%.1f ms", nanos / 1_000_000.0);
+    }
+
+    @Override
+    public String toString() {
+        return controllerClass.getSimpleName() + "[" + policy + (isInitialized() ? ", initialisé" : "") + "]";
+    }
+}
@@ -6,80 +6,226 @@ import com.monframework.annotation.GetMapping;
 import com.monframework.annotation.PostMapping;
 import com.monframework.annotation.PutMapping;
 import com.monframework.annotation.DeleteMapping;
+import com.monframework.log.Log;
+import com.monframework.log.Logger;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Method;
+import java.net.JarURLConnection;
 import java.net.URL;
+import java.net.URLClassLoader;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Enumeration;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
 
 public class ControllerScanner {
 
+    private static final Logger LOG = Log.get(ControllerScanner.class);
+
+    private static final ClassFileFilter CONTROLLER_FILTER = new ClassFileFilter(Controller.class);
+
+    /**
+     * Scanne le package dans les répertoires et les JAR du classpath (WEB-INF/classes
+     * et WEB-INF/lib). Les fichiers .class sont lus en parallèle sur un ForkJoinPool
+     * et seules les classes dont le constant pool référence @Controller sont chargées.
+     */
     public static List<URLRoute> scanPackage(String packageName) {
         List<URLRoute> routes = new ArrayList<>();
         
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
         try {
             ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
-            String path = packageName.replace('.', '/');
-            Enumeration<URL> resources = classLoader.getResources(path);
+            List<ScanTask> tasks = findRoots(classLoader, packageName);
             
-            List<File> dirs = new ArrayList<>();
-            while (resources.hasMoreElements()) {
-                URL resource = resources.nextElement();
-                dirs.add(new File(resource.getFile()));
-            }
+            Set<String> candidates = pool.invoke(new ScanTask() {
+                @Override
+                protected Set<String> compute() {
+                    invokeAll(tasks);
+                    return merge(tasks);
+                }
+            });
             
-            for (File directory : dirs) {
-                routes.addAll(findControllers(directory, packageName));
+            List<String> classNames = new ArrayList<>(candidates);
+            Collections.sort(classNames);
+            for (String className : classNames) {
+                routes.addAll(scanClass(className, classLoader));
             }
         } catch (Exception e) {
-            System.err.println("Erreur lors du scan du package " + packageName + ": " + e.getMessage());
+            LOG.error(() -> "Erreur lors du scan du package " + packageName + ": " + e.getMessage(), e);
+        } finally {
+            pool.shutdown();
         }
         
         return routes;
     }
 
-    private static List<URLRoute> findControllers(File directory, String packageName) {
-        List<URLRoute> routes = new ArrayList<>();
+    // Une tâche par racine à scanner: répertoire ou JAR
+    private static List<ScanTask> findRoots(ClassLoader classLoader, String packageName) throws IOException {
+        String path = packageName.replace('.', '/');
+        List<ScanTask> roots = new ArrayList<>();
+        Set<String> seenJars = new LinkedHashSet<>();
         
-        if (!directory.exists()) {
-            return routes;
+        Enumeration<URL> resources = classLoader.getResources(path);
+        while (resources.hasMoreElements()) {
+            URL resource = resources.nextElement();
+            if ("file".equals(resource.getProtocol())) {
+                roots.add(new DirectoryTask(new File(URLDecoder.decode(resource.getFile(), StandardCharsets.UTF_8)), packageName));
+            } else if ("jar".equals(resource.getProtocol())) {
+                JarURLConnection connection = (JarURLConnection) resource.openConnection();
+                File jar = new File(URLDecoder.decode(connection.getJarFileURL().getFile(), StandardCharsets.UTF_8));
+                if (seenJars.add(jar.getAbsolutePath())) {
+                    roots.add(new JarTask(jar, path + "/"));
+                }
+            }
         }
         
-        File[] files = directory.listFiles();
-        if (files == null) {
-            return routes;
+        // Les JAR sans entrées de répertoire ne sont pas retournés par getResources().
+        // Seuls les JAR du classloader de l'application (WEB-INF/lib) sont parcourus:
+        // ceux des parents (lib du conteneur, loaders partagés) ne contiennent pas de contrôleurs.
+        if (classLoader instanceof URLClassLoader) {
+            for (URL url : ((URLClassLoader) classLoader).getURLs()) {
+                if ("file".equals(url.getProtocol()) && url.getFile().endsWith(".jar")) {
+                    File jar = new File(URLDecoder.decode(url.getFile(), StandardCharsets.UTF_8));
+                    if (jar.isFile() && seenJars.add(jar.getAbsolutePath())) {
+                        roots.add(new JarTask(jar, path + "/"));
+                    }
+                }
+            }
         }
-        
-        for (File file : files) {
-            if (file.isDirectory()) {
-                routes.addAll(findControllers(file, packageName + "." + file.getName()));
-            } else if (file.getName().endsWith(".class")) {
-                String className = packageName + '.' + file.getName().substring(0, file.getName().length() - 6);
-                routes.addAll(scanClass(className));
+        return roots;
+    }
+
+    private abstract static class ScanTask extends RecursiveTask<Set<String>> {
+        private static final long serialVersionUID = 1L;
+
+        static Set<String> merge(List<? extends ScanTask> tasks) {
+            Set<String> result = new LinkedHashSet<>();
+            for (ScanTask task : tasks) {
+                result.addAll(task.join());
             }
+            return result;
+        }
+    }
+
+    // Un répertoire: les sous-répertoires sont traités en parallèle
+    private static final class DirectoryTask extends ScanTask {
+        private static final long serialVersionUID = 1L;
+        private final File directory;
+        private final String packageName;
+
+        DirectoryTask(File directory, String packageName) {
+            this.directory = directory;
+            this.packageName = packageName;
+        }
+
+        @Override
+        protected Set<String> compute() {
+            Set<String> candidates = new LinkedHashSet<>();
+            File[] files = directory.listFiles();
+            if (files == null) {
+                return candidates;
+            }
+            
+            List<DirectoryTask> subTasks = new ArrayList<>();
+            for (File file : files) {
+                if (file.isDirectory()) {
+                    subTasks.add(new DirectoryTask(file, packageName + "." + file.getName()));
+                } else if (file.getName().endsWith(".class")) {
+                    try (InputStream in = Files.newInputStream(file.toPath())) {
+                        if (CONTROLLER_FILTER.accept(in)) {
+                            candidates.add(packageName + '.' + file.getName().substring(0, file.getName().length() - 6));
+                        }
+                    } catch (IOException e) {
+                        LOG.warn(() -> "Lecture impossible: " + file + " (" + e.getMessage() + ")");
+                    }
+                }
+            }
+            invokeAll(subTasks);
+            candidates.addAll(merge(subTasks));
+            return candidates;
         }
-        
-        return routes;
     }
 
-   private static List<URLRoute> scanClass(String className) {
+    // Un JAR: entrées du package lues directement dans l'archive
+    private static final class JarTask extends ScanTask {
+        private static final long serialVersionUID = 1L;
+        private final File jar;
+        private final String prefix;
+
+        JarTask(File jar, String prefix) {
+            this.jar = jar;
+            this.prefix = prefix;
+        }
+
+        @Override
+        protected Set<String> compute() {
+            Set<String> candidates = new LinkedHashSet<>();
+            try (JarFile jarFile = new JarFile(jar)) {
+                Enumeration<JarEntry> entries = jarFile.entries();
+                while (entries.hasMoreElements()) {
+                    JarEntry entry = entries.nextElement();
+                    String name = entry.getName();
+                    if (!name.startsWith(prefix) || !name.endsWith(".class") || name.endsWith("module-info.class")) {
+                        continue;
+                    }
+                    try (InputStream in = jarFile.getInputStream(entry)) {
+                        if (CONTROLLER_FILTER.accept(in)) {
+                            candidates.add(name.substring(0, name.length() - 6).replace('/', '.'));
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                LOG.warn(() -> "Lecture impossible du JAR " + jar + ": " + e.getMessage());
+            }
+            return candidates;
+        }
+    }
+
+   private static List<URLRoute> scanClass(String className, ClassLoader classLoader) {
     List<URLRoute> routes = new ArrayList<>();
     
     try {
-        Class<?> clazz = Class.forName(className);
+        // Chargement sans initialisation: seuls les vrais contrôleurs sont initialisés
+        Class<?> clazz = Class.forName(className, false, classLoader);
         
         if (!clazz.isAnnotationPresent(com.monframework.annotation.Controller.class)) {
             return routes;
         }
         
-        System.out.println("Contrôleur trouvé: " + clazz.getSimpleName());
+        LOG.info(() -> "Contrôleur trouvé: " + clazz.getSimpleName());
+        
+        // Instanciation différée: voir ControllerHolder.initializeAll (EAGER) ou la première requête (LAZY)
+        routes.addAll(scanMethods(clazz, ControllerHolder.of(clazz)));
         
+    } catch (Exception e) {
+        LOG.error(() -> "Erreur lors du scan de la classe " + className + ": " + e.getMessage(), e);
+    }
+    
+    return routes;
+}
+
+    static Object instantiate(Class<?> clazz) throws ReflectiveOperationException {
         Object controller = clazz.getDeclaredConstructor().newInstance();
         
         if (controller instanceof com.monframework.controller.Controller) {
             ((com.monframework.controller.Controller) controller).init();
         }
+        return controller;
+    }
+
+    private static List<URLRoute> scanMethods(Class<?> clazz, ControllerHolder controller) {
+        List<URLRoute> routes = new ArrayList<>();
         
         // Scanner les méthodes
         for (Method method : clazz.getDeclaredMethods()) {
@@ -92,35 +238,35 @@ public class ControllerScanner {
                     method.getAnnotation(com.monframework.annotation.RequestMapping.class);
                 urlPattern = annotation.value();
                 httpMethod = annotation.method().toUpperCase();
-                System.out.println("  ├─ @RequestMapping: " + httpMethod + " " + urlPattern);
+                LOG.info("  ├─ @RequestMapping: " + httpMethod + " " + urlPattern);
             }
             else if (method.isAnnotationPresent(com.monframework.annotation.GetMapping.class)) {
                 com.monframework.annotation.GetMapping annotation = 
                     method.getAnnotation(com.monframework.annotation.GetMapping.class);
                 urlPattern = annotation.value();
                 httpMethod = "GET";
-                System.out.println("  ├─ @GetMapping: " + urlPattern + " [GET]");
+                LOG.info("  ├─ @GetMapping: " + urlPattern + " [GET]");
             }
             else if (method.isAnnotationPresent(com.monframework.annotation.PostMapping.class)) {
                 com.monframework.annotation.PostMapping annotation = 
                     method.getAnnotation(com.monframework.annotation.PostMapping.class);
                 urlPattern = annotation.value();
                 httpMethod = "POST";
-                System.out.println("  ├─ @PostMapping: " + urlPattern + " [POST]");
+                LOG.info("  ├─ @PostMapping: " + urlPattern + " [POST]");
             }
             else if (method.isAnnotationPresent(com.monframework.annotation.PutMapping.class)) {
                 com.monframework.annotation.PutMapping annotation = 
                     method.getAnnotation(com.monframework.annotation.PutMapping.class);
                 urlPattern = annotation.value();
                 httpMethod = "PUT";
-                System.out.println("  ├─ @PutMapping: " + urlPattern);
+                LOG.info("  ├─ @PutMapping: " + urlPattern);
             }
             else if (method.isAnnotationPresent(com.monframework.annotation.DeleteMapping.class)) {
                 com.monframework.annotation.DeleteMapping annotation = 
                     method.getAnnotation(com.monframework.annotation.DeleteMapping.class);
                 urlPattern = annotation.value();
                 httpMethod = "DELETE";
-                System.out.println("  ├─ @DeleteMapping: " + urlPattern);
+                LOG.info("  ├─ @DeleteMapping: " + urlPattern);
             }
             // Compatibilité avec l'ancienne annotation @URLMapping
             else if (method.isAnnotationPresent(com.monframework.annotation.URLMapping.class)) {
@@ -128,23 +274,18 @@ public class ControllerScanner {
                     method.getAnnotation(com.monframework.annotation.URLMapping.class);
                 urlPattern = annotation.value();
                 httpMethod = "GET";
-                System.out.println("  ├─ @URLMapping (ancien): " + urlPattern);
+                LOG.info("  ├─ @URLMapping (ancien): " + urlPattern);
             }
             
             if (urlPattern != null) {
                 URLRoute route = new URLRoute(urlPattern, controller, method, httpMethod);
                 routes.add(route);
-                System.out.println("  └─ Route ajoutée: " + httpMethod + " " + urlPattern);
+                LOG.info("  └─ Route ajoutée: " + httpMethod + " " + urlPattern);
             } else {
-                System.out.println("  └─ Méthode sans mapping: " + method.getName());
+                LOG.info("  └─ Méthode sans mapping: " + method.getName());
             }
         }
         
-    } catch (Exception e) {
-        System.err.println("Erreur lors du scan de la classe " + className + ": " + e.getMessage());
-        e.printStackTrace();
+        return routes;
     }
-    
-    return routes;
-}
 }
\ No newline at end of file
@@ -0,0 +1,188 @@
+package com.monframework.mapping;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Variable de chemin déclarée dans un pattern d'URL.
+ *
+ * Syntaxe: {name} (texte libre), {name:int}, {name:long}, {name:uuid} ou
+ * {name:regex} (ex: {slug:[a-z-]+}). Les types sont vérifiés directement sur
+ * les caractères du chemin pendant la recherche de route, sans substring.
+ */
+public final class PathVariable {
+
+    public enum Type { STRING, INT, LONG, UUID, PATTERN }
+
+    private static final String UUID_REGEX =
+            "[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}";
+
+    private final String name;
+    private final Type type;
+    private final Pattern pattern; // seulement pour Type.PATTERN
+    private final ThreadLocal<Matcher> matchers;
+
+    private PathVariable(String name, Type type, Pattern pattern) {
+        this.name = name;
+        this.type = type;
+        this.pattern = pattern;
+        this.matchers = pattern != null ? ThreadLocal.withInitial(() -> pattern.matcher("")) : null;
+    }
+
+    /**
+     * Construit une variable à partir du contenu entre accolades, ex: "id:int".
+     */
+    public static PathVariable parse(String spec) {
+        int colon = spec.indexOf(':');
+        if (colon < 0) {
+            return new PathVariable(spec.trim(), Type.STRING, null);
+        }
+        String name = spec.substring(0, colon).trim();
+        String constraint = spec.substring(colon + 1).trim();
+        switch (constraint) {
+            case "int": return new PathVariable(name, Type.INT, null);
+            case "long": return new PathVariable(name, Type.LONG, null);
+            case "uuid": return new PathVariable(name, Type.UUID, null);
+            default: return new PathVariable(name, Type.PATTERN, Pattern.compile(constraint));
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Clé identifiant le type de segment: deux routes ne différant que par le
+     * type de leur variable occupent des noeuds différents du RouteTree.
+     */
+    String typeKey() {
+        return type == Type.PATTERN ? "re:" + pattern.pattern() : type.name();
+    }
+
+    /**
+     * Regex équivalente, pour les routes résolues par expression régulière.
+     */
+    String regex() {
+        switch (type) {
+            case INT:
+            case LONG: return "[-+]?[0-9]+";
+            case UUID: return UUID_REGEX;
+            case PATTERN: return pattern.pattern();
+            default: return "[^/]+";
+        }
+    }
+
+    /**
+     * Nombre de groupes capturants contenus dans la contrainte regex.
+     */
+    int groupCount() {
+        return pattern != null ? pattern.matcher("").groupCount() : 0;
+    }
+
+    /**
+     * Vérifie si path[start, end) est une valeur valide pour cette variable.
+     */
+    boolean matches(String path, int start, int end) {
+        if (end <= start) {
+            return false;
+        }
+        switch (type) {
+            case INT: return isInteger(path, start, end, Integer.MIN_VALUE, Integer.MAX_VALUE);
+            case LONG: return isInteger(path, start, end, Long.MIN_VALUE, Long.MAX_VALUE);
+            case UUID: return isUuid(path, start, end);
+            case PATTERN: return matchers.get().reset(path).region(start, end).matches();
+            default: return true;
+        }
+    }
+
+    // Parse path[start, end) en entier signé, sans vérification (déjà validé)
+    static long parseLong(String path, int start, int end) {
+        boolean negative = false;
+        int i = start;
+        char first = path.charAt(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            value = value * 10 - (path.charAt(i) - '0');
+        }
+        return negative ? value : -value;
+    }
+
+    static long parseHex(String path, int start, int end) {
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            char c = path.charAt(i);
+            if (c != '-') {
+                value = (value << 4) | hexDigit(c);
+            }
+        }
+        return value;
+    }
+
+    // Accumulation en négatif pour couvrir MIN_VALUE sans dépassement
+    private static boolean isInteger(String path, int start, int end, long min, long max) {
+        int i = start;
+        boolean negative = false;
+        char first = path.charAt(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            if (++i == end) {
+                return false;
+            }
+        }
+        long limit = negative ? min : -max;
+        long multmin = limit / 10;
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = path.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || value < multmin) {
+                return false;
+            }
+            value *= 10;
+            if (value < limit + digit) {
+                return false;
+            }
+            value -= digit;
+        }
+        return true;
+    }
+
+    private static boolean isUuid(String path, int start, int end) {
+        if (end - start != 36) {
+            return false;
+        }
+        for (int i = 0; i < 36; i++) {
+            char c = path.charAt(start + i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return false;
+                }
+            } else if (hexDigit(c) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hexDigit(char c) {
+        if (c >= '0' && c <= '9') return c - '0';
+        if (c >= 'a' && c <= 'f') return c - 'a' + 10;
+        if (c >= 'A' && c <= 'F') return c - 'A' + 10;
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        if (type == Type.STRING) {
+            return "{" + name + "}";
+        }
+        return "{" + name + ":" + (type == Type.PATTERN ? pattern.pattern() : type.name().toLowerCase()) + "}";
+    }
+}
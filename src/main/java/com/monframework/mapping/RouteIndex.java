@@ -0,0 +1,122 @@
+package com.monframework.mapping;
+
+import com.monframework.log.Log;
+import com.monframework.log.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index des routes généré à la compilation par RouteIndexProcessor.
+ *
+ * Une ligne par route, champs séparés par des tabulations:
+ * méthode HTTP, pattern, classe du contrôleur, nom de la méthode, types des
+ * paramètres (format Class.getName(), séparés par des virgules).
+ *
+ * Avec cet index (init-param "route-index" à true), seules les classes
+ * contrôleurs sont chargées et aucun répertoire n'est parcouru au démarrage.
+ * Un contrôleur absent de l'index n'est pas routé: l'index doit venir d'une
+ * compilation de toutes les classes du package.
+ */
+public final class RouteIndex {
+
+    private static final Logger LOG = Log.get(RouteIndex.class);
+
+    public static final String RESOURCE = "META-INF/monframework/routes.idx";
+
+    private RouteIndex() {}
+
+    /**
+     * Charge les routes des contrôleurs du package donné.
+     *
+     * @return null si aucun index du classpath ne référence ce package
+     */
+    public static List<URLRoute> load(ClassLoader classLoader, String packageName) throws IOException {
+        Enumeration<URL> resources = classLoader.getResources(RESOURCE);
+        if (!resources.hasMoreElements()) {
+            return null;
+        }
+
+        // Regrouper par classe: un seul contrôleur instancié par classe
+        Map<String, List<String[]>> entriesByClass = new LinkedHashMap<>();
+        String prefix = packageName + ".";
+        while (resources.hasMoreElements()) {
+            URL resource = resources.nextElement();
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(resource.openStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isEmpty() || line.startsWith("#")) {
+                        continue;
+                    }
+                    String[] fields = line.split("\t", -1);
+                    if (fields.length != 5) {
+                        LOG.warn("Ligne d'index invalide (" + resource + "): " + line);
+                        continue;
+                    }
+                    if (fields[2].startsWith(prefix)) {
+                        entriesByClass.computeIfAbsent(fields[2], k -> new ArrayList<>()).add(fields);
+                    }
+                }
+            }
+        }
+
+        if (entriesByClass.isEmpty()) {
+            return null;
+        }
+
+        List<URLRoute> routes = new ArrayList<>();
+        for (Map.Entry<String, List<String[]>> entry : entriesByClass.entrySet()) {
+            String className = entry.getKey();
+            try {
+                Class<?> clazz = Class.forName(className, false, classLoader);
+                LOG.info(() -> "Contrôleur (index): " + clazz.getSimpleName());
+                ControllerHolder controller = ControllerHolder.of(clazz);
+
+                for (String[] fields : entry.getValue()) {
+                    Method method = clazz.getDeclaredMethod(fields[3], parameterTypes(fields[4], classLoader));
+                    routes.add(new URLRoute(fields[1], controller, method, fields[0]));
+                    LOG.info(() -> "  └─ Route ajoutée: " + fields[0] + " " + fields[1]);
+                }
+            } catch (Exception e) {
+                LOG.error(() -> "Erreur lors du chargement du contrôleur indexé " + className + ": " + e.getMessage(), e);
+            }
+        }
+        return routes;
+    }
+
+    private static Class<?>[] parameterTypes(String field, ClassLoader classLoader) throws ClassNotFoundException {
+        if (field.isEmpty()) {
+            return new Class<?>[0];
+        }
+        String[] names = field.split(",");
+        Class<?>[] types = new Class<?>[names.length];
+        for (int i = 0; i < names.length; i++) {
+            types[i] = typeForName(names[i], classLoader);
+        }
+        return types;
+    }
+
+    private static Class<?> typeForName(String name, ClassLoader classLoader) throws ClassNotFoundException {
+        switch (name) {
+            case "boolean": return boolean.class;
+            case "byte": return byte.class;
+            case "char": return char.class;
+            case "short": return short.class;
+            case "int": return int.class;
+            case "long": return long.class;
+            case "float": return float.class;
+            case "double": return double.class;
+            default: return Class.forName(name, false, classLoader);
+        }
+    }
+}
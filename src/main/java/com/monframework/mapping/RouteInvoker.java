@@ -0,0 +1,146 @@
+package com.monframework.mapping;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+
+/**
+ * Appel de la méthode d'une route sans Method.invoke().
+ *
+ * À la création de la route, LambdaMetafactory génère une classe qui appelle
+ * directement la méthode du contrôleur (jusqu'à MAX_DIRECT_ARGS paramètres):
+ * le JIT peut alors l'inliner comme un appel ordinaire. Sinon (méthode
+ * statique, trop de paramètres, classe inaccessible), on utilise un
+ * MethodHandle à arguments étalés. Le contrôleur est lu au premier appel.
+ *
+ * Dans les deux cas, les exceptions du contrôleur remontent telles quelles,
+ * sans InvocationTargetException.
+ */
+public final class RouteInvoker {
+
+    static final int MAX_DIRECT_ARGS = 4;
+
+    // Interfaces publiques: la classe générée vit dans le package du contrôleur
+    @FunctionalInterface
+    public interface Direct0 { Object invoke(Object target) throws Throwable; }
+    @FunctionalInterface
+    public interface Direct1 { Object invoke(Object target, Object a0) throws Throwable; }
+    @FunctionalInterface
+    public interface Direct2 { Object invoke(Object target, Object a0, Object a1) throws Throwable; }
+    @FunctionalInterface
+    public interface Direct3 { Object invoke(Object target, Object a0, Object a1, Object a2) throws Throwable; }
+    @FunctionalInterface
+    public interface Direct4 { Object invoke(Object target, Object a0, Object a1, Object a2, Object a3) throws Throwable; }
+
+    private static final Class<?>[] DIRECT_TYPES = {
+        Direct0.class, Direct1.class, Direct2.class, Direct3.class, Direct4.class
+    };
+
+    private static final MethodType GENERIC = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    private final ControllerHolder controller;
+    private final int arity;
+    private final Object direct; // DirectN, null si repli sur le MethodHandle
+    private final MethodHandle spreader; // (controller, args) -> résultat
+    private volatile Object target;
+
+    RouteInvoker(Method method, ControllerHolder controller) {
+        this.controller = controller;
+        this.arity = method.getParameterCount();
+        MethodHandle handle = unreflect(method);
+        this.direct = Modifier.isStatic(method.getModifiers()) ? null : spin(method, arity);
+        this.spreader = spreader(method, handle, arity);
+    }
+
+    private static MethodHandle unreflect(Method method) {
+        try {
+            method.setAccessible(true);
+        } catch (RuntimeException e) {
+            // Module fermé: unreflect échouera aussi si la méthode n'est pas publique
+        }
+        try {
+            return MethodHandles.lookup().unreflect(method);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Méthode inaccessible: " + method, e);
+        }
+    }
+
+    private static Object spin(Method method, int arity) {
+        if (arity > MAX_DIRECT_ARGS) {
+            return null;
+        }
+        Class<?> type = DIRECT_TYPES[arity];
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup());
+            MethodHandle impl = lookup.unreflect(method);
+            MethodType samType = MethodType.genericMethodType(arity + 1);
+            // Types exacts (primitifs encapsulés): la classe générée fait les casts
+            MethodType instantiated = impl.type().wrap().changeReturnType(Object.class);
+            CallSite site = LambdaMetafactory.metafactory(lookup, "invoke", MethodType.methodType(type),
+                    samType, impl, instantiated);
+            return site.getTarget().invoke();
+        } catch (Throwable e) {
+            // Lookup sans accès complet (autre module, autre class loader...): MethodHandle
+            return null;
+        }
+    }
+
+    private static MethodHandle spreader(Method method, MethodHandle handle, int arity) {
+        if (Modifier.isStatic(method.getModifiers())) {
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        return handle.asType(handle.type().generic())
+                .asSpreader(Object[].class, arity)
+                .asType(GENERIC);
+    }
+
+    /**
+     * true si l'appel passe par une classe générée (appel direct).
+     */
+    public boolean isDirect() {
+        return direct != null;
+    }
+
+    /**
+     * Appelle la méthode sur le contrôleur de la route (créé au besoin).
+     * Les exceptions levées par le contrôleur sont propagées sans enveloppe.
+     */
+    public Object invoke(Object[] args) throws Exception {
+        Object controllerInstance = target;
+        if (controllerInstance == null) {
+            controllerInstance = controller.get();
+            target = controllerInstance;
+        }
+        return invoke(controllerInstance, args);
+    }
+
+    /**
+     * Appel sur un contrôleur donné.
+     */
+    public Object invoke(Object controllerInstance, Object[] args) throws Exception {
+        if (args.length != arity) {
+            throw new IllegalArgumentException("Nombre d'arguments incorrect: " + args.length + " au lieu de " + arity);
+        }
+        try {
+            if (direct == null) {
+                return (Object) spreader.invokeExact(controllerInstance, args);
+            }
+            switch (arity) {
+                case 0: return ((Direct0) direct).invoke(controllerInstance);
+                case 1: return ((Direct1) direct).invoke(controllerInstance, args[0]);
+                case 2: return ((Direct2) direct).invoke(controllerInstance, args[0], args[1]);
+                case 3: return ((Direct3) direct).invoke(controllerInstance, args[0], args[1], args[2]);
+                default: return ((Direct4) direct).invoke(controllerInstance, args[0], args[1], args[2], args[3]);
+            }
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new UndeclaredThrowableException(t);
+        }
+    }
+}
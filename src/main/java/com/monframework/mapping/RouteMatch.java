@@ -0,0 +1,120 @@
+package com.monframework.mapping;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Résultat d'une résolution de route: le handler, les variables de chemin
+ * extraites et les méthodes HTTP déclarées pour ce chemin.
+ *
+ * Les variables typées ({id:int}, {id:long}, {uuid:uuid}) sont converties
+ * pendant la correspondance et stockées dans des slots primitifs; les autres
+ * ne sont découpées en String qu'à la demande.
+ *
+ * Si aucune route n'accepte la méthode demandée mais que le chemin existe,
+ * getRoute() retourne null et getAllowedMethods() liste les méthodes
+ * acceptées (réponse 405).
+ */
+public class RouteMatch {
+    private static final int[] NO_BOUNDS = new int[0];
+    private static final long[] NO_SLOTS = new long[0];
+
+    private final URLRoute route;
+    private final String path;
+    private final int[] bounds;  // [début, fin) de chaque variable dans path
+    private final long[] slots;  // 2 slots par variable (un UUID occupe les deux)
+    private final Set<String> allowedMethods;
+    private Map<String, String> pathVariables;
+
+    RouteMatch(URLRoute route, String path, int[] bounds, long[] slots, Set<String> allowedMethods) {
+        this.route = route;
+        this.path = path;
+        this.bounds = bounds;
+        this.slots = slots;
+        this.allowedMethods = allowedMethods;
+    }
+
+    static RouteMatch methodNotAllowed(Set<String> allowedMethods) {
+        return new RouteMatch(null, null, NO_BOUNDS, NO_SLOTS, Collections.unmodifiableSet(allowedMethods));
+    }
+
+    RouteMatch withAllowedMethods(Set<String> allowed) {
+        return new RouteMatch(route, path, bounds, slots, Collections.unmodifiableSet(allowed));
+    }
+
+    public URLRoute getRoute() {
+        return route;
+    }
+
+    public boolean isMethodNotAllowed() {
+        return route == null;
+    }
+
+    public int getPathVariableCount() {
+        return bounds.length / 2;
+    }
+
+    /**
+     * Position de la variable dans le pattern de la route, ou -1.
+     */
+    public int indexOf(String name) {
+        return route != null ? route.indexOfPathVariable(name) : -1;
+    }
+
+    public PathVariable.Type getType(int index) {
+        return route.getPathVariable(index).getType();
+    }
+
+    public int getInt(int index) {
+        return (int) slots[2 * index];
+    }
+
+    public long getLong(int index) {
+        return slots[2 * index];
+    }
+
+    public UUID getUuid(int index) {
+        return new UUID(slots[2 * index], slots[2 * index + 1]);
+    }
+
+    public String getString(int index) {
+        return path.substring(bounds[2 * index], bounds[2 * index + 1]);
+    }
+
+    /**
+     * Variables de chemin sous forme de texte (créées au premier appel).
+     */
+    public Map<String, String> getPathVariables() {
+        if (pathVariables == null) {
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < getPathVariableCount(); i++) {
+                values.put(route.getPathVariable(i).getName(), getString(i));
+            }
+            pathVariables = values;
+        }
+        return pathVariables;
+    }
+
+    public Set<String> getAllowedMethods() {
+        return allowedMethods;
+    }
+
+    /**
+     * Valeur de l'en-tête HTTP Allow, ex: "GET, POST".
+     */
+    public String getAllowHeader() {
+        return String.join(", ", allowedMethods);
+    }
+
+    @Override
+    public String toString() {
+        return "RouteMatch{" +
+                "route=" + route +
+                ", pathVariables=" + (route != null ? getPathVariables() : "{}") +
+                ", allowed=" + allowedMethods +
+                '}';
+    }
+}
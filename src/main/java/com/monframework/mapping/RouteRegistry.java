@@ -1,38 +1,122 @@
 package com.monframework.mapping;
 
+import com.monframework.log.Log;
+import com.monframework.log.Logger;
+
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
+/**
+ * Registre des routes, modifiable à chaud.
+ *
+ * Les routes sont publiées sous forme d'instantané immuable (RouteTable) via une
+ * AtomicReference: une requête lit l'instantané une seule fois, sans verrou, et
+ * ne voit jamais une table à moitié modifiée. Chaque modification construit un
+ * nouvel instantané (copy-on-write) et le publie par compareAndSet.
+ */
 public class RouteRegistry {
-    private final List<URLRoute> routes = new ArrayList<>();
+
+    private static final Logger LOG = Log.get(RouteRegistry.class);
+    private final AtomicReference<RouteTable> table = new AtomicReference<>(RouteTable.EMPTY);
 
     public void registerRoute(URLRoute route) {
-        routes.add(route);
+        update(routes -> {
+            routes.add(route);
+            return routes;
+        });
     }
 
     public void registerRoutes(List<URLRoute> routes) {
-        this.routes.addAll(routes);
+        update(current -> {
+            current.addAll(routes);
+            return current;
+        });
     }
 
-    
-    public URLRoute findRoute(String url, String method) {
-        for (URLRoute route : routes) {
-            if (route.matches(url) && route.getHttpMethod().equalsIgnoreCase(method)) {
-                return route;
+    /**
+     * @return true si la route était enregistrée
+     */
+    public boolean unregisterRoute(URLRoute route) {
+        return unregisterRoutes(r -> r == route) > 0;
+    }
+
+    /**
+     * Retire toutes les routes acceptées par le filtre, ex:
+     * {@code unregisterRoutes(r -> r.getControllerClass() == UserController.class)}.
+     *
+     * @return le nombre de routes retirées
+     */
+    public int unregisterRoutes(Predicate<URLRoute> filter) {
+        int[] removed = new int[1];
+        update(routes -> {
+            int before = routes.size();
+            routes.removeIf(filter);
+            removed[0] = before - routes.size();
+            return routes;
+        });
+        return removed[0];
+    }
+
+    /**
+     * Remplace atomiquement les routes acceptées par le filtre par un nouvel
+     * ensemble (ex: rechargement d'un package de contrôleurs).
+     */
+    public void replaceRoutes(Predicate<URLRoute> replaced, Collection<URLRoute> replacements) {
+        update(routes -> {
+            routes.removeIf(replaced);
+            routes.addAll(replacements);
+            return routes;
+        });
+    }
+
+    /**
+     * Remplace atomiquement l'ensemble des routes.
+     */
+    public void replaceAllRoutes(Collection<URLRoute> routes) {
+        update(current -> new ArrayList<>(routes));
+    }
+
+    private RouteTable update(UnaryOperator<List<URLRoute>> change) {
+        while (true) {
+            RouteTable current = table.get();
+            List<URLRoute> routes = change.apply(new ArrayList<>(current.routes()));
+            RouteTable updated = new RouteTable(routes, current.version() + 1);
+            if (table.compareAndSet(current, updated)) {
+                return updated;
             }
         }
-        return null;
+    }
+
+    /**
+     * Numéro de l'instantané courant, incrémenté à chaque modification.
+     */
+    public long getVersion() {
+        return table.get().version();
+    }
+
+    /**
+     * Résolution en une seule passe: route, variables de chemin et méthodes
+     * autorisées. Retourne null si aucun pattern ne correspond au chemin (404),
+     * ou une correspondance sans route si la méthode n'est pas acceptée (405).
+     */
+    public RouteMatch resolve(String url, String method) {
+        return table.get().resolve(url, method.toUpperCase(Locale.ROOT));
+    }
+
+    
+    public URLRoute findRoute(String url, String method) {
+        return table.get().find(url, method.toUpperCase(Locale.ROOT));
     }
 
     
     public URLRoute findRoute(String url) {
-        for (URLRoute route : routes) {
-            if (route.matches(url)) {
-                return route;
-            }
-        }
-        return null;
+        return table.get().find(url, null);
     }
 
     public Map<String, String> extractParams(URLRoute route, String url) {
@@ -40,31 +124,32 @@ public class RouteRegistry {
     }
 
     public List<URLRoute> getAllRoutes() {
-        return new ArrayList<>(routes);
+        return new ArrayList<>(table.get().routes());
     }
 
     public int size() {
-        return routes.size();
+        return table.get().routes().size();
     }
 
     public void printRoutes() {
-        System.out.println("\n║                         ROUTES ENREGISTRÉES                                ║");
+        List<URLRoute> routes = table.get().routes();
+        LOG.info("\n║                         ROUTES ENREGISTRÉES                                ║");
         
         if (routes.isEmpty()) {
-            System.out.println("  Aucune route enregistrée");
+            LOG.info("  Aucune route enregistrée");
         } else {
             for (URLRoute route : routes) {
-                String className = route.getController().getClass().getSimpleName();
+                String className = route.getControllerClass().getSimpleName();
                 String methodName = route.getMethod().getName();
                 String urlPattern = route.getUrlPattern();
                 String httpMethod = route.getHttpMethod();
                 
-                System.out.println("\n   URL: " + urlPattern + " [" + httpMethod + "]");
-                System.out.println("     ├─ Classe: " + className);
-                System.out.println("     └─ Méthode: " + methodName + "()");
+                LOG.info(() -> "\n   URL: " + urlPattern + " [" + httpMethod + "]");
+                LOG.info(() -> "     ├─ Classe: " + className);
+                LOG.info(() -> "     └─ Méthode: " + methodName + "()");
             }
             
-            System.out.println("\n  Total: " + routes.size() + " route(s) chargée(s) avec succès");
+            LOG.info(() -> "\n  Total: " + routes.size() + " route(s) chargée(s) avec succès");
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,92 @@
+package com.monframework.mapping;
+
+import com.monframework.log.Log;
+import com.monframework.log.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Instantané immuable des routes: construit une fois, puis uniquement lu.
+ * Toute modification du RouteRegistry construit un nouvel instantané.
+ */
+final class RouteTable {
+
+    private static final Logger LOG = Log.get(RouteTable.class);
+
+    static final RouteTable EMPTY = new RouteTable(Collections.emptyList(), 0);
+
+    private final List<URLRoute> routes;
+    private final long version;
+    // Routes découpables en segments: recherche en O(segments)
+    private final RouteTree tree = new RouteTree();
+    // Routes avec {param} partiel ou regex dans le pattern: parcours linéaire
+    private final List<URLRoute> regexRoutes = new ArrayList<>();
+
+    RouteTable(List<URLRoute> routes, long version) {
+        this.routes = Collections.unmodifiableList(new ArrayList<>(routes));
+        this.version = version;
+        for (URLRoute route : this.routes) {
+            if (!route.isSegmented()) {
+                regexRoutes.add(route);
+            } else if (!tree.add(route)) {
+                LOG.warn(() -> "Route ignorée (doublon): " + route.getHttpMethod() + " " + route.getUrlPattern());
+            }
+        }
+    }
+
+    List<URLRoute> routes() {
+        return routes;
+    }
+
+    long version() {
+        return version;
+    }
+
+    RouteMatch resolve(String url, String httpMethod) {
+        RouteMatch match = tree.match(url, httpMethod);
+        if (match != null) {
+            return match;
+        }
+        for (URLRoute regexRoute : regexRoutes) {
+            if (regexRoute.getHttpMethod().equals(httpMethod)) {
+                RouteMatch regexMatch = regexRoute.match(url, null);
+                if (regexMatch != null) {
+                    return regexMatch.withAllowedMethods(allowedMethods(url));
+                }
+            }
+        }
+
+        Set<String> allowed = allowedMethods(url);
+        return allowed.isEmpty() ? null : RouteMatch.methodNotAllowed(allowed);
+    }
+
+    private Set<String> allowedMethods(String url) {
+        Set<String> allowed = new LinkedHashSet<>();
+        tree.collectAllowedMethods(url, allowed);
+        for (URLRoute regexRoute : regexRoutes) {
+            if (!allowed.contains(regexRoute.getHttpMethod()) && regexRoute.match(url, null) != null) {
+                allowed.add(regexRoute.getHttpMethod());
+            }
+        }
+        return allowed;
+    }
+
+    // httpMethod null: n'importe quelle méthode
+    URLRoute find(String url, String httpMethod) {
+        URLRoute route = tree.find(url, httpMethod);
+        if (route != null) {
+            return route;
+        }
+        for (URLRoute regexRoute : regexRoutes) {
+            if ((httpMethod == null || regexRoute.getHttpMethod().equals(httpMethod))
+                    && regexRoute.match(url, null) != null) {
+                return regexRoute;
+            }
+        }
+        return null;
+    }
+}
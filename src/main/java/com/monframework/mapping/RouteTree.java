@@ -0,0 +1,281 @@
+package com.monframework.mapping;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Arbre de routes découpé par segments d'URL.
+ *
+ * Les segments statiques sont retrouvés par hachage directement sur les
+ * caractères du chemin (sans substring), les segments {param} sont des noeuds
+ * joker. Les variables typées ({id:int}, {id:uuid}, {slug:[a-z-]+}) ont chacune
+ * leur noeud, essayé avant le joker {param}: deux routes ne différant que par
+ * le type d'un segment coexistent. Une recherche coûte O(nombre de segments)
+ * et n'alloue rien, même en cas d'échec.
+ */
+final class RouteTree {
+
+    private final Node root = new Node();
+
+    /**
+     * Ajoute une route dont le pattern est découpable en segments
+     * (voir {@link URLRoute#isSegmented()}).
+     *
+     * @return false si une route existe déjà pour ce pattern et cette méthode
+     */
+    boolean add(URLRoute route) {
+        Node node = root;
+        int p = 0;
+        for (String segment : route.getSegments()) {
+            if (URLRoute.isParamSegment(segment)) {
+                node = node.paramChild(route.getPathVariable(p++));
+            } else {
+                node = node.staticChild(segment);
+            }
+        }
+        if (node.routes == null) {
+            node.routes = new LinkedHashMap<>();
+            node.allowedMethods = Collections.unmodifiableSet(node.routes.keySet());
+        }
+        return node.routes.putIfAbsent(route.getHttpMethod(), route) == null;
+    }
+
+    /**
+     * Résout le chemin pour la méthode donnée: la correspondance porte la route
+     * et les méthodes déclarées sur le même pattern.
+     */
+    RouteMatch match(String path, String method) {
+        Node node = find(root, path, 0, method);
+        if (node == null) {
+            return null;
+        }
+        return node.routes.get(method).matchSegments(path, node.allowedMethods);
+    }
+
+    /**
+     * Ajoute à allowed les méthodes de toutes les routes dont le pattern
+     * correspond au chemin (utilisé pour construire l'en-tête Allow d'un 405).
+     */
+    void collectAllowedMethods(String path, Set<String> allowed) {
+        collect(root, path, 0, allowed);
+    }
+
+    private static void collect(Node node, String path, int start, Set<String> allowed) {
+        int end = path.indexOf('/', start);
+        boolean last = end < 0;
+        if (last) {
+            end = path.length();
+        }
+        if (node.statics != null) {
+            Node child = node.statics.get(path, start, end);
+            if (child != null) {
+                if (!last) {
+                    collect(child, path, end + 1, allowed);
+                } else if (child.routes != null) {
+                    allowed.addAll(child.allowedMethods);
+                }
+            }
+        }
+        if (node.typedParams != null) {
+            for (ParamEdge edge : node.typedParams) {
+                if (edge.variable.matches(path, start, end)) {
+                    collectChild(edge.node, path, end, last, allowed);
+                }
+            }
+        }
+        if (node.param != null && end > start) {
+            collectChild(node.param, path, end, last, allowed);
+        }
+    }
+
+    private static void collectChild(Node child, String path, int end, boolean last, Set<String> allowed) {
+        if (!last) {
+            collect(child, path, end + 1, allowed);
+        } else if (child.routes != null) {
+            allowed.addAll(child.allowedMethods);
+        }
+    }
+
+    /**
+     * Cherche la route correspondant au chemin et à la méthode HTTP.
+     * Si method est null, la première route trouvée pour ce chemin est retournée.
+     */
+    URLRoute find(String path, String method) {
+        Node node = find(root, path, 0, method);
+        if (node == null) {
+            return null;
+        }
+        return method != null ? node.routes.get(method) : node.routes.values().iterator().next();
+    }
+
+    private static Node find(Node node, String path, int start, String method) {
+        int end = path.indexOf('/', start);
+        boolean last = end < 0;
+        if (last) {
+            end = path.length();
+        }
+
+        // 1. Segment statique (prioritaire)
+        if (node.statics != null) {
+            Node child = node.statics.get(path, start, end);
+            if (child != null) {
+                Node found = last ? accept(child, method) : find(child, path, end + 1, method);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+
+        // 2. Variables typées, vérifiées sur les caractères du segment
+        if (node.typedParams != null) {
+            for (ParamEdge edge : node.typedParams) {
+                if (edge.variable.matches(path, start, end)) {
+                    Node found = last ? accept(edge.node, method) : find(edge.node, path, end + 1, method);
+                    if (found != null) {
+                        return found;
+                    }
+                }
+            }
+        }
+
+        // 3. Segment {param}: ne correspond jamais à un segment vide
+        if (node.param != null && end > start) {
+            return last ? accept(node.param, method) : find(node.param, path, end + 1, method);
+        }
+        return null;
+    }
+
+    private static Node accept(Node node, String method) {
+        if (node.routes == null) {
+            return null;
+        }
+        if (method != null && !node.routes.containsKey(method)) {
+            return null;
+        }
+        return node;
+    }
+
+    private static final class Node {
+        private SegmentTable statics;
+        private Node param;
+        private ParamEdge[] typedParams;
+        private Map<String, URLRoute> routes;
+        private Set<String> allowedMethods;
+
+        Node staticChild(String segment) {
+            if (statics == null) {
+                statics = new SegmentTable();
+            }
+            return statics.getOrCreate(segment);
+        }
+
+        Node paramChild(PathVariable variable) {
+            if (variable.getType() == PathVariable.Type.STRING) {
+                if (param == null) {
+                    param = new Node();
+                }
+                return param;
+            }
+            String key = variable.typeKey();
+            if (typedParams == null) {
+                typedParams = new ParamEdge[0];
+            }
+            for (ParamEdge edge : typedParams) {
+                if (edge.key.equals(key)) {
+                    return edge.node;
+                }
+            }
+            ParamEdge edge = new ParamEdge(key, variable, new Node());
+            typedParams = Arrays.copyOf(typedParams, typedParams.length + 1);
+            typedParams[typedParams.length - 1] = edge;
+            return edge.node;
+        }
+    }
+
+    private static final class ParamEdge {
+        private final String key;
+        private final PathVariable variable;
+        private final Node node;
+
+        ParamEdge(String key, PathVariable variable, Node node) {
+            this.key = key;
+            this.variable = variable;
+            this.node = node;
+        }
+    }
+
+    /**
+     * Table de hachage à adressage ouvert dont la clé est une portion du chemin.
+     * Le hash est calculé comme String.hashCode() sur la plage de caractères.
+     */
+    private static final class SegmentTable {
+        private String[] keys = new String[4];
+        private Node[] nodes = new Node[4];
+        private int size;
+
+        Node get(String path, int start, int end) {
+            int len = end - start;
+            int mask = keys.length - 1;
+            int i = spread(hash(path, start, end)) & mask;
+            String key;
+            while ((key = keys[i]) != null) {
+                if (key.length() == len && path.regionMatches(start, key, 0, len)) {
+                    return nodes[i];
+                }
+                i = (i + 1) & mask;
+            }
+            return null;
+        }
+
+        Node getOrCreate(String segment) {
+            Node existing = get(segment, 0, segment.length());
+            if (existing != null) {
+                return existing;
+            }
+            if ((size + 1) * 2 > keys.length) {
+                resize();
+            }
+            Node node = new Node();
+            insert(segment, node);
+            size++;
+            return node;
+        }
+
+        private void insert(String key, Node node) {
+            int mask = keys.length - 1;
+            int i = spread(key.hashCode()) & mask;
+            while (keys[i] != null) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            nodes[i] = node;
+        }
+
+        private void resize() {
+            String[] oldKeys = keys;
+            Node[] oldNodes = nodes;
+            keys = new String[oldKeys.length * 2];
+            nodes = new Node[oldNodes.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != null) {
+                    insert(oldKeys[i], oldNodes[i]);
+                }
+            }
+        }
+
+        private static int hash(String s, int start, int end) {
+            int h = 0;
+            for (int i = start; i < end; i++) {
+                h = 31 * h + s.charAt(i);
+            }
+            return h;
+        }
+
+        private static int spread(int h) {
+            return h ^ (h >>> 16);
+        }
+    }
+}
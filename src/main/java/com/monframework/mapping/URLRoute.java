@@ -1,71 +1,321 @@
 package com.monframework.mapping;
 
+import com.monframework.mvc.ParameterPlan;
+
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class URLRoute {
     private final String urlPattern;
-    private final Object controller;
+    private final ControllerHolder controller;
     private final Method method;
     private final Pattern regex;
-    private final String[] paramNames;
+    private final PathVariable[] variables;
+    private final int[] groupIndexes; // groupe regex de chaque variable
     private final String httpMethod; // GET, POST, PUT, DELETE
+    private final String[] segments;
+    private final int[] paramSegmentIndexes; // null si le pattern n'est pas découpable en segments
+    private final RouteInvoker invoker;
+    private final ParameterPlan parameterPlan;
 
     public URLRoute(String urlPattern, Object controller, Method method, String httpMethod) {
+        this(urlPattern, ControllerHolder.ofInstance(controller), method, httpMethod);
+    }
+
+    public URLRoute(String urlPattern, ControllerHolder controller, Method method, String httpMethod) {
         this.urlPattern = urlPattern;
         this.controller = controller;
         this.method = method;
         this.httpMethod = httpMethod.toUpperCase();
-        
-        // Convertir le pattern URL en regex
-        String regexPattern = urlPattern;
-        java.util.List<String> params = new java.util.ArrayList<>();
-        
-        Pattern paramPattern = Pattern.compile("\\{([^}]+)\\}");
-        Matcher matcher = paramPattern.matcher(urlPattern);
-        
-        while (matcher.find()) {
-            params.add(matcher.group(1));
-            regexPattern = regexPattern.replace("{" + matcher.group(1) + "}", "([^/]+)");
+
+        // Convertir le pattern URL en regex ({name}, {name:int}, {name:[a-z]+}...)
+        StringBuilder regexPattern = new StringBuilder("^");
+        List<PathVariable> vars = new ArrayList<>();
+        List<Integer> groups = new ArrayList<>();
+        int group = 1;
+        int i = 0;
+        while (i < urlPattern.length()) {
+            char c = urlPattern.charAt(i);
+            int close = c == '{' ? closingBrace(urlPattern, i) : -1;
+            if (close < 0) {
+                regexPattern.append(c);
+                i++;
+                continue;
+            }
+            PathVariable variable = PathVariable.parse(urlPattern.substring(i + 1, close));
+            vars.add(variable);
+            groups.add(group);
+            group += 1 + variable.groupCount();
+            regexPattern.append('(').append(variable.regex()).append(')');
+            i = close + 1;
+        }
+
+        this.variables = vars.toArray(new PathVariable[0]);
+        this.groupIndexes = groups.stream().mapToInt(Integer::intValue).toArray();
+        this.regex = Pattern.compile(regexPattern.append('$').toString());
+
+        // Découpage en segments pour le RouteTree
+        this.segments = splitSegments(urlPattern);
+        this.paramSegmentIndexes = computeParamSegmentIndexes(segments, variables.length);
+
+        this.invoker = new RouteInvoker(method, controller);
+        this.parameterPlan = ParameterPlan.compile(method, variables);
+    }
+
+    // Index de l'accolade fermante correspondante (accolades imbriquées des regex comprises)
+    private static int closingBrace(String s, int open) {
+        int depth = 0;
+        for (int i = open; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '{') {
+                depth++;
+            } else if (c == '}' && --depth == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Découpe sur '/' en dehors des accolades
+    private static String[] splitSegments(String pattern) {
+        List<String> parts = new ArrayList<>();
+        int start = 0;
+        int i = 0;
+        while (i < pattern.length()) {
+            char c = pattern.charAt(i);
+            int close = c == '{' ? closingBrace(pattern, i) : -1;
+            if (close >= 0) {
+                i = close + 1;
+            } else {
+                if (c == '/') {
+                    parts.add(pattern.substring(start, i));
+                    start = i + 1;
+                }
+                i++;
+            }
+        }
+        parts.add(pattern.substring(start));
+        return parts.toArray(new String[0]);
+    }
+
+    private static int[] computeParamSegmentIndexes(String[] segments, int paramCount) {
+        int[] indexes = new int[paramCount];
+        int p = 0;
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if (isParamSegment(segment)) {
+                indexes[p++] = i;
+            } else if (!isStaticSegment(segment)) {
+                // {param} au milieu d'un segment ou caractères regex: garder la regex
+                return null;
+            }
         }
-        
-        this.paramNames = params.toArray(new String[0]);
-        this.regex = Pattern.compile("^" + regexPattern + "$");
+        return p == paramCount ? indexes : null;
+    }
+
+    static boolean isParamSegment(String segment) {
+        return segment.length() > 2
+                && segment.charAt(0) == '{'
+                && closingBrace(segment, 0) == segment.length() - 1;
+    }
+
+    private static boolean isStaticSegment(String segment) {
+        for (int i = 0; i < segment.length(); i++) {
+            if ("{}()[]*+?|^$\\".indexOf(segment.charAt(i)) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Indique si la route peut être rangée dans le RouteTree (segments statiques
+     * ou {param} complets), sinon elle est résolue par sa regex.
+     */
+    boolean isSegmented() {
+        return paramSegmentIndexes != null;
+    }
+
+    String[] getSegments() {
+        return segments;
     }
 
     public boolean matches(String url, String method) {
-        return regex.matcher(url).matches() && 
-               this.httpMethod.equalsIgnoreCase(method);
+        return this.httpMethod.equalsIgnoreCase(method) && matches(url);
     }
 
     public boolean matches(String url) {
-        return regex.matcher(url).matches();
+        return regexBounds(url) != null;
     }
 
     public Map<String, String> extractParams(String url) {
         Map<String, String> params = new HashMap<>();
-        Matcher matcher = regex.matcher(url);
-        
-        if (matcher.matches()) {
-            for (int i = 0; i < paramNames.length; i++) {
-                params.put(paramNames[i], matcher.group(i + 1));
+        int[] bounds = paramSegmentIndexes != null ? segmentBounds(url) : regexBounds(url);
+
+        if (bounds != null) {
+            for (int i = 0; i < variables.length; i++) {
+                params.put(variables[i].getName(), url.substring(bounds[2 * i], bounds[2 * i + 1]));
             }
         }
-        
+
         return params;
     }
 
+    /**
+     * Applique la regex une seule fois: retourne la correspondance avec les
+     * variables typées déjà converties, ou null si l'URL ne correspond pas.
+     */
+    RouteMatch match(String url, Set<String> allowedMethods) {
+        int[] bounds = regexBounds(url);
+        return bounds != null ? createMatch(url, bounds, allowedMethods) : null;
+    }
+
+    /**
+     * Correspondance pour une URL déjà acceptée par le RouteTree.
+     */
+    RouteMatch matchSegments(String url, Set<String> allowedMethods) {
+        int[] bounds = segmentBounds(url);
+        return bounds != null ? createMatch(url, bounds, allowedMethods) : null;
+    }
+
+    // Conversion des variables typées vers les slots primitifs de la correspondance
+    private RouteMatch createMatch(String url, int[] bounds, Set<String> allowedMethods) {
+        long[] slots = new long[variables.length * 2];
+        for (int i = 0; i < variables.length; i++) {
+            int start = bounds[2 * i];
+            int end = bounds[2 * i + 1];
+            switch (variables[i].getType()) {
+                case INT:
+                case LONG:
+                    slots[2 * i] = PathVariable.parseLong(url, start, end);
+                    break;
+                case UUID:
+                    slots[2 * i] = PathVariable.parseHex(url, start, start + 18);
+                    slots[2 * i + 1] = PathVariable.parseHex(url, start + 19, end);
+                    break;
+                default:
+                    break;
+            }
+        }
+        return new RouteMatch(this, url, bounds, slots, allowedMethods);
+    }
+
+    // Bornes [début, fin) de chaque variable via la regex, ou null
+    private int[] regexBounds(String url) {
+        Matcher matcher = regex.matcher(url);
+        if (!matcher.matches()) {
+            return null;
+        }
+        int[] bounds = new int[variables.length * 2];
+        for (int i = 0; i < variables.length; i++) {
+            int start = matcher.start(groupIndexes[i]);
+            int end = matcher.end(groupIndexes[i]);
+            // La regex des entiers ne borne pas la valeur: vérifier le dépassement
+            if (!variables[i].matches(url, start, end)) {
+                return null;
+            }
+            bounds[2 * i] = start;
+            bounds[2 * i + 1] = end;
+        }
+        return bounds;
+    }
+
+    // Bornes via lecture directe des segments, sans regex, ou null
+    private int[] segmentBounds(String url) {
+        int[] bounds = new int[variables.length * 2];
+        int start = 0;
+        int p = 0;
+        for (int i = 0; i < segments.length; i++) {
+            if (start > url.length()) {
+                return null; // moins de segments que le pattern
+            }
+            int end = url.indexOf('/', start);
+            if (end < 0) {
+                end = url.length();
+            }
+            if (i == segments.length - 1 && end != url.length()) {
+                return null; // plus de segments que le pattern
+            }
+            if (p < paramSegmentIndexes.length && i == paramSegmentIndexes[p]) {
+                if (!variables[p].matches(url, start, end)) {
+                    return null;
+                }
+                bounds[2 * p] = start;
+                bounds[2 * p + 1] = end;
+                p++;
+            } else {
+                String segment = segments[i];
+                if (segment.length() != end - start || !url.regionMatches(start, segment, 0, end - start)) {
+                    return null;
+                }
+            }
+            start = end + 1;
+        }
+        return bounds;
+    }
+
+    /**
+     * Variables de chemin, dans l'ordre du pattern.
+     */
+    public PathVariable[] getPathVariables() {
+        return variables.clone();
+    }
+
+    PathVariable getPathVariable(int index) {
+        return variables[index];
+    }
+
+    int getPathVariableCount() {
+        return variables.length;
+    }
+
+    /**
+     * Position de la variable dans le pattern, ou -1.
+     */
+    public int indexOfPathVariable(String name) {
+        for (int i = 0; i < variables.length; i++) {
+            if (variables[i].getName().equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     public String getUrlPattern() {
         return urlPattern;
     }
 
+    /**
+     * Instance du contrôleur (créée à ce moment si sa politique est LAZY).
+     */
     public Object getController() {
+        return controller.get();
+    }
+
+    public ControllerHolder getControllerHolder() {
         return controller;
     }
 
+    public Class<?> getControllerClass() {
+        return controller.getControllerClass();
+    }
+
+    public RouteInvoker getInvoker() {
+        return invoker;
+    }
+
+    public ParameterPlan getParameterPlan() {
+        return parameterPlan;
+    }
+
     public Method getMethod() {
         return method;
     }
@@ -79,7 +329,7 @@ public class URLRoute {
         return "URLRoute{" +
                 "pattern='" + urlPattern + '\'' +
                 ", method=" + httpMethod +
-                ", controller=" + controller.getClass().getSimpleName() +
+                ", controller=" + controller.getControllerClass().getSimpleName() +
                 ", handler=" + method.getName() +
                 '}';
     }
@@ -0,0 +1,82 @@
+package com.monframework.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogramme de durées à buckets log-linéaires (principe HdrHistogram).
+ *
+ * Les valeurs sont comptées en microsecondes: 0 à 7 µs ont chacune leur
+ * bucket, puis chaque puissance de deux est découpée en 8 buckets égaux
+ * (erreur relative ≤ 12,5 %), jusqu'à 2^35 µs (~9,5 h).
+ *
+ * Pour que l'enregistrement ne se dispute pas une même case, les compteurs
+ * sont répartis en bandes choisies par thread; chaque bande est allouée au
+ * premier enregistrement qui la touche. La lecture additionne les bandes.
+ */
+public final class Histogram {
+
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int MAX_EXPONENT = 35;
+    static final int BUCKETS = (MAX_EXPONENT - SUB_BITS + 2) * SUB_BUCKETS;
+
+    private static final int STRIPES =
+            Integer.highestOneBit(Math.min(8, Runtime.getRuntime().availableProcessors()) * 2 - 1);
+
+    private final AtomicReferenceArray<AtomicLongArray> stripes = new AtomicReferenceArray<>(STRIPES);
+    private final LongAdder sumNanos = new LongAdder();
+
+    public void record(long nanos) {
+        long micros = Math.max(0, nanos) / 1000;
+        int index = (int) Thread.currentThread().getId() & (STRIPES - 1);
+        AtomicLongArray buckets = stripes.get(index);
+        if (buckets == null) {
+            stripes.compareAndSet(index, null, new AtomicLongArray(BUCKETS));
+            buckets = stripes.get(index);
+        }
+        buckets.getAndIncrement(bucketOf(micros));
+        sumNanos.add(nanos);
+    }
+
+    static int bucketOf(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int sub = (int) (micros >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Premier bucket dont les valeurs sont ≥ 2^exponent µs.
+     */
+    static int bucketOfPowerOfTwo(int exponent) {
+        return exponent < SUB_BITS ? 1 << exponent : (exponent - SUB_BITS + 1) * SUB_BUCKETS;
+    }
+
+    /**
+     * Somme des bandes, bucket par bucket (non atomique vis-à-vis des
+     * enregistrements concurrents).
+     */
+    public long[] snapshot() {
+        long[] total = new long[BUCKETS];
+        for (int s = 0; s < STRIPES; s++) {
+            AtomicLongArray buckets = stripes.get(s);
+            if (buckets != null) {
+                for (int i = 0; i < BUCKETS; i++) {
+                    total[i] += buckets.get(i);
+                }
+            }
+        }
+        return total;
+    }
+
+    public long getSumNanos() {
+        return sumNanos.sum();
+    }
+}
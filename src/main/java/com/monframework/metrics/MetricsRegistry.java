@@ -0,0 +1,241 @@
+package com.monframework.metrics;
+
+import com.monframework.dispatch.DispatchContext;
+import com.monframework.dispatch.DispatchPhase;
+import com.monframework.mapping.RouteRegistry;
+import com.monframework.mapping.URLRoute;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Métriques des requêtes par route (init-param "metrics-path").
+ *
+ * Une série par méthode HTTP et motif de route, plus deux séries pour les
+ * requêtes sans route: "&lt;not-found&gt;" (404) et "&lt;method-not-allowed&gt;"
+ * (405). L'enregistrement n'utilise que des LongAdder et des Histogram à
+ * bandes: aucun verrou sur le chemin des requêtes.
+ *
+ * Les séries des routes retirées du registre (modification à chaud) sont
+ * oubliées à la version suivante de la table des routes, une fois leurs
+ * requêtes en cours terminées.
+ *
+ * writePrometheus() produit le format texte Prometheus 0.0.4.
+ */
+public final class MetricsRegistry {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final DispatchPhase[] PHASES = DispatchPhase.values();
+
+    // Bornes exportées: puissances de deux de 1 µs à 2^24 µs (~16,8 s)
+    private static final int MAX_EXPORTED_EXPONENT = 24;
+    private static final String[] BOUNDS = new String[MAX_EXPORTED_EXPONENT + 1];
+
+    static {
+        for (int k = 0; k <= MAX_EXPORTED_EXPONENT; k++) {
+            BOUNDS[k] = BigDecimal.valueOf(1L << k).movePointLeft(6).toPlainString();
+        }
+    }
+
+    // Par instance de route (identité), puis par libellé pour qu'une route
+    // rechargée garde ses compteurs
+    private final ConcurrentHashMap<URLRoute, RouteMetrics> byRoute = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, RouteMetrics> byLabel = new ConcurrentHashMap<>();
+    private final RouteMetrics notFound = new RouteMetrics("*", "<not-found>");
+    private final RouteMetrics methodNotAllowed = new RouteMetrics("*", "<method-not-allowed>");
+    private final RouteRegistry routes;
+    private volatile long prunedVersion;
+
+    public MetricsRegistry(RouteRegistry routes) {
+        this.routes = routes;
+        this.prunedVersion = routes.getVersion();
+    }
+
+    /**
+     * À appeler quand la route de la requête est connue (jauge en cours).
+     */
+    public void requestStarted(URLRoute route) {
+        if (routes.getVersion() != prunedVersion) {
+            prune();
+        }
+        forRoute(route).inFlight.increment();
+    }
+
+    /**
+     * Enregistre une requête terminée (dispatch.finish() déjà appelé).
+     * Les requêtes sans route autres que 404 et 405 (ressources statiques)
+     * sont ignorées.
+     */
+    public void record(DispatchContext dispatch) {
+        int status = dispatch.getStatus();
+        RouteMetrics metrics;
+        URLRoute route = dispatch.getRoute();
+        if (route != null) {
+            metrics = byRoute.get(route);
+            if (metrics == null) { // route retirée pendant la requête
+                metrics = byLabel.computeIfAbsent(label(route), key -> new RouteMetrics(
+                        route.getHttpMethod().toUpperCase(), route.getUrlPattern()));
+            }
+            metrics.inFlight.decrement();
+        } else if (status == 404) {
+            metrics = notFound;
+        } else if (status == 405) {
+            metrics = methodNotAllowed;
+        } else {
+            return;
+        }
+        metrics.countStatus(status);
+        metrics.duration.record(dispatch.getDurationNanos());
+        for (DispatchPhase phase : PHASES) {
+            if (dispatch.hasVisited(phase)) {
+                metrics.phases[phase.ordinal()].record(dispatch.getPhaseNanos(phase));
+            }
+        }
+    }
+
+    private RouteMetrics forRoute(URLRoute route) {
+        RouteMetrics metrics = byRoute.get(route);
+        if (metrics == null) {
+            String method = route.getHttpMethod().toUpperCase();
+            String pattern = route.getUrlPattern();
+            metrics = byLabel.computeIfAbsent(method + " " + pattern, key -> new RouteMetrics(method, pattern));
+            byRoute.putIfAbsent(route, metrics);
+        }
+        return metrics;
+    }
+
+    private static String label(URLRoute route) {
+        return route.getHttpMethod().toUpperCase() + " " + route.getUrlPattern();
+    }
+
+    /**
+     * Oublie les routes absentes de la table courante: l'instance (byRoute)
+     * dans tous les cas, la série (byLabel) si aucune route de même méthode et
+     * motif ne la reprend et qu'aucune requête n'est en cours.
+     */
+    private synchronized void prune() {
+        long version = routes.getVersion();
+        Set<URLRoute> live = Collections.newSetFromMap(new IdentityHashMap<>());
+        live.addAll(routes.getAllRoutes());
+        Set<String> labels = new HashSet<>();
+        for (URLRoute route : live) {
+            labels.add(label(route));
+        }
+        byRoute.keySet().removeIf(route -> !live.contains(route));
+        byLabel.entrySet().removeIf(entry -> !labels.contains(entry.getKey()) && entry.getValue().inFlight.sum() == 0);
+        prunedVersion = version;
+    }
+
+    public void writePrometheus(StringBuilder out) {
+        prune();
+        List<RouteMetrics> series = new ArrayList<>(byLabel.values());
+        series.add(notFound);
+        series.add(methodNotAllowed);
+
+        out.append("# HELP monframework_requests_total Requêtes traitées par route et classe de statut.\n");
+        out.append("# TYPE monframework_requests_total counter\n");
+        for (RouteMetrics metrics : series) {
+            for (int i = 0; i < metrics.statusClasses.length; i++) {
+                long value = metrics.statusClasses[i].sum();
+                if (value > 0) {
+                    out.append("monframework_requests_total{");
+                    labels(out, metrics);
+                    out.append(",status=\"").append(i + 1).append("xx\"} ").append(value).append('\n');
+                }
+            }
+        }
+
+        out.append("# HELP monframework_requests_in_flight Requêtes en cours par route.\n");
+        out.append("# TYPE monframework_requests_in_flight gauge\n");
+        for (RouteMetrics metrics : byLabel.values()) {
+            out.append("monframework_requests_in_flight{");
+            labels(out, metrics);
+            out.append("} ").append(metrics.inFlight.sum()).append('\n');
+        }
+
+        out.append("# HELP monframework_request_duration_seconds Durée totale des requêtes.\n");
+        out.append("# TYPE monframework_request_duration_seconds histogram\n");
+        for (RouteMetrics metrics : series) {
+            histogram(out, "monframework_request_duration_seconds", metrics, null, metrics.duration);
+        }
+
+        out.append("# HELP monframework_request_phase_duration_seconds Durée de chaque étape du traitement.\n");
+        out.append("# TYPE monframework_request_phase_duration_seconds histogram\n");
+        for (RouteMetrics metrics : series) {
+            for (DispatchPhase phase : PHASES) {
+                histogram(out, "monframework_request_phase_duration_seconds", metrics, phase, metrics.phases[phase.ordinal()]);
+            }
+        }
+    }
+
+    private static void histogram(StringBuilder out, String name, RouteMetrics metrics, DispatchPhase phase, Histogram histogram) {
+        long[] buckets = histogram.snapshot();
+        long total = 0;
+        for (long count : buckets) {
+            total += count;
+        }
+        if (total == 0) {
+            return;
+        }
+        long cumulative = 0;
+        int next = 0;
+        for (int k = 0; k <= MAX_EXPORTED_EXPONENT; k++) {
+            // Valeurs tronquées en µs < 2^k, soit durée < 2^k µs
+            for (int end = Histogram.bucketOfPowerOfTwo(k); next < end; next++) {
+                cumulative += buckets[next];
+            }
+            bucketLine(out, name, metrics, phase, BOUNDS[k], cumulative);
+        }
+        bucketLine(out, name, metrics, phase, "+Inf", total);
+        seriesLine(out, name + "_sum", metrics, phase);
+        out.append(BigDecimal.valueOf(histogram.getSumNanos()).movePointLeft(9).toPlainString()).append('\n');
+        seriesLine(out, name + "_count", metrics, phase);
+        out.append(total).append('\n');
+    }
+
+    private static void bucketLine(StringBuilder out, String name, RouteMetrics metrics, DispatchPhase phase, String bound, long value) {
+        out.append(name).append("_bucket{");
+        labels(out, metrics);
+        if (phase != null) {
+            out.append(",phase=\"").append(phase.getLabel()).append('"');
+        }
+        out.append(",le=\"").append(bound).append("\"} ").append(value).append('\n');
+    }
+
+    private static void seriesLine(StringBuilder out, String name, RouteMetrics metrics, DispatchPhase phase) {
+        out.append(name).append('{');
+        labels(out, metrics);
+        if (phase != null) {
+            out.append(",phase=\"").append(phase.getLabel()).append('"');
+        }
+        out.append("} ");
+    }
+
+    private static void labels(StringBuilder out, RouteMetrics metrics) {
+        out.append("method=\"");
+        escape(out, metrics.httpMethod);
+        out.append("\",route=\"");
+        escape(out, metrics.route);
+        out.append('"');
+    }
+
+    private static void escape(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '"') {
+                out.append('\\').append(c);
+            } else if (c == '\n') {
+                out.append("\\n");
+            } else {
+                out.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.monframework.metrics;
+
+import com.monframework.dispatch.DispatchPhase;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compteurs d'une série (méthode HTTP + motif de route).
+ */
+final class RouteMetrics {
+
+    final String httpMethod;
+    final String route;
+    final LongAdder[] statusClasses = new LongAdder[5]; // 1xx à 5xx
+    final LongAdder inFlight = new LongAdder();
+    final Histogram duration = new Histogram();
+    final Histogram[] phases = new Histogram[DispatchPhase.values().length];
+
+    RouteMetrics(String httpMethod, String route) {
+        this.httpMethod = httpMethod;
+        this.route = route;
+        for (int i = 0; i < statusClasses.length; i++) {
+            statusClasses[i] = new LongAdder();
+        }
+        for (int i = 0; i < phases.length; i++) {
+            phases[i] = new Histogram();
+        }
+    }
+
+    void countStatus(int status) {
+        int statusClass = status / 100;
+        if (statusClass >= 1 && statusClass <= 5) {
+            statusClasses[statusClass - 1].increment();
+        }
+    }
+}
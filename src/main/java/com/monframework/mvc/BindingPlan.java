@@ -0,0 +1,505 @@
+package com.monframework.mvc;
+
+import com.monframework.log.Log;
+import com.monframework.log.Logger;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+/**
+ * Plan de binding d'une classe, construit une seule fois par classe (ClassValue).
+ *
+ * Le plan contient le constructeur (MethodHandle), un setter par champ
+ * (VarHandle, ou MethodHandle pour les champs final), le nom de chaque champ
+ * et son convertisseur. Les records sont construits par leur constructeur
+ * canonique. Les valeurs sont lues en parcourant un ParameterTree, ou
+ * directement depuis un ValueReader (JSON, CBOR) pour un corps @RequestBody.
+ */
+final class BindingPlan {
+
+    private static final Logger LOG = Log.get(BindingPlan.class);
+
+    private static final ClassValue<BindingPlan> PLANS = new ClassValue<BindingPlan>() {
+        @Override
+        protected BindingPlan computeValue(Class<?> type) {
+            return new BindingPlan(type);
+        }
+    };
+
+    // Fabrique d'une collection ou d'une Map du type déclaré; null si aucune ne convient
+    private static final ClassValue<Supplier<Object>> CONTAINERS = new ClassValue<Supplier<Object>>() {
+        @Override
+        protected Supplier<Object> computeValue(Class<?> type) {
+            return containerFactory(type);
+        }
+    };
+
+    private static final MethodType SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final Class<?> type;
+    private final boolean record;
+    private final MethodHandle constructor; // ()Object, ou (Object[])Object pour un record; null si absent
+    private final String constructorError;
+    private final Property[] properties;
+    private final Map<String, Integer> indexes; // nom -> indice dans properties
+
+    static BindingPlan of(Class<?> type) {
+        return PLANS.get(type);
+    }
+
+    private BindingPlan(Class<?> type) {
+        this.type = type;
+        this.record = type.isRecord();
+
+        MethodHandles.Lookup lookup = lookupFor(type);
+        List<Property> props = new ArrayList<>();
+        MethodHandle ctor = null;
+        String error = null;
+        try {
+            if (record) {
+                RecordComponent[] components = type.getRecordComponents();
+                Class<?>[] types = new Class<?>[components.length];
+                for (int i = 0; i < components.length; i++) {
+                    types[i] = components[i].getType();
+                    props.add(new Property(components[i].getName(), types[i], components[i].getGenericType(), null, null));
+                }
+                Constructor<?> canonical = type.getDeclaredConstructor(types);
+                canonical.setAccessible(true);
+                ctor = lookup.unreflectConstructor(canonical)
+                        .asType(MethodType.methodType(Object.class, types).wrap().changeReturnType(Object.class))
+                        .asSpreader(Object[].class, types.length);
+            } else {
+                Constructor<?> noArg = type.getDeclaredConstructor();
+                noArg.setAccessible(true);
+                ctor = lookup.unreflectConstructor(noArg).asType(MethodType.methodType(Object.class));
+                for (Field field : type.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (Modifier.isStatic(modifiers) || field.isSynthetic()) {
+                        continue;
+                    }
+                    props.add(property(lookup, field));
+                }
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            ctor = null;
+            error = e.toString();
+        }
+        this.constructor = ctor;
+        this.constructorError = error;
+        this.properties = props.toArray(new Property[0]);
+        Map<String, Integer> byName = new HashMap<>();
+        for (int i = 0; i < properties.length; i++) {
+            byName.put(properties[i].name, i);
+        }
+        this.indexes = byName;
+    }
+
+    // Lookup privé sur type quand son module l'autorise (partagé avec JsonPlan)
+    static MethodHandles.Lookup lookupFor(Class<?> type) {
+        try {
+            return MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+        } catch (IllegalAccessException | RuntimeException e) {
+            return MethodHandles.lookup();
+        }
+    }
+
+    /**
+     * Interface ou classe abstraite: implémentation par défaut qui lui est
+     * assignable (ArrayList, LinkedHashSet, TreeSet, ArrayDeque, LinkedHashMap,
+     * TreeMap). Classe concrète (LinkedList, TreeSet...): son constructeur
+     * sans argument. null pour le reste (EnumSet, ConcurrentMap...).
+     */
+    private static Supplier<Object> containerFactory(Class<?> type) {
+        if (type.isAssignableFrom(ArrayList.class)) {
+            return ArrayList::new;
+        } else if (type.isAssignableFrom(LinkedHashSet.class)) {
+            return LinkedHashSet::new;
+        } else if (type.isAssignableFrom(TreeSet.class)) {
+            return TreeSet::new;
+        } else if (type.isAssignableFrom(ArrayDeque.class)) {
+            return ArrayDeque::new;
+        } else if (type.isAssignableFrom(LinkedHashMap.class)) {
+            return LinkedHashMap::new;
+        } else if (type.isAssignableFrom(TreeMap.class)) {
+            return TreeMap::new;
+        }
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+            return null;
+        }
+        try {
+            Constructor<?> noArg = type.getDeclaredConstructor();
+            noArg.setAccessible(true);
+            MethodHandle constructor = lookupFor(type).unreflectConstructor(noArg)
+                    .asType(MethodType.methodType(Object.class));
+            return () -> {
+                try {
+                    return (Object) constructor.invokeExact();
+                } catch (Throwable e) {
+                    throw new IllegalStateException("Instanciation de " + type.getName() + " impossible", e);
+                }
+            };
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static Object newContainer(Class<?> type) {
+        Supplier<Object> factory = CONTAINERS.get(type);
+        if (factory == null) {
+            throw new IllegalArgumentException("Type de conteneur non instanciable: " + type.getName());
+        }
+        return factory.get();
+    }
+
+    private static Property property(MethodHandles.Lookup lookup, Field field) throws IllegalAccessException {
+        if (Modifier.isFinal(field.getModifiers())) {
+            // VarHandle en lecture seule pour un champ final: setter réflexif
+            field.setAccessible(true);
+            MethodHandle setter = lookup.unreflectSetter(field).asType(SETTER);
+            return new Property(field.getName(), field.getType(), field.getGenericType(), null, setter);
+        }
+        return new Property(field.getName(), field.getType(), field.getGenericType(), lookup.unreflectVarHandle(field), null);
+    }
+
+    /**
+     * @param node nœud de l'objet dans l'arbre des paramètres
+     * @return l'instance liée, ou null si la classe ne peut pas être construite
+     */
+    Object bind(ParameterTree.Node node) {
+        if (constructor == null) {
+            LOG.error("Erreur lors du binding de " + type.getName() + ": " + constructorError);
+            return null;
+        }
+        try {
+            if (record) {
+                Object[] values = new Object[properties.length];
+                for (int i = 0; i < properties.length; i++) {
+                    Property property = properties[i];
+                    Object value = property.value(node.child(property.name));
+                    values[i] = value != null ? value : property.defaultValue;
+                }
+                return (Object) constructor.invokeExact(values);
+            }
+
+            Object instance = (Object) constructor.invokeExact();
+            for (Property property : properties) {
+                ParameterTree.Node child = node.child(property.name);
+                if (child != null) {
+                    Object value = property.value(child);
+                    if (value != null) {
+                        property.set(instance, value);
+                    }
+                }
+            }
+            return instance;
+        } catch (Throwable e) {
+            LOG.error(() -> "Erreur lors du binding de " + type.getName() + ": " + e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Lit un objet (ou null) et construit l'instance; les propriétés
+     * inconnues sont ignorées, les absentes gardent leur valeur par défaut.
+     *
+     * @return l'instance, ou null si la classe ne peut pas être construite
+     */
+    Object bind(ValueReader reader) throws IOException {
+        if (reader.peek() == ValueReader.Token.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        if (constructor == null) {
+            LOG.error("Erreur lors du binding de " + type.getName() + ": " + constructorError);
+            reader.skipValue();
+            return null;
+        }
+        Object[] values = new Object[properties.length];
+        boolean[] present = new boolean[properties.length];
+        reader.beginObject();
+        while (reader.hasNext()) {
+            Integer index = indexes.get(reader.nextName());
+            if (index == null) {
+                reader.skipValue();
+            } else {
+                Property property = properties[index];
+                values[index] = read(reader, property.type, property.genericType, property.bodyConverter);
+                present[index] = true;
+            }
+        }
+        reader.endObject();
+
+        try {
+            if (record) {
+                for (int i = 0; i < properties.length; i++) {
+                    if (values[i] == null) {
+                        values[i] = properties[i].defaultValue;
+                    }
+                }
+                return (Object) constructor.invokeExact(values);
+            }
+            Object instance = (Object) constructor.invokeExact();
+            for (int i = 0; i < properties.length; i++) {
+                if (present[i] && values[i] != null) {
+                    properties[i].set(instance, values[i]);
+                }
+            }
+            return instance;
+        } catch (Throwable e) {
+            LOG.error(() -> "Erreur lors du binding de " + type.getName() + ": " + e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Valeur lue convertie vers type: types basiques par leur convertisseur,
+     * tableaux, List/Set/Collection et Map (types d'éléments lus dans
+     * genericType), Object en valeur brute, le reste par son BindingPlan.
+     *
+     * Contrairement au binding d'un formulaire, une valeur non convertible
+     * (texte pour un int, 1.5 ou dépassement pour un int...) n'est pas
+     * remplacée par la valeur par défaut: le corps est refusé (400).
+     *
+     * @param converter convertisseur strict du registre s'il est basique (null: calculé)
+     */
+    static Object read(ValueReader reader, Class<?> type, Type genericType, Converter converter)
+            throws IOException {
+        ValueReader.Token token = reader.peek();
+        if (token == ValueReader.Token.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        if (ParameterResolver.isBasicType(type)) {
+            Object value = reader.nextScalar();
+            Object typed = typed(value, type);
+            if (typed != null) {
+                return typed;
+            }
+            Converter basic = converter != null ? converter : ConverterRegistry.forType(type);
+            Object converted = ParameterResolver.convertObject(value, type, basic);
+            if (converted == ConverterRegistry.FAILURE) {
+                throw new RequestBodyException(400, "Valeur invalide pour le type " + type.getSimpleName() + ": " + value);
+            }
+            return converted;
+        }
+        if (type.isArray()) {
+            Class<?> componentType = type.getComponentType();
+            List<Object> elements = readElements(reader, componentType, componentType);
+            Object array = Array.newInstance(componentType, elements.size());
+            for (int i = 0; i < elements.size(); i++) {
+                Object element = elements.get(i);
+                if (element != null || !componentType.isPrimitive()) {
+                    Array.set(array, i, element);
+                }
+            }
+            return array;
+        }
+        if (Collection.class.isAssignableFrom(type)) {
+            // Type déclaré (LinkedList, TreeSet...) respecté: sinon le setter du champ échouerait
+            boolean list = type.isAssignableFrom(ArrayList.class);
+            Collection<Object> collection = list ? null : uncheckedCast(newContainer(type));
+            Type elementType = typeArgument(genericType, 0);
+            List<Object> elements = readElements(reader, rawType(elementType), elementType);
+            if (list) {
+                return elements;
+            }
+            collection.addAll(elements);
+            return collection;
+        }
+        if (Map.class.isAssignableFrom(type)) {
+            Type valueType = typeArgument(genericType, 1);
+            Class<?> valueClass = rawType(valueType);
+            Converter valueConverter = ConverterRegistry.forType(valueClass);
+            Map<String, Object> map = uncheckedCast(newContainer(type));
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                map.put(name, read(reader, valueClass, valueType, valueConverter));
+            }
+            reader.endObject();
+            return map;
+        }
+        if (type == Object.class) {
+            return reader.readValue();
+        }
+        return BindingPlan.of(type).bind(reader);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T uncheckedCast(Object container) {
+        return (T) container;
+    }
+
+    // Valeur déjà typée par un format binaire: conversion directe, sans passer
+    // par le texte. null: conversion par le convertisseur, comme en JSON
+    private static Object typed(Object value, Class<?> type) {
+        if (value instanceof Long) {
+            long number = (Long) value;
+            if (type == long.class || type == Long.class) {
+                return value;
+            } else if ((type == int.class || type == Integer.class) && number == (int) number) {
+                return (int) number;
+            } else if (type == double.class || type == Double.class) {
+                return (double) number;
+            }
+        } else if (value instanceof Double) {
+            if (type == double.class || type == Double.class) {
+                return value;
+            } else if (type == float.class || type == Float.class) {
+                return ((Double) value).floatValue();
+            }
+        } else if (value instanceof Boolean && (type == boolean.class || type == Boolean.class)) {
+            return value;
+        }
+        return null;
+    }
+
+    private static List<Object> readElements(ValueReader reader, Class<?> elementClass, Type elementType)
+            throws IOException {
+        Converter elementConverter = ConverterRegistry.forType(elementClass);
+        List<Object> elements = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            elements.add(read(reader, elementClass, elementType, elementConverter));
+        }
+        reader.endArray();
+        return elements;
+    }
+
+    // Argument de type générique (List<T>, Map<String, V>), Object si inconnu
+    private static Type typeArgument(Type type, int index) {
+        if (type instanceof ParameterizedType) {
+            Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+            if (index < arguments.length) {
+                return arguments[index];
+            }
+        }
+        return Object.class;
+    }
+
+    static Class<?> rawType(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        }
+        if (type instanceof ParameterizedType) {
+            return (Class<?>) ((ParameterizedType) type).getRawType();
+        }
+        return Object.class; // joker ou variable de type
+    }
+
+    enum Kind { BASIC, ARRAY, NESTED }
+
+    private static final class Property {
+        final String name;
+        final Class<?> type;
+        final Type genericType;
+        final Kind kind;
+        final Class<?> componentType;
+        final Converter converter; // types basiques (valeur ou élément), valeur par défaut si invalide
+        final Converter bodyConverter; // corps JSON/CBOR: strict
+        final Object defaultValue;
+        final VarHandle handle;
+        final MethodHandle setter;
+
+        Property(String name, Class<?> type, Type genericType, VarHandle handle, MethodHandle setter) {
+            this.name = name;
+            this.type = type;
+            this.genericType = genericType;
+            this.handle = handle;
+            this.setter = setter;
+            this.componentType = type.getComponentType();
+            if (type.isArray()) {
+                kind = Kind.ARRAY;
+            } else if (ParameterResolver.isBasicType(type)) {
+                kind = Kind.BASIC;
+            } else {
+                kind = Kind.NESTED;
+            }
+            Class<?> valueType = kind == Kind.ARRAY ? componentType : type;
+            this.converter = ParameterResolver.isBasicType(valueType) ? ParameterResolver.converterFor(valueType) : null;
+            this.bodyConverter = ConverterRegistry.forType(type);
+            this.defaultValue = ParameterResolver.getDefaultValue(type);
+        }
+
+        // Aucun paramètre sous ce nom: rien à lier, pas d'instance imbriquée créée
+        Object value(ParameterTree.Node node) {
+            if (node == null) {
+                return null;
+            }
+            switch (kind) {
+                case BASIC:
+                    return node.hasValue() ? convert(node.value()) : null;
+                case ARRAY:
+                    return array(node);
+                default:
+                    return BindingPlan.of(type).bind(node);
+            }
+        }
+
+        private Object convert(Object value) {
+            Class<?> valueType = kind == Kind.ARRAY ? componentType : type;
+            return ParameterResolver.convertObject(value, valueType, converter);
+        }
+
+        // Éléments [0], [1]... jusqu'au premier indice absent, ou valeurs multiples (tags=a&tags=b)
+        private Object array(ParameterTree.Node node) {
+            int length = node.elementCount();
+            if (length == 0) {
+                if (converter != null && node.value() instanceof String[]) {
+                    String[] values = (String[]) node.value();
+                    Object array = Array.newInstance(componentType, values.length);
+                    for (int i = 0; i < values.length; i++) {
+                        setElement(array, i, converter.convert(values[i]));
+                    }
+                    return array;
+                }
+                return null;
+            }
+
+            Object array = Array.newInstance(componentType, length);
+            BindingPlan elementPlan = converter == null ? BindingPlan.of(componentType) : null;
+            for (int i = 0; i < length; i++) {
+                ParameterTree.Node element = node.element(i);
+                setElement(array, i, elementPlan != null
+                        ? elementPlan.bind(element)
+                        : element.hasValue() ? convert(element.value()) : null);
+            }
+            return array;
+        }
+
+        private void setElement(Object array, int index, Object element) {
+            if (element != null || !componentType.isPrimitive()) {
+                Array.set(array, index, element);
+            }
+        }
+
+        void set(Object instance, Object value) throws Throwable {
+            if (handle != null) {
+                handle.set(instance, value);
+            } else {
+                setter.invokeExact(instance, value);
+            }
+        }
+    }
+}
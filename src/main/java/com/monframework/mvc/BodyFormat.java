@@ -0,0 +1,45 @@
+package com.monframework.mvc;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Format des corps des routes @Json: encodage de la réponse, choisi par
+ * l'en-tête Accept, et lecture des corps @RequestBody, choisie par le
+ * Content-Type. JSON et CBOR sont fournis (BodyFormats); les autres
+ * s'ajoutent par BodyFormats.register(), par ServiceLoader ou par
+ * l'init-param "body-formats".
+ */
+public interface BodyFormat {
+
+    /**
+     * Type MIME sans paramètre, comparé aux en-têtes (ex. "application/cbor").
+     */
+    String getMediaType();
+
+    /**
+     * Content-Type de la réponse.
+     */
+    default String getContentType() {
+        return getMediaType();
+    }
+
+    /**
+     * Écrit value dans le corps de la réponse; le statut et le Content-Type
+     * sont déjà posés. Si l'écriture échoue, FrontServlet remplace la réponse
+     * par une erreur 500 tant qu'elle n'est pas validée, et l'interrompt sinon.
+     *
+     * @return taille du corps en octets
+     */
+    long write(Object value, HttpServletResponse response) throws IOException;
+
+    /**
+     * @return reader d'un corps de requête dans ce format, null si le format
+     *         ne sert qu'aux réponses (la requête reçoit alors 415)
+     */
+    default ValueReader newReader(InputStream in, long maxBytes) {
+        return null;
+    }
+}
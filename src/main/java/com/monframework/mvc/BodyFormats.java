@@ -0,0 +1,220 @@
+package com.monframework.mvc;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Formats de corps enregistrés et négociation par en-têtes.
+ *
+ * JSON reste le format par défaut: sans Accept, avec un Accept générique ou
+ * sans type reconnu, la réponse est en JSON, et un corps de requête sans
+ * Content-Type est lu en JSON. Un Content-Type inconnu donne 415. Le choix par valeur d'Accept est mis
+ * en cache (les clients d'un service envoient toujours le même en-tête).
+ */
+public final class BodyFormats {
+
+    public static final BodyFormat JSON = new Json();
+    public static final BodyFormat CBOR = new Cbor();
+
+    private static final int MAX_CACHED = 256;
+
+    private static volatile BodyFormat[] formats = {JSON, CBOR};
+    private static final Map<String, BodyFormat> BY_ACCEPT = new ConcurrentHashMap<>();
+
+    private BodyFormats() {}
+
+    /**
+     * Ajoute un format, ou remplace celui du même type MIME (à appeler avant
+     * l'enregistrement des routes).
+     */
+    public static synchronized void register(BodyFormat format) {
+        BodyFormat[] current = formats;
+        BodyFormat[] updated = null;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i].getMediaType().equalsIgnoreCase(format.getMediaType())) {
+                updated = current.clone();
+                updated[i] = format;
+            }
+        }
+        if (updated == null) {
+            updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = format;
+        }
+        formats = updated;
+        BY_ACCEPT.clear();
+    }
+
+    /**
+     * Format de réponse pour un en-tête Accept (null: JSON).
+     */
+    public static BodyFormat forAccept(String accept) {
+        if (accept == null || accept.isEmpty()) {
+            return JSON;
+        }
+        BodyFormat format = BY_ACCEPT.get(accept);
+        if (format == null) {
+            format = negotiate(accept, formats);
+            if (BY_ACCEPT.size() < MAX_CACHED) {
+                BY_ACCEPT.put(accept, format);
+            }
+        }
+        return format;
+    }
+
+    /**
+     * Format d'un corps de requête d'après son Content-Type: JSON s'il est
+     * absent; un suffixe structuré (application/problem+json) désigne son
+     * format de base.
+     *
+     * @return null si le type n'est pas pris en charge
+     */
+    public static BodyFormat forContentType(String contentType) {
+        if (contentType == null || contentType.isBlank()) {
+            return JSON;
+        }
+        int end = contentType.indexOf(';');
+        String mediaType = (end < 0 ? contentType : contentType.substring(0, end)).trim().toLowerCase(Locale.ROOT);
+        BodyFormat[] current = formats;
+        for (BodyFormat format : current) {
+            if (format.getMediaType().equalsIgnoreCase(mediaType)) {
+                return format;
+            }
+        }
+        int plus = mediaType.lastIndexOf('+');
+        if (plus > 0) {
+            String suffix = mediaType.substring(plus + 1);
+            for (BodyFormat format : current) {
+                String base = format.getMediaType().toLowerCase(Locale.ROOT);
+                if (base.endsWith("/" + suffix)) {
+                    return format;
+                }
+            }
+        }
+        return null;
+    }
+
+    // Plus grand q; à égalité, le type cité le plus tôt dans Accept, puis l'ordre d'enregistrement
+    private static BodyFormat negotiate(String accept, BodyFormat[] candidates) {
+        String[] ranges = accept.split(",");
+        BodyFormat best = JSON;
+        float bestQuality = 0;
+        int bestIndex = Integer.MAX_VALUE;
+        for (BodyFormat format : candidates) {
+            String mediaType = format.getMediaType().toLowerCase(Locale.ROOT);
+            int slash = mediaType.indexOf('/');
+            float quality = -1;
+            int specificity = -1;
+            int index = -1;
+            for (int i = 0; i < ranges.length; i++) {
+                String[] parts = ranges[i].split(";");
+                String range = parts[0].trim().toLowerCase(Locale.ROOT);
+                int matched;
+                if (range.equals(mediaType)) {
+                    matched = 2;
+                } else if (range.endsWith("/*") && slash > 0
+                        && range.regionMatches(0, mediaType, 0, slash + 1) && range.length() == slash + 2) {
+                    matched = 1;
+                } else if (range.equals("*/*")) {
+                    matched = 0;
+                } else {
+                    continue;
+                }
+                // Le q de la plage la plus précise l'emporte
+                if (matched > specificity) {
+                    specificity = matched;
+                    quality = quality(parts);
+                    index = i;
+                }
+            }
+            if (quality > bestQuality || (quality == bestQuality && quality > 0 && index < bestIndex)) {
+                best = format;
+                bestQuality = quality;
+                bestIndex = index;
+            }
+        }
+        return best;
+    }
+
+    private static float quality(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim();
+            if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+                try {
+                    return Float.parseFloat(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static final class Json implements BodyFormat {
+
+        @Override
+        public String getMediaType() {
+            return "application/json";
+        }
+
+        @Override
+        public String getContentType() {
+            return "application/json;charset=UTF-8";
+        }
+
+        // Corps tenant dans le tampon: Content-Length connu; sinon envoyé par morceaux.
+        // Le flux n'est pris qu'au premier envoi: un échec avant laisse la réponse intacte
+        @Override
+        public long write(Object value, HttpServletResponse response) throws IOException {
+            JsonWriter json = new JsonWriter(new ResponseOutputStream(response));
+            try {
+                JsonSerializer.write(value, json);
+                if (!json.isFlushed()) {
+                    response.setContentLength((int) json.size());
+                }
+                json.flush();
+                return json.size();
+            } finally {
+                json.release();
+            }
+        }
+
+        @Override
+        public ValueReader newReader(InputStream in, long maxBytes) {
+            return new JsonReader(in, maxBytes);
+        }
+    }
+
+    private static final class Cbor implements BodyFormat {
+
+        @Override
+        public String getMediaType() {
+            return "application/cbor";
+        }
+
+        @Override
+        public long write(Object value, HttpServletResponse response) throws IOException {
+            CborWriter cbor = new CborWriter(new ResponseOutputStream(response));
+            try {
+                CborSerializer.write(value, cbor);
+                if (!cbor.isFlushed()) {
+                    response.setContentLength((int) cbor.size());
+                }
+                cbor.flush();
+                return cbor.size();
+            } finally {
+                cbor.release();
+            }
+        }
+
+        @Override
+        public ValueReader newReader(InputStream in, long maxBytes) {
+            return new CborReader(in, maxBytes);
+        }
+    }
+}
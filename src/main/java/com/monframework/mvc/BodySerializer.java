@@ -0,0 +1,211 @@
+package com.monframework.mvc;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.nio.CharBuffer;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Parcours du modèle de données commun à tous les formats (JsonSerializer,
+ * CborSerializer): la forme de chaque classe est déterminée une seule fois
+ * (JsonPlan), seule l'écriture dépend du BodyWriter.
+ */
+final class BodySerializer {
+
+    private static final BodyWriter.Name STATUS = new BodyWriter.Name("status");
+    private static final BodyWriter.Name CODE = new BodyWriter.Name("code");
+    private static final BodyWriter.Name COUNT = new BodyWriter.Name("count");
+
+    private BodySerializer() {}
+
+    static void write(Object object, BodyWriter out) throws IOException {
+        if (object == null) {
+            out.writeNull();
+            return;
+        }
+        JsonPlan plan = JsonPlan.of(object.getClass());
+        switch (plan.kind) {
+            case STRING:
+                out.writeString((String) object);
+                return;
+            case INTEGER:
+                out.writeLong(((Number) object).longValue());
+                return;
+            case DOUBLE:
+                out.writeDouble((Double) object);
+                return;
+            case FLOAT:
+                out.writeFloat((Float) object);
+                return;
+            case NUMBER:
+                out.writeNumber((Number) object);
+                return;
+            case BOOLEAN:
+                out.writeBoolean((Boolean) object);
+                return;
+            case TEXT:
+                out.writeString(object.toString());
+                return;
+            case ENUM:
+                out.writeString(((Enum<?>) object).name());
+                return;
+            case DATE:
+                out.writeString(JsonPlan.format((Date) object));
+                return;
+            case TEMPORAL:
+                out.writeString(plan.format(object));
+                return;
+            case PRIMITIVE_ARRAY:
+                writeArray(object, out);
+                return;
+            default:
+        }
+        out.enter(object);
+        switch (plan.kind) {
+            case MAP:
+                writeMap((Map<?, ?>) object, out);
+                break;
+            case COLLECTION:
+                writeCollection((Collection<?>) object, out);
+                break;
+            case ARRAY:
+                writeArray(object, out);
+                break;
+            case JSON_RESPONSE:
+                writeJsonResponse((JsonResponse) object, out);
+                break;
+            default:
+                plan.writeBean(object, out);
+        }
+        out.exit();
+    }
+
+    private static void writeJsonResponse(JsonResponse response, BodyWriter out) throws IOException {
+        int size = response.getCount() != null ? 4 : 3;
+        out.beginObject(size);
+        out.separator(0);
+        out.writeName(STATUS);
+        write(response.getStatus(), out);
+        out.separator(1);
+        out.writeName(CODE);
+        out.writeLong(response.getCode());
+
+        // Ajouter count si présent
+        if (response.getCount() != null) {
+            out.separator(2);
+            out.writeName(COUNT);
+            out.writeLong(response.getCount());
+        }
+
+        // Ajouter data, sous la clé choisie par @Json
+        out.separator(size - 1);
+        out.writeName(response.getDataKey());
+        write(response.getData(), out);
+        out.endObject(size);
+    }
+
+    private static void writeMap(Map<?, ?> map, BodyWriter out) throws IOException {
+        int size = map.size();
+        boolean sized = out.sizesContainers();
+        out.beginObject(size);
+        int written = 0;
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            if (sized && written == size) {
+                throw modified(map);
+            }
+            out.separator(written++);
+            out.writeName(String.valueOf(entry.getKey()));
+            write(entry.getValue(), out);
+        }
+        if (sized && written != size) {
+            throw modified(map);
+        }
+        out.endObject(size);
+    }
+
+    private static void writeCollection(Collection<?> collection, BodyWriter out) throws IOException {
+        int size = collection.size();
+        boolean sized = out.sizesContainers();
+        out.beginArray(size);
+        int written = 0;
+        for (Object item : collection) {
+            if (sized && written == size) {
+                throw modified(collection);
+            }
+            out.separator(written++);
+            write(item, out);
+        }
+        if (sized && written != size) {
+            throw modified(collection);
+        }
+        out.endArray();
+    }
+
+    // Taille écrite avant les éléments (CBOR): un conteneur modifié entre-temps rendrait le corps illisible
+    private static ConcurrentModificationException modified(Object container) {
+        return new ConcurrentModificationException("Conteneur modifié pendant l'écriture: "
+                + container.getClass().getName());
+    }
+
+    // Tableaux de primitives écrits sans boxing
+    private static void writeArray(Object array, BodyWriter out) throws IOException {
+        if (array instanceof char[]) {
+            out.writeString(CharBuffer.wrap((char[]) array));
+            return;
+        }
+        out.beginArray(Array.getLength(array));
+        if (array instanceof Object[]) {
+            Object[] values = (Object[]) array;
+            for (int i = 0; i < values.length; i++) {
+                out.separator(i);
+                write(values[i], out);
+            }
+        } else if (array instanceof int[]) {
+            int[] values = (int[]) array;
+            for (int i = 0; i < values.length; i++) {
+                out.separator(i);
+                out.writeLong(values[i]);
+            }
+        } else if (array instanceof long[]) {
+            long[] values = (long[]) array;
+            for (int i = 0; i < values.length; i++) {
+                out.separator(i);
+                out.writeLong(values[i]);
+            }
+        } else if (array instanceof double[]) {
+            double[] values = (double[]) array;
+            for (int i = 0; i < values.length; i++) {
+                out.separator(i);
+                out.writeDouble(values[i]);
+            }
+        } else if (array instanceof float[]) {
+            float[] values = (float[]) array;
+            for (int i = 0; i < values.length; i++) {
+                out.separator(i);
+                out.writeFloat(values[i]);
+            }
+        } else if (array instanceof short[]) {
+            short[] values = (short[]) array;
+            for (int i = 0; i < values.length; i++) {
+                out.separator(i);
+                out.writeLong(values[i]);
+            }
+        } else if (array instanceof byte[]) {
+            byte[] values = (byte[]) array;
+            for (int i = 0; i < values.length; i++) {
+                out.separator(i);
+                out.writeLong(values[i]);
+            }
+        } else if (array instanceof boolean[]) {
+            boolean[] values = (boolean[]) array;
+            for (int i = 0; i < values.length; i++) {
+                out.separator(i);
+                out.writeBoolean(values[i]);
+            }
+        }
+        out.endArray();
+    }
+}
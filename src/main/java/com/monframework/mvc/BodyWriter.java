@@ -0,0 +1,213 @@
+package com.monframework.mvc;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Base des writers de corps (JsonWriter, CborWriter): tampon pris dans un
+ * pool et vidé par morceaux sur le flux de sortie, si bien que la mémoire
+ * reste celle d'un tampon quelle que soit la taille de la réponse, et suivi
+ * des conteneurs en cours d'écriture (cycles, profondeur).
+ *
+ * Les valeurs et la structure (tableaux, objets, noms) sont écrites par les
+ * méthodes abstraites, ce qui permet à BodySerializer de parcourir le modèle
+ * une seule fois pour tous les formats.
+ *
+ * Si rien n'a encore été envoyé à la fin de l'écriture (isFlushed() faux),
+ * size() est la taille exacte du corps et peut servir de Content-Length.
+ * release() rend le tampon au pool et doit être appelé dans un finally.
+ */
+public abstract class BodyWriter {
+
+    static final int BUFFER_SIZE = 8192;
+    private static final int MAX_POOLED = 64;
+    private static final Queue<byte[]> POOL = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger POOLED = new AtomicInteger();
+
+    static final int MAX_DEPTH = 256;
+
+    private final OutputStream out;
+    private final String format; // pour les messages d'erreur
+    byte[] buffer;
+    int position;
+    private long sent;
+    private Object[] path = new Object[8]; // conteneurs en cours d'écriture
+    private int depth;
+
+    BodyWriter(OutputStream out, String format) {
+        this.out = out;
+        this.format = format;
+        this.buffer = acquireBuffer();
+    }
+
+    /**
+     * Tampon de BUFFER_SIZE octets pris dans le pool (partagé avec les readers).
+     */
+    static byte[] acquireBuffer() {
+        byte[] pooled = POOL.poll();
+        if (pooled == null) {
+            return new byte[BUFFER_SIZE];
+        }
+        POOLED.decrementAndGet();
+        return pooled;
+    }
+
+    static void releaseBuffer(byte[] buffer) {
+        if (POOLED.incrementAndGet() <= MAX_POOLED) {
+            POOL.offer(buffer);
+        } else {
+            POOLED.decrementAndGet();
+        }
+    }
+
+    /**
+     * Rend le tampon au pool; le writer n'est plus utilisable.
+     */
+    public void release() {
+        if (buffer != null) {
+            releaseBuffer(buffer);
+            buffer = null;
+        }
+    }
+
+    /**
+     * true si une partie du corps a déjà été envoyée sur le flux.
+     */
+    public boolean isFlushed() {
+        return sent > 0;
+    }
+
+    /**
+     * Nombre total d'octets écrits (envoyés et en attente).
+     */
+    public long size() {
+        return sent + position;
+    }
+
+    /**
+     * Envoie les octets en attente sur le flux.
+     */
+    public void flush() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            sent += position;
+            position = 0;
+        }
+    }
+
+    /**
+     * Entre dans un conteneur (objet, Map, Collection, tableau). Une
+     * référence déjà en cours d'écriture est un cycle, qui finirait en
+     * StackOverflowError.
+     */
+    void enter(Object container) {
+        for (int i = 0; i < depth; i++) {
+            if (path[i] == container) {
+                throw new IllegalStateException("Référence circulaire lors de l'écriture " + format + ": "
+                        + container.getClass().getName());
+            }
+        }
+        if (depth == MAX_DEPTH) {
+            throw new IllegalStateException("Profondeur " + format + " maximale atteinte (" + MAX_DEPTH + ")");
+        }
+        if (depth == path.length) {
+            path = Arrays.copyOf(path, depth * 2);
+        }
+        path[depth++] = container;
+    }
+
+    void exit() {
+        path[--depth] = null;
+    }
+
+    final void require(int count) throws IOException {
+        if (position + count > buffer.length) {
+            flush();
+        }
+    }
+
+    /**
+     * Octets déjà encodés (noms de propriétés pré-encodés, par exemple).
+     */
+    public void writeRaw(byte[] bytes) throws IOException {
+        if (bytes.length > buffer.length) {
+            flush();
+            out.write(bytes);
+            sent += bytes.length;
+        } else {
+            require(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+    }
+
+    public abstract void writeNull() throws IOException;
+
+    public abstract void writeBoolean(boolean value) throws IOException;
+
+    public abstract void writeLong(long value) throws IOException;
+
+    /**
+     * null pour NaN et les infinis.
+     */
+    public abstract void writeDouble(double value) throws IOException;
+
+    public abstract void writeFloat(float value) throws IOException;
+
+    /**
+     * Nombre d'un autre type (BigDecimal, BigInteger, AtomicLong...).
+     */
+    public abstract void writeNumber(Number value) throws IOException;
+
+    public abstract void writeString(CharSequence value) throws IOException;
+
+    /**
+     * Tableau de size éléments, chacun précédé de separator(index).
+     */
+    public abstract void beginArray(int size) throws IOException;
+
+    public abstract void endArray() throws IOException;
+
+    /**
+     * Objet de size paires nom / valeur, -1 si la taille n'est pas connue
+     * d'avance; endObject() reçoit la même valeur.
+     */
+    public abstract void beginObject(int size) throws IOException;
+
+    public abstract void endObject(int size) throws IOException;
+
+    /**
+     * Avant l'élément ou la paire de rang index (0 pour le premier).
+     */
+    public abstract void separator(int index) throws IOException;
+
+    /**
+     * Nom d'une paire, suivi de sa valeur.
+     */
+    public abstract void writeName(String name) throws IOException;
+
+    abstract void writeName(Name name) throws IOException;
+
+    /**
+     * true si la taille des conteneurs est écrite avant leurs éléments: un
+     * conteneur modifié entre-temps rendrait le corps illisible.
+     */
+    abstract boolean sizesContainers();
+
+    /**
+     * Nom de propriété pré-encodé pour chaque format (plans de sérialisation).
+     */
+    static final class Name {
+        final byte[] json; // "nom":
+        final byte[] cbor;
+
+        Name(String name) {
+            this.json = JsonWriter.encodeName(name);
+            this.cbor = CborWriter.encodeName(name);
+        }
+    }
+}
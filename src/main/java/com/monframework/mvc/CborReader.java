@@ -0,0 +1,581 @@
+package com.monframework.mvc;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.monframework.mvc.CborWriter.ARRAY;
+import static com.monframework.mvc.CborWriter.BYTES;
+import static com.monframework.mvc.CborWriter.MAP;
+import static com.monframework.mvc.CborWriter.NEGATIVE;
+import static com.monframework.mvc.CborWriter.TAG;
+import static com.monframework.mvc.CborWriter.TEXT;
+import static com.monframework.mvc.CborWriter.UNSIGNED;
+
+/**
+ * Lecture CBOR incrémentale (pull parser), symétrique de CborWriter.
+ *
+ * Même fonctionnement que JsonReader: lecture par blocs dans un tampon du
+ * pool, 413 au-delà de maxBytes, 400 pour un corps invalide. Les nombres
+ * sont gardés sous forme typée (nextScalar()); leur texte n'est produit que
+ * si nextText() est appelé. Les tags sont ignorés, sauf grands entiers
+ * (2, 3) et fractions décimales (4). Les clés de map doivent être des
+ * chaînes ou des entiers.
+ */
+public final class CborReader implements ValueReader {
+
+    private static final int MAX_DEPTH = BodyWriter.MAX_DEPTH;
+    private static final long INDEFINITE = -1;
+
+    // Contextes de la pile
+    private static final int DOCUMENT = 0;
+    private static final int IN_ARRAY = 1;
+    private static final int IN_MAP = 2; // clé attendue
+    private static final int MAP_VALUE = 3;
+
+    private final InputStream in;
+    private final long maxBytes;
+    private byte[] buffer;
+    private int position;
+    private int limit;
+    private long consumed; // octets lus avant le tampon courant
+
+    private int[] scopes = new int[16];
+    private long[] remaining = new long[16]; // éléments restants, INDEFINITE jusqu'au BREAK
+    private int depth = 1;
+    private Token peeked;
+    private final StringBuilder text = new StringBuilder(64);
+    private Object number; // Long, Double, BigInteger ou BigDecimal du NUMBER courant
+    private boolean bool;
+
+    public CborReader(InputStream in, long maxBytes) {
+        this.in = in;
+        this.maxBytes = maxBytes;
+        this.buffer = BodyWriter.acquireBuffer();
+        scopes[0] = DOCUMENT;
+        remaining[0] = 1;
+    }
+
+    @Override
+    public void release() {
+        if (buffer != null) {
+            BodyWriter.releaseBuffer(buffer);
+            buffer = null;
+        }
+    }
+
+    @Override
+    public long bytesRead() {
+        return consumed + limit;
+    }
+
+    @Override
+    public Token peek() throws IOException {
+        if (peeked != null) {
+            return peeked;
+        }
+        int scope = scopes[depth - 1];
+        int b;
+        switch (scope) {
+            case DOCUMENT:
+                b = read();
+                if (remaining[0] == 0) {
+                    if (b != -1) {
+                        throw syntax("donnée après la fin du document");
+                    }
+                    return peeked = Token.END_DOCUMENT;
+                }
+                remaining[0] = 0;
+                if (b == -1) {
+                    return peeked = Token.END_DOCUMENT; // corps vide
+                }
+                return peeked = item(b);
+            case IN_ARRAY:
+                b = nextInContainer();
+                if (b == -1) {
+                    depth--;
+                    return peeked = Token.END_ARRAY;
+                }
+                return peeked = item(b);
+            case IN_MAP:
+                b = nextInContainer();
+                if (b == -1) {
+                    depth--;
+                    return peeked = Token.END_OBJECT;
+                }
+                name(b);
+                scopes[depth - 1] = MAP_VALUE;
+                return peeked = Token.NAME;
+            case MAP_VALUE:
+                scopes[depth - 1] = IN_MAP;
+                return peeked = item(required());
+            default:
+                throw new IllegalStateException("Contexte CBOR inconnu: " + scope);
+        }
+    }
+
+    // Octet initial de l'élément suivant du conteneur courant, -1 à sa fin
+    private int nextInContainer() throws IOException {
+        long count = remaining[depth - 1];
+        if (count == INDEFINITE) {
+            int b = required();
+            return b == CborWriter.BREAK ? -1 : b;
+        }
+        if (count == 0) {
+            return -1;
+        }
+        remaining[depth - 1] = count - 1;
+        return required();
+    }
+
+    // Clé de map dans text: chaîne, ou entier écrit en décimal
+    private void name(int b) throws IOException {
+        int major = b & 0xE0;
+        if (major == TEXT) {
+            readText(b & 0x1F);
+        } else if (major == UNSIGNED || major == NEGATIVE) {
+            long value = argument(b & 0x1F);
+            text.setLength(0);
+            if (major == UNSIGNED) {
+                text.append(value);
+            } else {
+                text.append(-1 - value);
+            }
+        } else {
+            throw syntax("nom de propriété attendu");
+        }
+    }
+
+    private Token item(int b) throws IOException {
+        int major = b & 0xE0;
+        int info = b & 0x1F;
+        switch (major) {
+            case UNSIGNED: {
+                long value = argument(info);
+                number = value >= 0 ? (Object) value : new BigInteger(Long.toUnsignedString(value));
+                return Token.NUMBER;
+            }
+            case NEGATIVE: {
+                long value = argument(info);
+                number = value >= 0 ? (Object) (-1 - value)
+                        : BigInteger.valueOf(-1).subtract(new BigInteger(Long.toUnsignedString(value)));
+                return Token.NUMBER;
+            }
+            case BYTES:
+                throw syntax("chaîne d'octets non prise en charge");
+            case TEXT:
+                readText(info);
+                return Token.STRING;
+            case ARRAY:
+                push(IN_ARRAY, info == 31 ? INDEFINITE : length(info));
+                return Token.BEGIN_ARRAY;
+            case MAP:
+                push(IN_MAP, info == 31 ? INDEFINITE : length(info));
+                return Token.BEGIN_OBJECT;
+            case TAG:
+                return tagged(argument(info));
+            default:
+                return simple(b, info);
+        }
+    }
+
+    private Token simple(int b, int info) throws IOException {
+        switch (b) {
+            case CborWriter.FALSE:
+                bool = false;
+                return Token.BOOLEAN;
+            case CborWriter.TRUE:
+                bool = true;
+                return Token.BOOLEAN;
+            case CborWriter.NULL:
+            case CborWriter.UNDEFINED:
+                return Token.NULL;
+            case CborWriter.FLOAT16:
+                number = (double) halfToFloat((int) argument(info));
+                return Token.NUMBER;
+            case CborWriter.FLOAT32:
+                number = (double) Float.intBitsToFloat((int) argument(info));
+                return Token.NUMBER;
+            case CborWriter.FLOAT64:
+                number = Double.longBitsToDouble(argument(info));
+                return Token.NUMBER;
+            case CborWriter.BREAK:
+                throw syntax("fin de conteneur inattendue");
+            default:
+                throw syntax("valeur simple inconnue: " + (b & 0x1F));
+        }
+    }
+
+    private static float halfToFloat(int half) {
+        int exponent = (half >> 10) & 0x1F;
+        int mantissa = half & 0x3FF;
+        float value;
+        if (exponent == 0) {
+            value = mantissa * 0x1p-24f;
+        } else if (exponent == 31) {
+            value = mantissa == 0 ? Float.POSITIVE_INFINITY : Float.NaN;
+        } else {
+            value = (mantissa + 1024) * (float) Math.pow(2, exponent - 25);
+        }
+        return (half & 0x8000) != 0 ? -value : value;
+    }
+
+    private Token tagged(long tag) throws IOException {
+        while (true) {
+            if (tag == CborWriter.TAG_BIGNUM || tag == CborWriter.TAG_NEGATIVE_BIGNUM) {
+                BigInteger value = bignum(required());
+                number = tag == CborWriter.TAG_BIGNUM ? value : BigInteger.valueOf(-1).subtract(value);
+                return Token.NUMBER;
+            }
+            if (tag == CborWriter.TAG_DECIMAL) {
+                if (required() != (ARRAY | 2)) {
+                    throw syntax("fraction décimale invalide");
+                }
+                BigInteger exponent = integer(required());
+                BigInteger mantissa = integer(required());
+                if (exponent.bitLength() > 31) {
+                    throw syntax("exposant décimal hors limites");
+                }
+                number = new BigDecimal(mantissa, -exponent.intValue());
+                return Token.NUMBER;
+            }
+            // Autres tags (date, URI...): la valeur est lue telle quelle
+            int b = required();
+            if ((b & 0xE0) != TAG) {
+                return item(b);
+            }
+            tag = argument(b & 0x1F);
+        }
+    }
+
+    // Entier de taille quelconque: entier CBOR ou grand entier (tags 2, 3)
+    private BigInteger integer(int b) throws IOException {
+        int major = b & 0xE0;
+        if (major == UNSIGNED || major == NEGATIVE) {
+            item(b);
+        } else if (major == TAG) {
+            long tag = argument(b & 0x1F);
+            if (tag != CborWriter.TAG_BIGNUM && tag != CborWriter.TAG_NEGATIVE_BIGNUM) {
+                throw syntax("entier attendu");
+            }
+            tagged(tag);
+        } else {
+            throw syntax("entier attendu");
+        }
+        return number instanceof Long ? BigInteger.valueOf((Long) number) : (BigInteger) number;
+    }
+
+    private BigInteger bignum(int b) throws IOException {
+        if ((b & 0xE0) != BYTES || (b & 0x1F) == 31) {
+            throw syntax("grand entier invalide");
+        }
+        byte[] magnitude = new byte[length(b & 0x1F)];
+        for (int i = 0; i < magnitude.length; i++) {
+            magnitude[i] = (byte) required();
+        }
+        return new BigInteger(1, magnitude);
+    }
+
+    private void push(int scope, long count) {
+        if (depth == MAX_DEPTH) {
+            throw new RequestBodyException(400, "CBOR trop imbriqué (max " + MAX_DEPTH + ")");
+        }
+        if (depth == scopes.length) {
+            scopes = Arrays.copyOf(scopes, depth * 2);
+            remaining = Arrays.copyOf(remaining, depth * 2);
+        }
+        scopes[depth] = scope;
+        remaining[depth++] = count;
+    }
+
+    private Token consume(Token expected) throws IOException {
+        Token token = peek();
+        if (token != expected) {
+            throw syntax(expected + " attendu, " + token + " trouvé");
+        }
+        peeked = null;
+        return token;
+    }
+
+    @Override
+    public void beginObject() throws IOException {
+        consume(Token.BEGIN_OBJECT);
+    }
+
+    @Override
+    public void endObject() throws IOException {
+        consume(Token.END_OBJECT);
+    }
+
+    @Override
+    public void beginArray() throws IOException {
+        consume(Token.BEGIN_ARRAY);
+    }
+
+    @Override
+    public void endArray() throws IOException {
+        consume(Token.END_ARRAY);
+    }
+
+    @Override
+    public void endDocument() throws IOException {
+        consume(Token.END_DOCUMENT);
+    }
+
+    @Override
+    public boolean hasNext() throws IOException {
+        Token token = peek();
+        return token != Token.END_OBJECT && token != Token.END_ARRAY && token != Token.END_DOCUMENT;
+    }
+
+    @Override
+    public String nextName() throws IOException {
+        consume(Token.NAME);
+        return text.toString();
+    }
+
+    /**
+     * Le texte d'un nombre ou d'un booléen est produit à la demande.
+     */
+    @Override
+    public CharSequence nextText() throws IOException {
+        Token token = peek();
+        if (token == Token.NUMBER) {
+            text.setLength(0);
+            text.append(number);
+        } else if (token == Token.BOOLEAN) {
+            text.setLength(0);
+            text.append(bool);
+        } else if (token != Token.STRING) {
+            throw syntax("valeur simple attendue, " + token + " trouvé");
+        }
+        peeked = null;
+        return text;
+    }
+
+    /**
+     * String, Long, Double, BigInteger, BigDecimal ou Boolean.
+     */
+    @Override
+    public Object nextScalar() throws IOException {
+        Token token = peek();
+        peeked = null;
+        switch (token) {
+            case STRING:
+                return text.toString();
+            case NUMBER:
+                return number;
+            case BOOLEAN:
+                return bool;
+            default:
+                peeked = token;
+                throw syntax("valeur simple attendue, " + token + " trouvé");
+        }
+    }
+
+    @Override
+    public String nextString() throws IOException {
+        return nextText().toString();
+    }
+
+    @Override
+    public boolean nextBoolean() throws IOException {
+        consume(Token.BOOLEAN);
+        return bool;
+    }
+
+    @Override
+    public void nextNull() throws IOException {
+        consume(Token.NULL);
+    }
+
+    @Override
+    public Object readValue() throws IOException {
+        switch (peek()) {
+            case BEGIN_OBJECT: {
+                Map<String, Object> map = new LinkedHashMap<>();
+                beginObject();
+                while (hasNext()) {
+                    String name = nextName();
+                    map.put(name, readValue());
+                }
+                endObject();
+                return map;
+            }
+            case BEGIN_ARRAY: {
+                List<Object> list = new ArrayList<>();
+                beginArray();
+                while (hasNext()) {
+                    list.add(readValue());
+                }
+                endArray();
+                return list;
+            }
+            case STRING:
+            case NUMBER:
+            case BOOLEAN:
+                return nextScalar();
+            case NULL:
+                nextNull();
+                return null;
+            default:
+                throw syntax("valeur attendue, " + peek() + " trouvé");
+        }
+    }
+
+    @Override
+    public void skipValue() throws IOException {
+        int nested = 0;
+        do {
+            Token token = peek();
+            peeked = null;
+            if (token == Token.BEGIN_OBJECT || token == Token.BEGIN_ARRAY) {
+                nested++;
+            } else if (token == Token.END_OBJECT || token == Token.END_ARRAY) {
+                nested--;
+            } else if (token == Token.NAME) {
+                continue; // la valeur de la propriété suit
+            } else if (token == Token.END_DOCUMENT) {
+                throw syntax("fin du corps inattendue");
+            }
+        } while (nested > 0);
+    }
+
+    // --- lecture des octets ---
+
+    private int read() throws IOException {
+        if (position == limit) {
+            consumed += limit;
+            position = 0;
+            limit = 0;
+            int count = in.read(buffer, 0, buffer.length);
+            if (count <= 0) {
+                return -1;
+            }
+            limit = count;
+            if (consumed + limit > maxBytes) {
+                throw new RequestBodyException(413, "Corps de requête trop volumineux (max " + maxBytes + " octets)");
+            }
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    private int required() throws IOException {
+        int b = read();
+        if (b == -1) {
+            throw syntax("fin du corps inattendue");
+        }
+        return b;
+    }
+
+    // Argument suivant l'octet initial: valeur directe (< 24) ou 1, 2, 4, 8 octets
+    private long argument(int info) throws IOException {
+        if (info < 24) {
+            return info;
+        }
+        int size;
+        switch (info) {
+            case 24: size = 1; break;
+            case 25: size = 2; break;
+            case 26: size = 4; break;
+            case 27: size = 8; break;
+            default:
+                throw syntax("longueur invalide");
+        }
+        long value = 0;
+        for (int i = 0; i < size; i++) {
+            value = (value << 8) | required();
+        }
+        return value;
+    }
+
+    // Longueur d'une chaîne ou d'un conteneur; toujours bornée par maxBytes
+    private int length(int info) throws IOException {
+        long length = argument(info);
+        if (length < 0 || length > maxBytes) {
+            throw new RequestBodyException(413, "Corps de requête trop volumineux (max " + maxBytes + " octets)");
+        }
+        return (int) Math.min(length, Integer.MAX_VALUE);
+    }
+
+    // Chaîne UTF-8 décodée dans text; longueur indéfinie: suite de morceaux jusqu'au BREAK
+    private void readText(int info) throws IOException {
+        text.setLength(0);
+        if (info != 31) {
+            appendUtf8(length(info));
+            return;
+        }
+        while (true) {
+            int b = required();
+            if (b == CborWriter.BREAK) {
+                return;
+            }
+            if ((b & 0xE0) != TEXT || (b & 0x1F) == 31) {
+                throw syntax("morceau de chaîne invalide");
+            }
+            appendUtf8(length(b & 0x1F));
+        }
+    }
+
+    private void appendUtf8(int length) throws IOException {
+        int end = length;
+        int i = 0;
+        while (i < end) {
+            // ASCII directement depuis le tampon
+            int available = Math.min(end - i, limit - position);
+            int start = position;
+            while (position - start < available && buffer[position] >= 0) {
+                text.append((char) buffer[position++]);
+            }
+            i += position - start;
+            if (i == end) {
+                return;
+            }
+            int c = required();
+            i++;
+            if (c < 0x80) {
+                text.append((char) c);
+            } else if (c >= 0xC2 && c < 0xE0) {
+                text.append((char) (((c & 0x1F) << 6) | continuation()));
+                i += 1;
+            } else if (c >= 0xE0 && c < 0xF0) {
+                int codePoint = ((c & 0x0F) << 12) | (continuation() << 6) | continuation();
+                if (codePoint < 0x800 || Character.isSurrogate((char) codePoint)) {
+                    throw syntax("UTF-8 invalide");
+                }
+                text.append((char) codePoint);
+                i += 2;
+            } else if (c >= 0xF0 && c < 0xF5) {
+                int codePoint = ((c & 0x07) << 18) | (continuation() << 12) | (continuation() << 6) | continuation();
+                if (codePoint < 0x10000 || codePoint > Character.MAX_CODE_POINT) {
+                    throw syntax("UTF-8 invalide");
+                }
+                text.appendCodePoint(codePoint);
+                i += 3;
+            } else {
+                throw syntax("UTF-8 invalide");
+            }
+            if (i > end) {
+                throw syntax("UTF-8 tronqué");
+            }
+        }
+    }
+
+    private int continuation() throws IOException {
+        int c = required();
+        if ((c & 0xC0) != 0x80) {
+            throw syntax("UTF-8 invalide");
+        }
+        return c & 0x3F;
+    }
+
+    private RequestBodyException syntax(String message) {
+        return new RequestBodyException(400, "CBOR invalide à l'octet " + (consumed + position) + ": " + message);
+    }
+}
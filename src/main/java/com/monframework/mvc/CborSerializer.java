@@ -0,0 +1,35 @@
+package com.monframework.mvc;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Encodage CBOR du même modèle de données que JsonSerializer: mêmes plans
+ * par classe (JsonPlan), mêmes noms de propriétés, dates en texte ISO-8601.
+ * Seule la représentation change (binaire, longueurs en préfixe), si bien
+ * qu'un corps CBOR se lie exactement comme son équivalent JSON.
+ */
+public class CborSerializer {
+
+    /**
+     * CBOR de object, prêt à écrire sur la réponse.
+     */
+    public static byte[] toCbor(Object object) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CborWriter writer = new CborWriter(bytes);
+        try {
+            write(object, writer);
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // impossible sur un ByteArrayOutputStream
+        } finally {
+            writer.release();
+        }
+        return bytes.toByteArray();
+    }
+
+    public static void write(Object object, CborWriter out) throws IOException {
+        BodySerializer.write(object, out);
+    }
+}
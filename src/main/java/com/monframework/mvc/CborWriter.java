@@ -0,0 +1,315 @@
+package com.monframework.mvc;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Écriture CBOR (RFC 8949) dans un tampon réutilisé (voir BodyWriter).
+ *
+ * Entiers sur 1 à 9 octets selon leur valeur, flottants en simple précision
+ * quand la valeur n'y perd rien, chaînes UTF-8 préfixées par leur longueur.
+ */
+public final class CborWriter extends BodyWriter {
+
+    // Types majeurs, dans les 3 bits de poids fort de l'octet initial
+    static final int UNSIGNED = 0;
+    static final int NEGATIVE = 1 << 5;
+    static final int BYTES = 2 << 5;
+    static final int TEXT = 3 << 5;
+    static final int ARRAY = 4 << 5;
+    static final int MAP = 5 << 5;
+    static final int TAG = 6 << 5;
+    static final int SIMPLE = 7 << 5;
+
+    static final int INDEFINITE = 31;
+    static final int FALSE = SIMPLE | 20;
+    static final int TRUE = SIMPLE | 21;
+    static final int NULL = SIMPLE | 22;
+    static final int UNDEFINED = SIMPLE | 23;
+    static final int FLOAT16 = SIMPLE | 25;
+    static final int FLOAT32 = SIMPLE | 26;
+    static final int FLOAT64 = SIMPLE | 27;
+    static final int BREAK = 0xFF;
+
+    // Tags: grands entiers positifs / négatifs, fraction décimale [exposant, mantisse]
+    static final int TAG_BIGNUM = 2;
+    static final int TAG_NEGATIVE_BIGNUM = 3;
+    static final int TAG_DECIMAL = 4;
+
+    private static final BigInteger MIN_LONG = BigInteger.valueOf(Long.MIN_VALUE);
+    private static final BigInteger MAX_LONG = BigInteger.valueOf(Long.MAX_VALUE);
+
+    public CborWriter(OutputStream out) {
+        super(out, "CBOR");
+    }
+
+    /**
+     * Nom de propriété déjà encodé (chaîne CBOR), pour les plans.
+     */
+    static byte[] encodeName(String text) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CborWriter writer = new CborWriter(bytes);
+        try {
+            writer.writeString(text);
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            writer.release();
+        }
+        return bytes.toByteArray();
+    }
+
+    private void writeByte(int b) throws IOException {
+        if (position == buffer.length) {
+            flush();
+        }
+        buffer[position++] = (byte) b;
+    }
+
+    // Octet initial et argument, sur la plus courte forme possible
+    private void header(int major, long value) throws IOException {
+        require(9);
+        if (value >= 0 && value < 24) {
+            buffer[position++] = (byte) (major | value);
+        } else if (value >= 0 && value <= 0xFF) {
+            buffer[position++] = (byte) (major | 24);
+            buffer[position++] = (byte) value;
+        } else if (value >= 0 && value <= 0xFFFF) {
+            buffer[position++] = (byte) (major | 25);
+            buffer[position++] = (byte) (value >> 8);
+            buffer[position++] = (byte) value;
+        } else if (value >= 0 && value <= 0xFFFFFFFFL) {
+            buffer[position++] = (byte) (major | 26);
+            putInt((int) value);
+        } else {
+            // Au-delà: 8 octets, non signés (value < 0 pour les valeurs >= 2^63)
+            buffer[position++] = (byte) (major | 27);
+            putInt((int) (value >>> 32));
+            putInt((int) value);
+        }
+    }
+
+    private void putInt(int value) {
+        buffer[position++] = (byte) (value >> 24);
+        buffer[position++] = (byte) (value >> 16);
+        buffer[position++] = (byte) (value >> 8);
+        buffer[position++] = (byte) value;
+    }
+
+    @Override
+    public void writeNull() throws IOException {
+        writeByte(NULL);
+    }
+
+    @Override
+    public void writeBoolean(boolean value) throws IOException {
+        writeByte(value ? TRUE : FALSE);
+    }
+
+    @Override
+    public void writeLong(long value) throws IOException {
+        if (value >= 0) {
+            header(UNSIGNED, value);
+        } else {
+            header(NEGATIVE, -1 - value);
+        }
+    }
+
+    /**
+     * Simple précision si la conversion est exacte; null pour NaN et les
+     * infinis, comme en JSON.
+     */
+    @Override
+    public void writeDouble(double value) throws IOException {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            writeNull();
+        } else if ((float) value == value) {
+            writeFloat((float) value);
+        } else {
+            require(9);
+            buffer[position++] = (byte) FLOAT64;
+            long bits = Double.doubleToRawLongBits(value);
+            putInt((int) (bits >>> 32));
+            putInt((int) bits);
+        }
+    }
+
+    @Override
+    public void writeFloat(float value) throws IOException {
+        if (Float.isNaN(value) || Float.isInfinite(value)) {
+            writeNull();
+            return;
+        }
+        require(5);
+        buffer[position++] = (byte) FLOAT32;
+        putInt(Float.floatToRawIntBits(value));
+    }
+
+    /**
+     * BigInteger et BigDecimal exacts; les autres (AtomicLong...) par leur valeur.
+     */
+    @Override
+    public void writeNumber(Number value) throws IOException {
+        if (value instanceof BigDecimal) {
+            writeBigDecimal((BigDecimal) value);
+        } else if (value instanceof BigInteger) {
+            writeBigInteger((BigInteger) value);
+        } else if (value.doubleValue() == value.longValue()) {
+            writeLong(value.longValue());
+        } else {
+            writeDouble(value.doubleValue());
+        }
+    }
+
+    /**
+     * Entier de taille quelconque: entier CBOR s'il tient sur 64 bits, grand
+     * entier (tags 2 et 3) sinon.
+     */
+    public void writeBigInteger(BigInteger value) throws IOException {
+        if (value.compareTo(MIN_LONG) >= 0 && value.compareTo(MAX_LONG) <= 0) {
+            writeLong(value.longValue());
+            return;
+        }
+        boolean negative = value.signum() < 0;
+        byte[] magnitude = (negative ? value.negate().subtract(BigInteger.ONE) : value).toByteArray();
+        int start = magnitude[0] == 0 ? 1 : 0; // octet de signe de toByteArray()
+        header(TAG, negative ? TAG_NEGATIVE_BIGNUM : TAG_BIGNUM);
+        header(BYTES, magnitude.length - start);
+        writeRaw(start == 0 ? magnitude : Arrays.copyOfRange(magnitude, start, magnitude.length));
+    }
+
+    /**
+     * Fraction décimale exacte (tag 4): [exposant, mantisse].
+     */
+    public void writeBigDecimal(BigDecimal value) throws IOException {
+        header(TAG, TAG_DECIMAL);
+        header(ARRAY, 2);
+        writeLong(-(long) value.scale());
+        writeBigInteger(value.unscaledValue());
+    }
+
+    /**
+     * Chaîne UTF-8 préfixée par sa longueur en octets. Un surrogate isolé est
+     * écrit '?', comme dans JsonWriter.
+     */
+    @Override
+    public void writeString(CharSequence value) throws IOException {
+        int length = value.length();
+        int bytes = utf8Length(value, length);
+        header(TEXT, bytes);
+        if (bytes == length) {
+            // ASCII: un octet par caractère
+            int offset = 0;
+            while (offset < length) {
+                if (position == buffer.length) {
+                    flush();
+                }
+                int count = Math.min(length - offset, buffer.length - position);
+                for (int i = 0; i < count; i++) {
+                    buffer[position++] = (byte) value.charAt(offset + i);
+                }
+                offset += count;
+            }
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (position + 4 > buffer.length) {
+                flush();
+            }
+            if (c < 0x80) {
+                buffer[position++] = (byte) c;
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                buffer[position++] = '?';
+            } else {
+                buffer[position++] = (byte) (0xE0 | (c >> 12));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    private static int utf8Length(CharSequence value, int length) {
+        int bytes = length;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                if (c < 0x800) {
+                    bytes += 1;
+                } else if (Character.isHighSurrogate(c) && i + 1 < length
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    bytes += 2; // 4 octets pour 2 caractères
+                    i++;
+                } else if (!Character.isSurrogate(c)) {
+                    bytes += 2;
+                }
+            }
+        }
+        return bytes;
+    }
+
+    @Override
+    public void beginArray(int size) throws IOException {
+        header(ARRAY, size);
+    }
+
+    @Override
+    public void endArray() {
+        // taille en préfixe
+    }
+
+    /**
+     * Map de size paires, ou de taille inconnue (size négatif) terminée par BREAK.
+     */
+    @Override
+    public void beginObject(int size) throws IOException {
+        if (size < 0) {
+            writeByte(MAP | INDEFINITE);
+        } else {
+            header(MAP, size);
+        }
+    }
+
+    @Override
+    public void endObject(int size) throws IOException {
+        if (size < 0) {
+            writeByte(BREAK);
+        }
+    }
+
+    @Override
+    public void separator(int index) {
+        // éléments juxtaposés
+    }
+
+    @Override
+    public void writeName(String name) throws IOException {
+        writeString(name);
+    }
+
+    @Override
+    void writeName(Name name) throws IOException {
+        writeRaw(name.cbor);
+    }
+
+    @Override
+    boolean sizesContainers() {
+        return true;
+    }
+}
@@ -0,0 +1,20 @@
+package com.monframework.mvc;
+
+/**
+ * Conversion d'un texte vers un type de paramètre ou de champ.
+ *
+ * Une valeur invalide ne lève pas d'exception: le convertisseur retourne
+ * ConverterRegistry.FAILURE.
+ */
+@FunctionalInterface
+public interface Converter {
+
+    /**
+     * @return la valeur de text[start, end), ou ConverterRegistry.FAILURE
+     */
+    Object convert(CharSequence text, int start, int end);
+
+    default Object convert(CharSequence text) {
+        return convert(text, 0, text.length());
+    }
+}
@@ -0,0 +1,282 @@
+package com.monframework.mvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Convertisseurs texte → type, partagés par ParameterResolver et ObjectBinder.
+ *
+ * Le convertisseur d'un type est choisi une fois, à la construction des plans
+ * (ParameterPlan, BindingPlan). Les entiers, UUID et dates sont lus
+ * directement dans la plage de caractères, sans String intermédiaire.
+ *
+ * Types pris en charge: String, primitifs et leurs wrappers, enums,
+ * BigDecimal, LocalDate (ISO yyyy-MM-dd), UUID, plus ceux ajoutés par
+ * register() (à appeler avant l'enregistrement des routes).
+ */
+public final class ConverterRegistry {
+
+    /**
+     * Résultat d'une conversion impossible (valeur invalide).
+     */
+    public static final Object FAILURE = new Object() {
+        @Override
+        public String toString() {
+            return "FAILURE";
+        }
+    };
+
+    // Retour de parseInteger pour une valeur invalide (Long.MIN_VALUE n'est donc pas accepté)
+    private static final long NOT_A_NUMBER = Long.MIN_VALUE;
+
+    private static final Map<Class<?>, Converter> CUSTOM = new ConcurrentHashMap<>();
+
+    private static final ClassValue<Converter> BUILT_IN = new ClassValue<Converter>() {
+        @Override
+        protected Converter computeValue(Class<?> type) {
+            return builtIn(type);
+        }
+    };
+
+    private ConverterRegistry() {}
+
+    public static void register(Class<?> type, Converter converter) {
+        CUSTOM.put(type, converter);
+    }
+
+    /**
+     * @return le convertisseur du type, null si le type n'est pas convertible
+     */
+    public static Converter forType(Class<?> type) {
+        if (!CUSTOM.isEmpty()) {
+            Converter custom = CUSTOM.get(type);
+            if (custom != null) {
+                return custom;
+            }
+        }
+        return BUILT_IN.get(type);
+    }
+
+    public static boolean supports(Class<?> type) {
+        return forType(type) != null;
+    }
+
+    private static Converter builtIn(Class<?> type) {
+        if (type == String.class || type == CharSequence.class) {
+            return (text, start, end) -> text.subSequence(start, end).toString();
+        } else if (type == int.class || type == Integer.class) {
+            return (text, start, end) -> {
+                long value = parseInteger(text, start, end, Integer.MIN_VALUE, Integer.MAX_VALUE);
+                return value == NOT_A_NUMBER ? FAILURE : (Object) (int) value;
+            };
+        } else if (type == long.class || type == Long.class) {
+            return (text, start, end) -> {
+                long value = parseInteger(text, start, end, Long.MIN_VALUE + 1, Long.MAX_VALUE);
+                return value == NOT_A_NUMBER ? FAILURE : (Object) value;
+            };
+        } else if (type == short.class || type == Short.class) {
+            return (text, start, end) -> {
+                long value = parseInteger(text, start, end, Short.MIN_VALUE, Short.MAX_VALUE);
+                return value == NOT_A_NUMBER ? FAILURE : (Object) (short) value;
+            };
+        } else if (type == byte.class || type == Byte.class) {
+            return (text, start, end) -> {
+                long value = parseInteger(text, start, end, Byte.MIN_VALUE, Byte.MAX_VALUE);
+                return value == NOT_A_NUMBER ? FAILURE : (Object) (byte) value;
+            };
+        } else if (type == double.class || type == Double.class) {
+            return (text, start, end) -> start == end ? (Object) 0.0
+                    : isDecimal(text, start, end) ? (Object) Double.parseDouble(text.subSequence(start, end).toString()) : FAILURE;
+        } else if (type == float.class || type == Float.class) {
+            return (text, start, end) -> start == end ? (Object) 0.0f
+                    : isDecimal(text, start, end) ? (Object) Float.parseFloat(text.subSequence(start, end).toString()) : FAILURE;
+        } else if (type == boolean.class || type == Boolean.class) {
+            return (text, start, end) -> end - start == 4 && regionEqualsIgnoreCase(text, start, "true");
+        } else if (type == char.class || type == Character.class) {
+            return (text, start, end) -> end - start == 1 ? (Object) text.charAt(start) : FAILURE;
+        } else if (type == BigDecimal.class) {
+            return (text, start, end) -> start < end && isDecimal(text, start, end)
+                    ? new BigDecimal(text.subSequence(start, end).toString()) : FAILURE;
+        } else if (type == UUID.class) {
+            return ConverterRegistry::parseUuid;
+        } else if (type == LocalDate.class) {
+            return ConverterRegistry::parseLocalDate;
+        } else if (type.isEnum()) {
+            return enumConverter(type.getEnumConstants());
+        }
+        return null;
+    }
+
+    // Vide → 0 (comportement historique des formulaires); NOT_A_NUMBER si invalide ou hors [min, max]
+    private static long parseInteger(CharSequence text, int start, int end, long min, long max) {
+        if (start == end) {
+            return 0;
+        }
+        int i = start;
+        boolean negative = false;
+        char first = text.charAt(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            if (++i == end) {
+                return NOT_A_NUMBER;
+            }
+        }
+        // Accumulation en négatif pour couvrir MIN_VALUE sans dépassement
+        long limit = negative ? min : -max;
+        long multmin = limit / 10;
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || value < multmin) {
+                return NOT_A_NUMBER;
+            }
+            value *= 10;
+            if (value < limit + digit) {
+                return NOT_A_NUMBER;
+            }
+            value -= digit;
+        }
+        return negative ? value : -value;
+    }
+
+    // [+-]chiffres[.chiffres][(e|E)[+-]chiffres], au moins un chiffre avant l'exposant
+    private static boolean isDecimal(CharSequence text, int start, int end) {
+        int i = start;
+        if (text.charAt(i) == '-' || text.charAt(i) == '+') {
+            i++;
+        }
+        int digits = 0;
+        while (i < end && isDigit(text.charAt(i))) {
+            i++;
+            digits++;
+        }
+        if (i < end && text.charAt(i) == '.') {
+            i++;
+            while (i < end && isDigit(text.charAt(i))) {
+                i++;
+                digits++;
+            }
+        }
+        if (digits == 0) {
+            return false;
+        }
+        if (i < end && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+            i++;
+            if (i < end && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+                i++;
+            }
+            int exponentDigits = 0;
+            while (i < end && isDigit(text.charAt(i))) {
+                i++;
+                exponentDigits++;
+            }
+            if (exponentDigits == 0 || exponentDigits > 9) {
+                return false;
+            }
+        }
+        return i == end;
+    }
+
+    private static Object parseUuid(CharSequence text, int start, int end) {
+        if (end - start != 36) {
+            return FAILURE;
+        }
+        long most = 0;
+        long least = 0;
+        for (int i = 0; i < 36; i++) {
+            char c = text.charAt(start + i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return FAILURE;
+                }
+                continue;
+            }
+            int digit = Character.digit(c, 16);
+            if (digit < 0) {
+                return FAILURE;
+            }
+            if (i < 18) {
+                most = (most << 4) | digit;
+            } else {
+                least = (least << 4) | digit;
+            }
+        }
+        return new UUID(most, least);
+    }
+
+    // yyyy-MM-dd
+    private static Object parseLocalDate(CharSequence text, int start, int end) {
+        if (end - start != 10 || text.charAt(start + 4) != '-' || text.charAt(start + 7) != '-') {
+            return FAILURE;
+        }
+        int year = digits(text, start, start + 4);
+        int month = digits(text, start + 5, start + 7);
+        int day = digits(text, start + 8, start + 10);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > YearMonth.of(year, month).lengthOfMonth()) {
+            return FAILURE;
+        }
+        return LocalDate.of(year, month, day);
+    }
+
+    private static int digits(CharSequence text, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    // Nom exact, puis sans tenir compte de la casse
+    private static Converter enumConverter(Object[] constants) {
+        String[] names = new String[constants.length];
+        for (int i = 0; i < constants.length; i++) {
+            names[i] = ((Enum<?>) constants[i]).name();
+        }
+        return (text, start, end) -> {
+            int length = end - start;
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].length() == length && regionEquals(text, start, names[i])) {
+                    return constants[i];
+                }
+            }
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].length() == length && regionEqualsIgnoreCase(text, start, names[i])) {
+                    return constants[i];
+                }
+            }
+            return FAILURE;
+        };
+    }
+
+    private static boolean regionEquals(CharSequence text, int start, String expected) {
+        for (int i = 0; i < expected.length(); i++) {
+            if (text.charAt(start + i) != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean regionEqualsIgnoreCase(CharSequence text, int start, String expected) {
+        for (int i = 0; i < expected.length(); i++) {
+            char a = text.charAt(start + i);
+            char b = expected.charAt(i);
+            if (a != b && Character.toLowerCase(a) != Character.toLowerCase(b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
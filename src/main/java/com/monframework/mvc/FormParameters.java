@@ -0,0 +1,171 @@
+package com.monframework.mvc;
+
+import java.net.URLDecoder;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Paramètres d'une query string et/ou d'un corps application/x-www-form-urlencoded.
+ *
+ * Le découpage en paires clé=valeur se fait en une passe, sans décodage. Une
+ * clé n'est décodée que si elle contient '%' ou '+', et seulement quand elle
+ * est comparée; une valeur n'est décodée que lorsqu'elle est lue.
+ */
+public final class FormParameters {
+
+    private final String source;
+    private final Charset charset;
+    private final int[] pairs; // début, '=' (ou fin), fin de chaque paire
+    private final int pairCount;
+    private Map<String, String[]> all;
+
+    private FormParameters(String source, Charset charset, int maxPairs) {
+        this.source = source;
+        this.charset = charset;
+        int[] bounds = new int[24];
+        int count = 0;
+        int start = 0;
+        int length = source.length();
+        while (start <= length) {
+            int end = source.indexOf('&', start);
+            if (end < 0) {
+                end = length;
+            }
+            if (end > start) {
+                // '=' cherché dans la paire seulement: le découpage reste linéaire
+                int eq = start;
+                while (eq < end && source.charAt(eq) != '=') {
+                    eq++;
+                }
+                if (eq > start) {
+                    if (count == maxPairs) {
+                        throw new RequestBodyException(413, "Trop de paramètres (max " + maxPairs + ")");
+                    }
+                    if ((count + 1) * 3 > bounds.length) {
+                        bounds = Arrays.copyOf(bounds, bounds.length * 2);
+                    }
+                    bounds[count * 3] = start;
+                    bounds[count * 3 + 1] = eq;
+                    bounds[count * 3 + 2] = end;
+                    count++;
+                }
+            }
+            start = end + 1;
+        }
+        this.pairs = bounds;
+        this.pairCount = count;
+    }
+
+    /**
+     * @param query query string brute (sans '?'), peut être null
+     * @param body corps urlencodé déjà lu, peut être null
+     */
+    public static FormParameters parse(String query, String body, Charset charset) {
+        return parse(query, body, charset, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param maxPairs nombre maximal de paires
+     * @throws RequestBodyException 413 au-delà de maxPairs
+     */
+    public static FormParameters parse(String query, String body, Charset charset, int maxPairs) {
+        String source;
+        if (query == null || query.isEmpty()) {
+            source = body == null ? "" : body;
+        } else if (body == null || body.isEmpty()) {
+            source = query;
+        } else {
+            source = query + "&" + body;
+        }
+        return new FormParameters(source, charset, maxPairs);
+    }
+
+    public String getFirst(String name) {
+        for (int i = 0; i < pairCount; i++) {
+            if (keyEquals(i, name)) {
+                return value(i);
+            }
+        }
+        return null;
+    }
+
+    public String[] getValues(String name) {
+        List<String> values = null;
+        for (int i = 0; i < pairCount; i++) {
+            if (keyEquals(i, name)) {
+                if (values == null) {
+                    values = new ArrayList<>(2);
+                }
+                values.add(value(i));
+            }
+        }
+        return values == null ? null : values.toArray(new String[0]);
+    }
+
+    /**
+     * Tous les paramètres décodés (construit au premier appel).
+     */
+    public Map<String, String[]> asMap() {
+        if (all == null) {
+            Map<String, List<String>> grouped = new LinkedHashMap<>();
+            for (int i = 0; i < pairCount; i++) {
+                grouped.computeIfAbsent(key(i), k -> new ArrayList<>(1)).add(value(i));
+            }
+            Map<String, String[]> map = new LinkedHashMap<>();
+            grouped.forEach((key, values) -> map.put(key, values.toArray(new String[0])));
+            all = Collections.unmodifiableMap(map);
+        }
+        return all;
+    }
+
+    public int size() {
+        return pairCount;
+    }
+
+    private boolean keyEquals(int pair, String name) {
+        int start = pairs[pair * 3];
+        int eq = pairs[pair * 3 + 1];
+        if (needsDecoding(start, eq)) {
+            return key(pair).equals(name);
+        }
+        return eq - start == name.length() && source.regionMatches(start, name, 0, name.length());
+    }
+
+    private String key(int pair) {
+        return decode(pairs[pair * 3], pairs[pair * 3 + 1]);
+    }
+
+    private String value(int pair) {
+        int eq = pairs[pair * 3 + 1];
+        int end = pairs[pair * 3 + 2];
+        return eq >= end ? "" : decode(eq + 1, end);
+    }
+
+    private boolean needsDecoding(int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = source.charAt(i);
+            if (c == '%' || c == '+') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String decode(int start, int end) {
+        String raw = source.substring(start, end);
+        if (!needsDecoding(start, end)) {
+            return raw;
+        }
+        try {
+            return URLDecoder.decode(raw, charset);
+        } catch (IllegalArgumentException e) {
+            // Séquence % invalide: valeur gardée telle quelle
+            return raw;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.monframework.mvc;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Requête dont les paramètres sont lus par FormParameters au lieu du parseur
+ * du conteneur (init-param "direct-form-parsing"): rien n'est décodé tant
+ * qu'aucun paramètre n'est demandé, puis seules les clés lues le sont.
+ *
+ * Le corps urlencodé est lu au premier accès à un paramètre; ne pas lire
+ * getInputStream() soi-même avant. Si un filtre a déjà appelé getParameter()
+ * sur la requête d'origine, le conteneur a consommé le corps: seuls les
+ * paramètres de la query string restent alors visibles.
+ *
+ * Les limites du conteneur (maxPostSize, maxParameterCount) ne s'appliquent
+ * plus: le corps est borné par "request-body-max-size" (413 au-delà) et le
+ * nombre de paramètres par "form-max-parameters".
+ */
+public class FormRequestWrapper extends HttpServletRequestWrapper {
+
+    private static volatile int maxParameterCount = 10_000;
+
+    private FormParameters parameters;
+
+    public FormRequestWrapper(HttpServletRequest request) {
+        super(request);
+    }
+
+    public static void setMaxParameterCount(int count) {
+        maxParameterCount = count;
+    }
+
+    /**
+     * true si la requête peut être lue par FormParameters (pas de multipart).
+     */
+    public static boolean supports(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return contentType == null || contentType.toLowerCase(Locale.ROOT).startsWith("application/x-www-form-urlencoded");
+    }
+
+    private FormParameters parameters() {
+        if (parameters == null) {
+            Charset charset = charset();
+            String body = null;
+            String contentType = getContentType();
+            if (contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith("application/x-www-form-urlencoded")) {
+                body = readBody(charset);
+            }
+            parameters = FormParameters.parse(getQueryString(), body, charset, maxParameterCount);
+        }
+        return parameters;
+    }
+
+    // Content-Length annoncé puis octets réellement lus, bornés par request-body-max-size
+    private String readBody(Charset charset) {
+        long limit = Math.min(ParameterResolver.getMaxRequestBodySize(), Integer.MAX_VALUE - 8);
+        if (getContentLengthLong() > limit) {
+            throw new RequestBodyException(413, "Formulaire trop volumineux (max " + limit + " octets)");
+        }
+        try (InputStream in = getInputStream()) {
+            byte[] bytes = in.readNBytes((int) limit + 1);
+            if (bytes.length > limit) {
+                throw new RequestBodyException(413, "Formulaire trop volumineux (max " + limit + " octets)");
+            }
+            return new String(bytes, charset);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Lecture du formulaire impossible", e);
+        }
+    }
+
+    private Charset charset() {
+        String encoding = getCharacterEncoding();
+        if (encoding != null) {
+            try {
+                return Charset.forName(encoding);
+            } catch (IllegalArgumentException e) {
+                // Encodage inconnu: UTF-8
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    @Override
+    public String getParameter(String name) {
+        return parameters().getFirst(name);
+    }
+
+    @Override
+    public String[] getParameterValues(String name) {
+        return parameters().getValues(name);
+    }
+
+    @Override
+    public Map<String, String[]> getParameterMap() {
+        return parameters().asMap();
+    }
+
+    @Override
+    public Enumeration<String> getParameterNames() {
+        return Collections.enumeration(parameters().asMap().keySet());
+    }
+}
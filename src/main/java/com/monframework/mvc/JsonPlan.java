@@ -0,0 +1,353 @@
+package com.monframework.mvc;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalAmount;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Plan de sérialisation JSON d'une classe, construit une seule fois par
+ * classe (ClassValue).
+ *
+ * Le plan fixe la forme JSON du type (chaîne, nombre, date, conteneur ou
+ * objet). Pour un objet, il contient un getter par propriété (MethodHandle
+ * typé, sans boxing pour les primitifs) et son nom, déjà encodé dans chaque
+ * format. Ordre: champs de la hiérarchie dans l'ordre de déclaration, puis
+ * les autres getters par nom; composants pour un record.
+ *
+ * Le même plan sert à tous les formats (BodySerializer).
+ */
+final class JsonPlan {
+
+    private static final ClassValue<JsonPlan> PLANS = new ClassValue<JsonPlan>() {
+        @Override
+        protected JsonPlan computeValue(Class<?> type) {
+            return new JsonPlan(type);
+        }
+    };
+
+    enum Kind {
+        STRING, INTEGER, DOUBLE, FLOAT, NUMBER, BOOLEAN, TEXT, ENUM, DATE, TEMPORAL,
+        MAP, COLLECTION, PRIMITIVE_ARRAY, ARRAY, JSON_RESPONSE, BEAN
+    }
+
+    final Kind kind;
+    private final DateTimeFormatter formatter; // TEMPORAL, null: toString() (déjà ISO-8601)
+    private final Property[] properties; // BEAN
+
+    static JsonPlan of(Class<?> type) {
+        return PLANS.get(type);
+    }
+
+    private JsonPlan(Class<?> type) {
+        this.formatter = formatter(type);
+        this.kind = kind(type);
+        this.properties = kind == Kind.BEAN ? properties(type) : null;
+    }
+
+    private static Kind kind(Class<?> type) {
+        if (type == String.class) {
+            return Kind.STRING;
+        } else if (type == Integer.class || type == Long.class || type == Short.class || type == Byte.class) {
+            return Kind.INTEGER;
+        } else if (type == Double.class) {
+            return Kind.DOUBLE;
+        } else if (type == Float.class) {
+            return Kind.FLOAT;
+        } else if (Number.class.isAssignableFrom(type)) {
+            return Kind.NUMBER;
+        } else if (type == Boolean.class) {
+            return Kind.BOOLEAN;
+        } else if (type.isEnum() || (type.getSuperclass() != null && type.getSuperclass().isEnum())) {
+            return Kind.ENUM;
+        } else if (Date.class.isAssignableFrom(type)) {
+            // java.sql.Date et Time n'ont pas d'Instant; leur toString() est ISO-8601
+            String name = type.getName();
+            return name.equals("java.sql.Date") || name.equals("java.sql.Time") ? Kind.TEXT : Kind.DATE;
+        } else if (TemporalAccessor.class.isAssignableFrom(type) || TemporalAmount.class.isAssignableFrom(type)) {
+            return Kind.TEMPORAL;
+        } else if (CharSequence.class.isAssignableFrom(type) || type == Character.class) {
+            return Kind.TEXT;
+        } else if (Map.class.isAssignableFrom(type)) {
+            return Kind.MAP;
+        } else if (Collection.class.isAssignableFrom(type)) {
+            return Kind.COLLECTION;
+        } else if (type.isArray()) {
+            return type.getComponentType().isPrimitive() ? Kind.PRIMITIVE_ARRAY : Kind.ARRAY;
+        } else if (type == JsonResponse.class) {
+            return Kind.JSON_RESPONSE;
+        }
+        return Kind.BEAN;
+    }
+
+    private static DateTimeFormatter formatter(Class<?> type) {
+        if (type == Instant.class) {
+            return DateTimeFormatter.ISO_INSTANT;
+        } else if (type == LocalDate.class) {
+            return DateTimeFormatter.ISO_LOCAL_DATE;
+        } else if (type == LocalDateTime.class) {
+            return DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+        } else if (type == LocalTime.class) {
+            return DateTimeFormatter.ISO_LOCAL_TIME;
+        } else if (type == OffsetDateTime.class || type == ZonedDateTime.class) {
+            return DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+        } else if (type == OffsetTime.class) {
+            return DateTimeFormatter.ISO_OFFSET_TIME;
+        }
+        return null;
+    }
+
+    String format(Object temporal) {
+        return formatter != null ? formatter.format((TemporalAccessor) temporal) : temporal.toString();
+    }
+
+    static String format(Date date) {
+        return DateTimeFormatter.ISO_INSTANT.format(date.toInstant());
+    }
+
+    // Objet de taille inconnue: un getter qui lève une exception est omis
+    void writeBean(Object bean, BodyWriter out) throws IOException {
+        out.beginObject(-1);
+        int written = 0;
+        for (Property property : properties) {
+            if (property.write(bean, out, written)) {
+                written++;
+            }
+        }
+        out.endObject(-1);
+    }
+
+    private static Property[] properties(Class<?> type) {
+        MethodHandles.Lookup lookup = BindingPlan.lookupFor(type);
+        List<Property> props = new ArrayList<>();
+        if (type.isRecord()) {
+            for (RecordComponent component : type.getRecordComponents()) {
+                addProperty(props, lookup, component.getName(), component.getAccessor());
+            }
+            return props.toArray(new Property[0]);
+        }
+
+        // Getters publics, hérités compris
+        Map<String, Method> getters = new TreeMap<>();
+        for (Method method : type.getMethods()) {
+            String name = propertyName(method);
+            if (name != null) {
+                getters.putIfAbsent(name, method);
+            }
+        }
+
+        // Ordre des champs de la hiérarchie (classe mère d'abord), puis le reste par nom
+        Map<String, Method> ordered = new LinkedHashMap<>();
+        List<Class<?>> hierarchy = new ArrayList<>();
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            hierarchy.add(0, c);
+        }
+        for (Class<?> c : hierarchy) {
+            for (Field field : c.getDeclaredFields()) {
+                Method getter = getters.get(field.getName());
+                if (getter != null && !Modifier.isStatic(field.getModifiers())) {
+                    ordered.putIfAbsent(field.getName(), getter);
+                }
+            }
+        }
+        for (Map.Entry<String, Method> entry : getters.entrySet()) {
+            ordered.putIfAbsent(entry.getKey(), entry.getValue());
+        }
+        for (Map.Entry<String, Method> entry : ordered.entrySet()) {
+            addProperty(props, lookup, entry.getKey(), entry.getValue());
+        }
+        return props.toArray(new Property[0]);
+    }
+
+    // getXxx() / isXxx() sans paramètre -> "xxx"
+    private static String propertyName(Method method) {
+        if (Modifier.isStatic(method.getModifiers()) || method.isBridge() || method.isSynthetic()
+                || method.getParameterCount() != 0 || method.getReturnType() == void.class) {
+            return null;
+        }
+        String name = method.getName();
+        String property;
+        if (name.startsWith("get") && !name.equals("getClass")) {
+            property = name.substring(3);
+        } else if (name.startsWith("is")) {
+            property = name.substring(2);
+        } else {
+            return null;
+        }
+        if (property.isEmpty()) {
+            return null;
+        }
+        return Character.toLowerCase(property.charAt(0)) + property.substring(1);
+    }
+
+    // Getter inaccessible (classe d'un module fermé): propriété ignorée
+    private static void addProperty(List<Property> props, MethodHandles.Lookup lookup, String name, Method getter) {
+        try {
+            getter.trySetAccessible();
+            props.add(new Property(name, lookup.unreflect(getter)));
+        } catch (IllegalAccessException | RuntimeException e) {
+            // ignorée
+        }
+    }
+
+    enum ValueKind { INT, LONG, DOUBLE, FLOAT, BOOLEAN, STRING, OBJECT }
+
+    private static final class Property {
+        final BodyWriter.Name name;
+        final ValueKind kind;
+        final MethodHandle getter; // (Object) -> type de kind
+
+        Property(String name, MethodHandle handle) {
+            this.name = new BodyWriter.Name(name);
+            Class<?> type = handle.type().returnType();
+            if (type == int.class || type == short.class || type == byte.class) {
+                kind = ValueKind.INT;
+                getter = handle.asType(MethodType.methodType(int.class, Object.class));
+            } else if (type == long.class) {
+                kind = ValueKind.LONG;
+                getter = handle.asType(MethodType.methodType(long.class, Object.class));
+            } else if (type == double.class) {
+                kind = ValueKind.DOUBLE;
+                getter = handle.asType(MethodType.methodType(double.class, Object.class));
+            } else if (type == float.class) {
+                kind = ValueKind.FLOAT;
+                getter = handle.asType(MethodType.methodType(float.class, Object.class));
+            } else if (type == boolean.class) {
+                kind = ValueKind.BOOLEAN;
+                getter = handle.asType(MethodType.methodType(boolean.class, Object.class));
+            } else if (type == String.class) {
+                kind = ValueKind.STRING;
+                getter = handle.asType(MethodType.methodType(String.class, Object.class));
+            } else {
+                kind = ValueKind.OBJECT;
+                getter = handle.asType(MethodType.methodType(Object.class, Object.class));
+            }
+        }
+
+        /**
+         * Écrit la propriété (nom puis valeur) au rang index de l'objet; un
+         * getter qui lève une exception est omis.
+         *
+         * @return true si la propriété a été écrite
+         */
+        boolean write(Object bean, BodyWriter out, int index) throws IOException {
+            switch (kind) {
+                case INT: {
+                    int value;
+                    try {
+                        value = (int) getter.invokeExact(bean);
+                    } catch (Throwable e) {
+                        return skipped(e);
+                    }
+                    writeName(out, index);
+                    out.writeLong(value);
+                    return true;
+                }
+                case LONG: {
+                    long value;
+                    try {
+                        value = (long) getter.invokeExact(bean);
+                    } catch (Throwable e) {
+                        return skipped(e);
+                    }
+                    writeName(out, index);
+                    out.writeLong(value);
+                    return true;
+                }
+                case DOUBLE: {
+                    double value;
+                    try {
+                        value = (double) getter.invokeExact(bean);
+                    } catch (Throwable e) {
+                        return skipped(e);
+                    }
+                    writeName(out, index);
+                    out.writeDouble(value);
+                    return true;
+                }
+                case FLOAT: {
+                    float value;
+                    try {
+                        value = (float) getter.invokeExact(bean);
+                    } catch (Throwable e) {
+                        return skipped(e);
+                    }
+                    writeName(out, index);
+                    out.writeFloat(value);
+                    return true;
+                }
+                case BOOLEAN: {
+                    boolean value;
+                    try {
+                        value = (boolean) getter.invokeExact(bean);
+                    } catch (Throwable e) {
+                        return skipped(e);
+                    }
+                    writeName(out, index);
+                    out.writeBoolean(value);
+                    return true;
+                }
+                case STRING: {
+                    String value;
+                    try {
+                        value = (String) getter.invokeExact(bean);
+                    } catch (Throwable e) {
+                        return skipped(e);
+                    }
+                    writeName(out, index);
+                    if (value == null) {
+                        out.writeNull();
+                    } else {
+                        out.writeString(value);
+                    }
+                    return true;
+                }
+                default: {
+                    Object value;
+                    try {
+                        value = (Object) getter.invokeExact(bean);
+                    } catch (Throwable e) {
+                        return skipped(e);
+                    }
+                    writeName(out, index);
+                    BodySerializer.write(value, out);
+                    return true;
+                }
+            }
+        }
+
+        // Exception du getter: propriété omise; les Error sont propagées
+        private static boolean skipped(Throwable e) {
+            if (e instanceof Error) {
+                throw (Error) e;
+            }
+            return false;
+        }
+
+        private void writeName(BodyWriter out, int index) throws IOException {
+            out.separator(index);
+            out.writeName(name);
+        }
+    }
+}
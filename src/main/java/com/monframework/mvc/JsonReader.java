@@ -0,0 +1,480 @@
+package com.monframework.mvc;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lecture JSON incrémentale (pull parser) depuis un flux UTF-8.
+ *
+ * Le flux est lu par blocs dans un tampon du pool de BodyWriter: le corps
+ * n'est jamais chargé en entier. Au-delà de maxBytes octets lus, une
+ * RequestBodyException 413 est levée; une syntaxe invalide donne 400.
+ * Le texte du dernier nom ou de la dernière valeur est gardé dans un
+ * StringBuilder réutilisé (nextText()). release() doit être appelé dans un
+ * finally.
+ */
+public final class JsonReader implements ValueReader {
+
+    private static final int MAX_DEPTH = BodyWriter.MAX_DEPTH;
+
+    // Contextes de la pile
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_OBJECT = 2;
+    private static final int DANGLING_NAME = 3;
+    private static final int NONEMPTY_OBJECT = 4;
+    private static final int EMPTY_ARRAY = 5;
+    private static final int NONEMPTY_ARRAY = 6;
+
+    private final InputStream in;
+    private final long maxBytes;
+    private byte[] buffer;
+    private int position;
+    private int limit;
+    private long consumed; // octets lus avant le tampon courant
+    private int pushedBack = -1;
+
+    private int[] stack = new int[16];
+    private int depth = 1;
+    private Token peeked;
+    private final StringBuilder text = new StringBuilder(64);
+
+    public JsonReader(InputStream in, long maxBytes) {
+        this.in = in;
+        this.maxBytes = maxBytes;
+        this.buffer = BodyWriter.acquireBuffer();
+        stack[0] = EMPTY_DOCUMENT;
+    }
+
+    @Override
+    public void release() {
+        if (buffer != null) {
+            BodyWriter.releaseBuffer(buffer);
+            buffer = null;
+        }
+    }
+
+    @Override
+    public long bytesRead() {
+        return consumed + limit;
+    }
+
+    @Override
+    public Token peek() throws IOException {
+        if (peeked != null) {
+            return peeked;
+        }
+        int scope = stack[depth - 1];
+        int c;
+        switch (scope) {
+            case EMPTY_DOCUMENT:
+                stack[depth - 1] = NONEMPTY_DOCUMENT;
+                return peeked = value(nextNonWhitespace());
+            case NONEMPTY_DOCUMENT:
+                c = nextNonWhitespace();
+                if (c != -1) {
+                    throw syntax("donnée après la fin du document");
+                }
+                return peeked = Token.END_DOCUMENT;
+            case EMPTY_ARRAY:
+                c = nextNonWhitespace();
+                if (c == ']') {
+                    depth--;
+                    return peeked = Token.END_ARRAY;
+                }
+                stack[depth - 1] = NONEMPTY_ARRAY;
+                return peeked = value(c);
+            case NONEMPTY_ARRAY:
+                c = nextNonWhitespace();
+                if (c == ']') {
+                    depth--;
+                    return peeked = Token.END_ARRAY;
+                }
+                if (c != ',') {
+                    throw syntax("',' ou ']' attendu");
+                }
+                return peeked = value(nextNonWhitespace());
+            case EMPTY_OBJECT:
+            case NONEMPTY_OBJECT:
+                c = nextNonWhitespace();
+                if (c == '}') {
+                    depth--;
+                    return peeked = Token.END_OBJECT;
+                }
+                if (scope == NONEMPTY_OBJECT) {
+                    if (c != ',') {
+                        throw syntax("',' ou '}' attendu");
+                    }
+                    c = nextNonWhitespace();
+                }
+                if (c != '"') {
+                    throw syntax("nom de propriété attendu");
+                }
+                readString();
+                stack[depth - 1] = DANGLING_NAME;
+                return peeked = Token.NAME;
+            case DANGLING_NAME:
+                if (nextNonWhitespace() != ':') {
+                    throw syntax("':' attendu");
+                }
+                stack[depth - 1] = NONEMPTY_OBJECT;
+                return peeked = value(nextNonWhitespace());
+            default:
+                throw new IllegalStateException("Contexte JSON inconnu: " + scope);
+        }
+    }
+
+    private Token value(int c) throws IOException {
+        switch (c) {
+            case '{':
+                push(EMPTY_OBJECT);
+                return Token.BEGIN_OBJECT;
+            case '[':
+                push(EMPTY_ARRAY);
+                return Token.BEGIN_ARRAY;
+            case '"':
+                readString();
+                return Token.STRING;
+            case 't':
+                literal("rue");
+                text.setLength(0);
+                text.append("true");
+                return Token.BOOLEAN;
+            case 'f':
+                literal("alse");
+                text.setLength(0);
+                text.append("false");
+                return Token.BOOLEAN;
+            case 'n':
+                literal("ull");
+                return Token.NULL;
+            case -1:
+                if (depth == 1) {
+                    return Token.END_DOCUMENT; // corps vide
+                }
+                throw syntax("fin du corps inattendue");
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    readNumber(c);
+                    return Token.NUMBER;
+                }
+                throw syntax("valeur attendue");
+        }
+    }
+
+    private void push(int scope) {
+        if (depth == MAX_DEPTH) {
+            throw new RequestBodyException(400, "JSON trop imbriqué (max " + MAX_DEPTH + ")");
+        }
+        if (depth == stack.length) {
+            stack = Arrays.copyOf(stack, depth * 2);
+        }
+        stack[depth++] = scope;
+    }
+
+    private Token consume(Token expected) throws IOException {
+        Token token = peek();
+        if (token != expected) {
+            throw syntax(expected + " attendu, " + token + " trouvé");
+        }
+        peeked = null;
+        return token;
+    }
+
+    @Override
+    public void beginObject() throws IOException {
+        consume(Token.BEGIN_OBJECT);
+    }
+
+    @Override
+    public void endObject() throws IOException {
+        consume(Token.END_OBJECT);
+    }
+
+    @Override
+    public void beginArray() throws IOException {
+        consume(Token.BEGIN_ARRAY);
+    }
+
+    @Override
+    public void endArray() throws IOException {
+        consume(Token.END_ARRAY);
+    }
+
+    @Override
+    public void endDocument() throws IOException {
+        consume(Token.END_DOCUMENT);
+    }
+
+    @Override
+    public boolean hasNext() throws IOException {
+        Token token = peek();
+        return token != Token.END_OBJECT && token != Token.END_ARRAY && token != Token.END_DOCUMENT;
+    }
+
+    @Override
+    public String nextName() throws IOException {
+        consume(Token.NAME);
+        return text.toString();
+    }
+
+    @Override
+    public CharSequence nextText() throws IOException {
+        Token token = peek();
+        if (token != Token.STRING && token != Token.NUMBER && token != Token.BOOLEAN) {
+            throw syntax("valeur simple attendue, " + token + " trouvé");
+        }
+        peeked = null;
+        return text;
+    }
+
+    @Override
+    public String nextString() throws IOException {
+        return nextText().toString();
+    }
+
+    @Override
+    public boolean nextBoolean() throws IOException {
+        consume(Token.BOOLEAN);
+        return text.charAt(0) == 't';
+    }
+
+    @Override
+    public void nextNull() throws IOException {
+        consume(Token.NULL);
+    }
+
+    /**
+     * Nombres: Long, ou BigDecimal s'ils ont une partie décimale ou un
+     * exposant (ou plus de 18 chiffres).
+     */
+    @Override
+    public Object readValue() throws IOException {
+        switch (peek()) {
+            case BEGIN_OBJECT: {
+                Map<String, Object> map = new LinkedHashMap<>();
+                beginObject();
+                while (hasNext()) {
+                    String name = nextName();
+                    map.put(name, readValue());
+                }
+                endObject();
+                return map;
+            }
+            case BEGIN_ARRAY: {
+                List<Object> list = new ArrayList<>();
+                beginArray();
+                while (hasNext()) {
+                    list.add(readValue());
+                }
+                endArray();
+                return list;
+            }
+            case STRING:
+                return nextString();
+            case NUMBER:
+                return number(nextString());
+            case BOOLEAN:
+                return nextBoolean();
+            case NULL:
+                nextNull();
+                return null;
+            default:
+                throw syntax("valeur attendue, " + peek() + " trouvé");
+        }
+    }
+
+    private static Object number(String value) {
+        boolean integral = value.indexOf('.') < 0 && value.indexOf('e') < 0 && value.indexOf('E') < 0;
+        if (integral && value.length() < 19) {
+            return Long.parseLong(value);
+        }
+        return new BigDecimal(value);
+    }
+
+    @Override
+    public void skipValue() throws IOException {
+        int nested = 0;
+        do {
+            Token token = peek();
+            peeked = null;
+            if (token == Token.BEGIN_OBJECT || token == Token.BEGIN_ARRAY) {
+                nested++;
+            } else if (token == Token.END_OBJECT || token == Token.END_ARRAY) {
+                nested--;
+            } else if (token == Token.NAME) {
+                continue; // la valeur de la propriété suit
+            } else if (token == Token.END_DOCUMENT) {
+                throw syntax("fin du corps inattendue");
+            }
+        } while (nested > 0);
+    }
+
+    // --- lecture des octets ---
+
+    private int read() throws IOException {
+        if (pushedBack >= 0) {
+            int c = pushedBack;
+            pushedBack = -1;
+            return c;
+        }
+        if (position == limit) {
+            consumed += limit;
+            position = 0;
+            limit = 0;
+            int count = in.read(buffer, 0, buffer.length);
+            if (count <= 0) {
+                return -1;
+            }
+            limit = count;
+            if (consumed + limit > maxBytes) {
+                throw new RequestBodyException(413, "Corps de requête trop volumineux (max " + maxBytes + " octets)");
+            }
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    private int nextNonWhitespace() throws IOException {
+        int c;
+        do {
+            c = read();
+        } while (c == ' ' || c == '\n' || c == '\r' || c == '\t');
+        return c;
+    }
+
+    private void literal(String rest) throws IOException {
+        for (int i = 0; i < rest.length(); i++) {
+            if (read() != rest.charAt(i)) {
+                throw syntax("littéral invalide");
+            }
+        }
+    }
+
+    // Grammaire RFC 8259: -?(0|[1-9][0-9]*)(\.[0-9]+)?([eE][+-]?[0-9]+)?
+    private void readNumber(int first) throws IOException {
+        text.setLength(0);
+        int c = first;
+        if (c == '-') {
+            text.append('-');
+            c = read();
+        }
+        if (c == '0') {
+            text.append('0');
+            c = read();
+            if (c >= '0' && c <= '9') {
+                throw syntax("zéro initial dans un nombre");
+            }
+        } else {
+            c = digits(c);
+        }
+        if (c == '.') {
+            text.append('.');
+            c = digits(read());
+        }
+        if (c == 'e' || c == 'E') {
+            text.append((char) c);
+            c = read();
+            if (c == '+' || c == '-') {
+                text.append((char) c);
+                c = read();
+            }
+            c = digits(c);
+        }
+        pushedBack = c; // -1 (fin du flux) n'est pas remis
+    }
+
+    // Au moins un chiffre; retourne le caractère suivant
+    private int digits(int c) throws IOException {
+        if (c < '0' || c > '9') {
+            throw syntax("chiffre attendu dans un nombre");
+        }
+        do {
+            text.append((char) c);
+            c = read();
+        } while (c >= '0' && c <= '9');
+        return c;
+    }
+
+    // Chaîne après le '"' d'ouverture, décodée (UTF-8 et échappements) dans text
+    private void readString() throws IOException {
+        text.setLength(0);
+        while (true) {
+            int c = read();
+            if (c == '"') {
+                return;
+            }
+            if (c == -1) {
+                throw syntax("chaîne non terminée");
+            }
+            if (c == '\\') {
+                escape();
+            } else if (c < 0x20) {
+                throw syntax("caractère de contrôle dans une chaîne");
+            } else if (c < 0x80) {
+                text.append((char) c);
+            } else if (c >= 0xC2 && c < 0xE0) {
+                text.append((char) (((c & 0x1F) << 6) | continuation()));
+            } else if (c >= 0xE0 && c < 0xF0) {
+                int codePoint = ((c & 0x0F) << 12) | (continuation() << 6) | continuation();
+                if (codePoint < 0x800 || Character.isSurrogate((char) codePoint)) {
+                    throw syntax("UTF-8 invalide");
+                }
+                text.append((char) codePoint);
+            } else if (c >= 0xF0 && c < 0xF5) {
+                int codePoint = ((c & 0x07) << 18) | (continuation() << 12) | (continuation() << 6) | continuation();
+                if (codePoint < 0x10000 || codePoint > Character.MAX_CODE_POINT) {
+                    throw syntax("UTF-8 invalide");
+                }
+                text.appendCodePoint(codePoint);
+            } else {
+                throw syntax("UTF-8 invalide");
+            }
+        }
+    }
+
+    private int continuation() throws IOException {
+        int c = read();
+        if ((c & 0xC0) != 0x80) {
+            throw syntax("UTF-8 invalide");
+        }
+        return c & 0x3F;
+    }
+
+    private void escape() throws IOException {
+        int c = read();
+        switch (c) {
+            case '"': text.append('"'); break;
+            case '\\': text.append('\\'); break;
+            case '/': text.append('/'); break;
+            case 'b': text.append('\b'); break;
+            case 'f': text.append('\f'); break;
+            case 'n': text.append('\n'); break;
+            case 'r': text.append('\r'); break;
+            case 't': text.append('\t'); break;
+            case 'u': {
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(read(), 16);
+                    if (digit < 0) {
+                        throw syntax("échappement \\u invalide");
+                    }
+                    value = (value << 4) | digit;
+                }
+                text.append((char) value);
+                break;
+            }
+            default:
+                throw syntax("échappement invalide");
+        }
+    }
+
+    private RequestBodyException syntax(String message) {
+        return new RequestBodyException(400, "JSON invalide à l'octet " + (consumed + position) + ": " + message);
+    }
+}
@@ -8,6 +8,7 @@ public class JsonResponse {
     private int code;
     private Object data;
     private Integer count;
+    private String dataKey = "data"; // clé de data dans l'enveloppe, voir @Json
     
     public JsonResponse() {}
     
@@ -48,4 +49,7 @@ public class JsonResponse {
     
     public Integer getCount() { return count; }
     public void setCount(Integer count) { this.count = count; }
+    
+    public String getDataKey() { return dataKey; }
+    public void setDataKey(String dataKey) { this.dataKey = dataKey; }
 }
\ No newline at end of file
@@ -0,0 +1,240 @@
+package com.monframework.mvc;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Écriture JSON en UTF-8 dans un tampon réutilisé (voir BodyWriter).
+ */
+public final class JsonWriter extends BodyWriter {
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+    private static final byte[] TRUE = {'t', 'r', 'u', 'e'};
+    private static final byte[] FALSE = {'f', 'a', 'l', 's', 'e'};
+
+    public JsonWriter(OutputStream out) {
+        super(out, "JSON");
+    }
+
+    /**
+     * Nom de propriété déjà encodé ("nom":), pour les plans.
+     */
+    static byte[] encodeName(String name) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        JsonWriter writer = new JsonWriter(bytes);
+        try {
+            writer.writeName(name);
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            writer.release();
+        }
+        return bytes.toByteArray();
+    }
+
+    public void writeByte(char c) throws IOException {
+        if (position == buffer.length) {
+            flush();
+        }
+        buffer[position++] = (byte) c;
+    }
+
+    private void writeBytes(byte[] bytes) throws IOException {
+        require(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    @Override
+    public void writeNull() throws IOException {
+        writeBytes(NULL);
+    }
+
+    @Override
+    public void writeBoolean(boolean value) throws IOException {
+        writeBytes(value ? TRUE : FALSE);
+    }
+
+    @Override
+    public void writeLong(long value) throws IOException {
+        require(20);
+        if (value < 0) {
+            buffer[position++] = '-';
+            if (value == Long.MIN_VALUE) {
+                writeBytes("9223372036854775808".getBytes());
+                return;
+            }
+            value = -value;
+        }
+        int start = position;
+        do {
+            buffer[position++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        for (int i = start, j = position - 1; i < j; i++, j--) {
+            byte tmp = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = tmp;
+        }
+    }
+
+    /**
+     * Même texte que Double.toString; null pour NaN et les infinis, qui
+     * n'existent pas en JSON.
+     */
+    @Override
+    public void writeDouble(double value) throws IOException {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            writeNull();
+        } else if (value == (long) value && Math.abs(value) < 1e7 && !(value == 0 && 1 / value < 0)) {
+            // Entier exact: évite Double.toString ("42.0")
+            writeLong((long) value);
+            writeByte('.');
+            writeByte('0');
+        } else {
+            writeAscii(Double.toString(value));
+        }
+    }
+
+    @Override
+    public void writeFloat(float value) throws IOException {
+        if (Float.isNaN(value) || Float.isInfinite(value)) {
+            writeNull();
+        } else {
+            writeAscii(Float.toString(value));
+        }
+    }
+
+    /**
+     * Texte ASCII écrit sans échappement (nombres, mots-clés).
+     */
+    public void writeAscii(String value) throws IOException {
+        int length = value.length();
+        int offset = 0;
+        while (offset < length) {
+            if (position == buffer.length) {
+                flush();
+            }
+            int count = Math.min(length - offset, buffer.length - position);
+            for (int i = 0; i < count; i++) {
+                buffer[position++] = (byte) value.charAt(offset + i);
+            }
+            offset += count;
+        }
+    }
+
+    /**
+     * Chaîne JSON entre guillemets, échappée et encodée en UTF-8.
+     */
+    @Override
+    public void writeString(CharSequence value) throws IOException {
+        writeByte('"');
+        writeChars(value);
+        writeByte('"');
+    }
+
+    /**
+     * Contenu échappé d'une chaîne JSON, sans les guillemets.
+     */
+    public void writeChars(CharSequence value) throws IOException {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (position + 6 > buffer.length) {
+                flush();
+            }
+            if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+                buffer[position++] = (byte) c;
+            } else if (c < 0x80) {
+                buffer[position++] = '\\';
+                switch (c) {
+                    case '"': buffer[position++] = '"'; break;
+                    case '\\': buffer[position++] = '\\'; break;
+                    case '\b': buffer[position++] = 'b'; break;
+                    case '\f': buffer[position++] = 'f'; break;
+                    case '\n': buffer[position++] = 'n'; break;
+                    case '\r': buffer[position++] = 'r'; break;
+                    case '\t': buffer[position++] = 't'; break;
+                    default:
+                        buffer[position++] = 'u';
+                        buffer[position++] = '0';
+                        buffer[position++] = '0';
+                        buffer[position++] = HEX[c >> 4];
+                        buffer[position++] = HEX[c & 0xF];
+                }
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // Surrogate isolé: non encodable en UTF-8
+                buffer[position++] = '?';
+            } else {
+                buffer[position++] = (byte) (0xE0 | (c >> 12));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    /**
+     * Texte du nombre (toString), BigDecimal et BigInteger compris.
+     */
+    @Override
+    public void writeNumber(Number value) throws IOException {
+        writeAscii(value.toString());
+    }
+
+    @Override
+    public void beginArray(int size) throws IOException {
+        writeByte('[');
+    }
+
+    @Override
+    public void endArray() throws IOException {
+        writeByte(']');
+    }
+
+    @Override
+    public void beginObject(int size) throws IOException {
+        writeByte('{');
+    }
+
+    @Override
+    public void endObject(int size) throws IOException {
+        writeByte('}');
+    }
+
+    @Override
+    public void separator(int index) throws IOException {
+        if (index > 0) {
+            writeByte(',');
+        }
+    }
+
+    @Override
+    public void writeName(String name) throws IOException {
+        writeString(name);
+        writeByte(':');
+    }
+
+    @Override
+    void writeName(Name name) throws IOException {
+        writeRaw(name.json);
+    }
+
+    @Override
+    boolean sizesContainers() {
+        return false;
+    }
+}
@@ -0,0 +1,333 @@
+package com.monframework.mvc;
+
+import com.monframework.annotation.Json;
+import com.monframework.annotation.RemoveSessionAttribute;
+import com.monframework.annotation.RequestBody;
+import com.monframework.annotation.RequestParam;
+import com.monframework.annotation.SessionAttribute;
+import com.monframework.mapping.PathVariable;
+import com.monframework.mapping.RouteMatch;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Plan de résolution des paramètres d'une méthode de contrôleur.
+ *
+ * Construit une fois par route: annotations, noms, convertisseurs, valeurs par
+ * défaut et slots des variables typées sont déterminés à la compilation du
+ * plan. Par requête, il ne reste qu'à exécuter un résolveur par paramètre.
+ */
+public final class ParameterPlan {
+
+    private static final String[] NONE = new String[0];
+
+    private final Resolver[] resolvers;
+    private final boolean handlesResponse;
+    private final String[] removedSessionAttributes;
+    private final String jsonKey;
+
+    private ParameterPlan(Resolver[] resolvers, boolean handlesResponse, String[] removedSessionAttributes,
+            String jsonKey) {
+        this.resolvers = resolvers;
+        this.handlesResponse = handlesResponse;
+        this.removedSessionAttributes = removedSessionAttributes;
+        this.jsonKey = jsonKey;
+    }
+
+    /**
+     * @param pathVariables variables du pattern de la route (vide si inconnues)
+     */
+    public static ParameterPlan compile(Method method, PathVariable[] pathVariables) {
+        Parameter[] parameters = method.getParameters();
+        Resolver[] resolvers = new Resolver[parameters.length];
+        boolean handlesResponse = false;
+
+        for (int i = 0; i < parameters.length; i++) {
+            Parameter param = parameters[i];
+            Class<?> paramType = param.getType();
+            RequestParam requestParam = param.getAnnotation(RequestParam.class);
+            SessionAttribute sessionAttr = param.getAnnotation(SessionAttribute.class);
+            RequestBody requestBody = param.getAnnotation(RequestBody.class);
+
+            if (requestBody != null) {
+                resolvers[i] = requestBody(requestBody, paramType, param.getParameterizedType());
+            } else if (paramType == HttpServletRequest.class) {
+                resolvers[i] = r -> r.request;
+            } else if (paramType == HttpServletResponse.class) {
+                resolvers[i] = r -> r.response;
+                handlesResponse = true;
+            } else if (paramType == HttpSession.class) {
+                resolvers[i] = r -> r.request.getSession(true);
+            } else if (Map.class.isAssignableFrom(paramType)) {
+                resolvers[i] = Resolution::allParams;
+            } else if (sessionAttr != null) {
+                resolvers[i] = sessionAttribute(sessionAttr.value(), sessionAttr.required(), paramType);
+            } else if (!ParameterResolver.isBasicType(paramType)) {
+                resolvers[i] = r -> ObjectBinder.bindObject(paramType, r.parameterTree());
+            } else if (requestParam != null) {
+                resolvers[i] = requestParam(requestParam, paramType, pathVariables);
+            } else {
+                resolvers[i] = byPosition(i, ParameterResolver.converterFor(paramType),
+                        ParameterResolver.getDefaultValue(paramType));
+            }
+        }
+
+        RemoveSessionAttribute removed = method.getAnnotation(RemoveSessionAttribute.class);
+        Json json = method.getAnnotation(Json.class);
+        return new ParameterPlan(resolvers, handlesResponse, removed != null ? removed.value() : NONE,
+                json != null ? json.value() : null);
+    }
+
+    // Écriture en session si la requête porte la valeur, lecture sinon
+    private static Resolver sessionAttribute(String name, boolean required, Class<?> type) {
+        Converter converter = ConverterRegistry.forType(type);
+        return r -> {
+            Map<String, Object> allParams = r.allParams();
+            Object requestValue = allParams.get(name);
+            if (requestValue != null) {
+                Object value = checked(name, ParameterResolver.convertObject(requestValue, type, converter));
+                r.request.getSession(true).setAttribute(name, value);
+                return value;
+            }
+            HttpSession session = r.request.getSession(false);
+            Object value = session != null ? session.getAttribute(name) : null;
+            if (value == null && required) {
+                throw new RuntimeException("Attribut de session requis manquant: " + name);
+            }
+            return checked(name, ParameterResolver.convertObject(value, type, converter));
+        };
+    }
+
+    private static Object checked(String name, Object value) {
+        if (value == ConverterRegistry.FAILURE) {
+            throw new IllegalArgumentException("Valeur invalide pour l'attribut de session: " + name);
+        }
+        return value;
+    }
+
+    // Corps lu au fil du flux dans le format de son Content-Type (JSON par défaut)
+    // et lié par le BindingPlan du type
+    private static Resolver requestBody(RequestBody annotation, Class<?> type, Type genericType) {
+        boolean required = annotation.required();
+        long maxSize = annotation.maxSize();
+        Converter converter = ConverterRegistry.forType(type); // strict: valeur invalide refusée (400)
+        Object defaultValue = ParameterResolver.getDefaultValue(type);
+        return r -> {
+            long limit = maxSize >= 0 ? maxSize : ParameterResolver.getMaxRequestBodySize();
+            long length = r.request.getContentLengthLong();
+            if (length > limit) {
+                // Refus avant toute lecture du corps
+                throw new RequestBodyException(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE,
+                        "Corps de requête trop volumineux: " + length + " octets (max " + limit + ")");
+            }
+            String contentType = r.request.getContentType();
+            BodyFormat format = BodyFormats.forContentType(contentType);
+            if (format == null) {
+                throw new RequestBodyException(HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE,
+                        "Format de corps non pris en charge: " + contentType);
+            }
+            ValueReader reader = null;
+            try {
+                reader = format.newReader(r.request.getInputStream(), limit);
+                if (reader == null) {
+                    throw new RequestBodyException(HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE,
+                            "Format de corps non pris en charge: " + format.getMediaType());
+                }
+                if (reader.peek() == ValueReader.Token.END_DOCUMENT) {
+                    if (required) {
+                        throw new RequestBodyException(HttpServletResponse.SC_BAD_REQUEST, "Corps de requête requis");
+                    }
+                    return defaultValue;
+                }
+                Object value = BindingPlan.read(reader, type, genericType, converter);
+                reader.endDocument();
+                return value != null ? value : defaultValue;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Lecture du corps de requête impossible", e);
+            } finally {
+                if (reader != null) {
+                    reader.release();
+                }
+            }
+        };
+    }
+
+    private static Resolver requestParam(RequestParam annotation, Class<?> type, PathVariable[] pathVariables) {
+        String name = annotation.value();
+        boolean required = annotation.required();
+        String defaultValue = annotation.defaultValue().isEmpty() ? null : annotation.defaultValue();
+        Converter converter = ParameterResolver.converterFor(type);
+
+        int slot = -1;
+        for (int i = 0; i < pathVariables.length; i++) {
+            if (pathVariables[i].getName().equals(name)) {
+                slot = i;
+                break;
+            }
+        }
+        if (slot >= 0 && isTypedSlot(pathVariables[slot].getType(), type)) {
+            // Valeur déjà convertie par le routeur
+            int typedSlot = slot;
+            if (type == UUID.class) {
+                return r -> r.match.getUuid(typedSlot);
+            }
+            if (type == int.class || type == Integer.class) {
+                return r -> r.match.getInt(typedSlot);
+            }
+            return r -> r.match.getLong(typedSlot);
+        }
+
+        int pathSlot = slot;
+        return r -> {
+            String value = null;
+            if (pathSlot >= 0 && r.match != null) {
+                value = r.match.getString(pathSlot);
+            } else if (r.match == null && r.urlParams.containsKey(name)) {
+                value = r.urlParams.get(name);
+            } else {
+                value = r.request.getParameter(name);
+            }
+            if (value == null) {
+                if (required) {
+                    throw new RuntimeException("Paramètre requis manquant: " + name);
+                }
+                value = defaultValue;
+            }
+            return value != null ? converter.convert(value) : null;
+        };
+    }
+
+    // Sans annotation: valeurs de chemin puis premières valeurs de la query, par position
+    private static Resolver byPosition(int index, Converter converter, Object defaultValue) {
+        return r -> {
+            List<String> values = r.orderedValues();
+            String value = index < values.size() ? values.get(index) : null;
+            return value != null ? converter.convert(value) : defaultValue;
+        };
+    }
+
+    // Variable de chemin déjà convertie par le routeur vers un type compatible
+    private static boolean isTypedSlot(PathVariable.Type type, Class<?> paramType) {
+        switch (type) {
+            case INT:
+                return paramType == int.class || paramType == Integer.class
+                    || paramType == long.class || paramType == Long.class;
+            case LONG:
+                return paramType == long.class || paramType == Long.class;
+            case UUID:
+                return paramType == UUID.class;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * @param urlParams variables de chemin, utilisées seulement sans match
+     * @param match correspondance de la route (null: variables lues dans urlParams)
+     */
+    public Object[] resolve(HttpServletRequest request, HttpServletResponse response,
+                            Map<String, String> urlParams, RouteMatch match) {
+        Resolution resolution = new Resolution(request, response, urlParams, match);
+        Object[] args = new Object[resolvers.length];
+        for (int i = 0; i < resolvers.length; i++) {
+            args[i] = resolvers[i].resolve(resolution);
+        }
+        return args;
+    }
+
+    /**
+     * true si la méthode reçoit HttpServletResponse et écrit donc elle-même la réponse.
+     */
+    public boolean handlesResponse() {
+        return handlesResponse;
+    }
+
+    /**
+     * Attributs de session à supprimer après l'appel (@RemoveSessionAttribute).
+     */
+    public String[] getRemovedSessionAttributes() {
+        return removedSessionAttributes;
+    }
+
+    /**
+     * Clé de l'enveloppe JSON (@Json), null si le résultat n'est pas du JSON.
+     */
+    public String getJsonKey() {
+        return jsonKey;
+    }
+
+    public int size() {
+        return resolvers.length;
+    }
+
+    @FunctionalInterface
+    interface Resolver {
+        Object resolve(Resolution resolution);
+    }
+
+    /**
+     * État d'une résolution: les vues coûteuses (map complète, arbre des
+     * paramètres, valeurs par position) ne sont construites qu'une fois, et
+     * seulement si un résolveur les demande.
+     */
+    static final class Resolution {
+        final HttpServletRequest request;
+        final HttpServletResponse response;
+        final Map<String, String> urlParams;
+        final RouteMatch match;
+        private Map<String, Object> allParams;
+        private List<String> orderedValues;
+        private ParameterTree.Node parameterTree;
+
+        Resolution(HttpServletRequest request, HttpServletResponse response,
+                   Map<String, String> urlParams, RouteMatch match) {
+            this.request = request;
+            this.response = response;
+            this.urlParams = urlParams;
+            this.match = match;
+        }
+
+        // Variables de chemin en map: celle du match n'est créée qu'ici, à la demande
+        Map<String, String> urlParams() {
+            return match != null ? match.getPathVariables() : urlParams;
+        }
+
+        Map<String, Object> allParams() {
+            if (allParams == null) {
+                allParams = ParameterResolver.createAllParamsMap(request, urlParams, match);
+            }
+            return allParams;
+        }
+
+        ParameterTree.Node parameterTree() {
+            if (parameterTree == null) {
+                parameterTree = ParameterTree.parse(allParams());
+            }
+            return parameterTree;
+        }
+
+        List<String> orderedValues() {
+            if (orderedValues == null) {
+                List<String> values = new ArrayList<>(urlParams().values());
+                for (String[] queryValues : request.getParameterMap().values()) {
+                    if (queryValues != null && queryValues.length > 0) {
+                        values.add(queryValues[0]);
+                    }
+                }
+                orderedValues = values;
+            }
+            return orderedValues;
+        }
+    }
+}
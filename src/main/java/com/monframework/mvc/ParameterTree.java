@@ -0,0 +1,171 @@
+package com.monframework.mvc;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Noms de paramètres découpés une seule fois en arbre: "a.b[2].c" devient
+ * a → b → [2] → c. Le binding parcourt l'arbre au lieu de rechercher des
+ * préfixes dans toute la map: son coût dépend du nombre de paramètres, et une
+ * branche sans paramètre n'existe simplement pas.
+ *
+ * Les éléments sont rangés par indice (map creuse): x[9999] crée un seul
+ * nœud, et un tableau lié n'a que la taille des indices présents sans trou.
+ */
+final class ParameterTree {
+
+    // Au-delà, l'indice est ignoré (nom de paramètre mal formé)
+    static final int MAX_INDEX = 10_000;
+
+    private ParameterTree() {}
+
+    static Node parse(Map<String, Object> params) {
+        Node root = new Node();
+        for (Map.Entry<String, Object> entry : params.entrySet()) {
+            Node node = root.path(entry.getKey());
+            if (node != null) {
+                node.value = entry.getValue();
+                node.hasValue = true;
+            }
+        }
+        return root;
+    }
+
+    static final class Node {
+        private Object value;
+        private boolean hasValue;
+        private Map<String, Node> children;
+        private Map<Integer, Node> elements;
+
+        boolean hasValue() {
+            return hasValue;
+        }
+
+        Object value() {
+            return value;
+        }
+
+        Node child(String name) {
+            return children != null ? children.get(name) : null;
+        }
+
+        /**
+         * Nombre d'éléments [0], [1]... présents sans trou depuis 0.
+         */
+        int elementCount() {
+            if (elements == null) {
+                return 0;
+            }
+            int count = 0;
+            while (count < elements.size() && elements.containsKey(count)) {
+                count++;
+            }
+            return count;
+        }
+
+        Node element(int index) {
+            return elements.get(index);
+        }
+
+        /**
+         * Nœud désigné par un chemin relatif ("a.b[0]"), null s'il n'existe pas.
+         */
+        Node find(String path) {
+            Node node = this;
+            int i = 0;
+            int length = path.length();
+            while (node != null && i < length) {
+                char c = path.charAt(i);
+                if (c == '.') {
+                    i++;
+                } else if (c == '[') {
+                    int close = path.indexOf(']', i);
+                    int index = close > i + 1 ? parseIndex(path, i + 1, close) : -1;
+                    if (index < 0) {
+                        return null;
+                    }
+                    node = node.elements != null ? node.elements.get(index) : null;
+                    i = close + 1;
+                } else {
+                    int end = nameEnd(path, i);
+                    node = node.child(path.substring(i, end));
+                    i = end;
+                }
+            }
+            return node;
+        }
+
+        // Crée au besoin les nœuds du chemin; null si le nom est mal formé
+        private Node path(String key) {
+            Node node = this;
+            int i = 0;
+            int length = key.length();
+            if (length == 0) {
+                return null;
+            }
+            while (i < length) {
+                char c = key.charAt(i);
+                if (c == '.') {
+                    if (i == 0 || i == length - 1) {
+                        return null;
+                    }
+                    i++;
+                } else if (c == '[') {
+                    int close = key.indexOf(']', i);
+                    int index = close > i + 1 ? parseIndex(key, i + 1, close) : -1;
+                    if (index < 0) {
+                        return null;
+                    }
+                    node = node.elementAt(index);
+                    i = close + 1;
+                } else {
+                    int end = nameEnd(key, i);
+                    node = node.childAt(key.substring(i, end));
+                    i = end;
+                }
+            }
+            return node;
+        }
+
+        private Node childAt(String name) {
+            if (children == null) {
+                children = new HashMap<>();
+            }
+            return children.computeIfAbsent(name, k -> new Node());
+        }
+
+        private Node elementAt(int index) {
+            if (elements == null) {
+                elements = new HashMap<>();
+            }
+            return elements.computeIfAbsent(index, k -> new Node());
+        }
+    }
+
+    private static int nameEnd(String key, int start) {
+        int i = start;
+        while (i < key.length()) {
+            char c = key.charAt(i);
+            if (c == '.' || c == '[') {
+                break;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private static int parseIndex(String key, int start, int end) {
+        int index = 0;
+        for (int i = start; i < end; i++) {
+            char c = key.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            index = index * 10 + (c - '0');
+            if (index > MAX_INDEX) {
+                return -1;
+            }
+        }
+        return index;
+    }
+}
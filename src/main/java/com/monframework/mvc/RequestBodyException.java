@@ -0,0 +1,22 @@
+package com.monframework.mvc;
+
+/**
+ * Corps de requête refusé: invalide (400), trop volumineux (413) ou dans un
+ * format non pris en charge (415).
+ * Le FrontServlet répond avec le statut porté par l'exception.
+ */
+public class RequestBodyException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+
+    public RequestBodyException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,83 @@
+package com.monframework.mvc;
+
+import com.monframework.mapping.RouteMatch;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Vue en lecture seule sur les variables de chemin, les paramètres de requête
+ * et les attributs de la requête (dans cet ordre de priorité croissante).
+ *
+ * get() et containsKey() interrogent directement leurs sources; la copie
+ * complète n'est construite qu'au premier parcours (entrySet, size...), par
+ * exemple pour une Map injectée ou le binding d'un objet.
+ */
+final class RequestParameterMap extends AbstractMap<String, Object> {
+
+    private final HttpServletRequest request;
+    private final Map<String, String> urlParams;
+    private final RouteMatch match; // null: variables lues dans urlParams
+    private Set<Entry<String, Object>> entries;
+
+    RequestParameterMap(HttpServletRequest request, Map<String, String> urlParams, RouteMatch match) {
+        this.request = request;
+        this.urlParams = urlParams;
+        this.match = match;
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        String name = (String) key;
+        Object attribute = request.getAttribute(name);
+        if (attribute != null) {
+            return attribute;
+        }
+        String[] values = request.getParameterValues(name);
+        if (values != null && values.length > 0) {
+            return values.length == 1 ? values[0] : values;
+        }
+        return pathVariable(name);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    private String pathVariable(String name) {
+        if (match != null) {
+            int slot = match.indexOf(name);
+            return slot >= 0 ? match.getString(slot) : null;
+        }
+        return urlParams.get(name);
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        if (entries == null) {
+            Map<String, Object> all = new LinkedHashMap<>(match != null ? match.getPathVariables() : urlParams);
+            for (Map.Entry<String, String[]> entry : request.getParameterMap().entrySet()) {
+                String[] values = entry.getValue();
+                if (values != null && values.length > 0) {
+                    all.put(entry.getKey(), values.length == 1 ? values[0] : values);
+                }
+            }
+            Enumeration<String> attributeNames = request.getAttributeNames();
+            while (attributeNames.hasMoreElements()) {
+                String name = attributeNames.nextElement();
+                all.put(name, request.getAttribute(name));
+            }
+            entries = Collections.unmodifiableMap(all).entrySet();
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,46 @@
+package com.monframework.mvc;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Flux de la réponse pris au premier octet réellement envoyé: tant que le
+ * corps tient dans le tampon du writer, getOutputStream() n'est pas appelé,
+ * si bien qu'un échec de sérialisation laisse la réponse entièrement libre
+ * (getWriter(), sendError...).
+ */
+final class ResponseOutputStream extends OutputStream {
+
+    private final HttpServletResponse response;
+    private OutputStream out;
+
+    ResponseOutputStream(HttpServletResponse response) {
+        this.response = response;
+    }
+
+    private OutputStream out() throws IOException {
+        if (out == null) {
+            out = response.getOutputStream();
+        }
+        return out;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out().write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out().write(b, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (out != null) {
+            out.flush();
+        }
+    }
+}
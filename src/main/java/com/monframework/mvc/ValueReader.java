@@ -0,0 +1,81 @@
+package com.monframework.mvc;
+
+import java.io.IOException;
+
+/**
+ * Lecture incrémentale (pull) d'un corps de requête structuré: JSON
+ * (JsonReader) ou CBOR (CborReader). Les deux formats ont le même modèle de
+ * données et sont liés par le même code (BindingPlan).
+ *
+ * Au-delà de la taille maximale, une RequestBodyException 413 est levée; un
+ * corps invalide donne 400. release() doit être appelé dans un finally.
+ */
+public interface ValueReader {
+
+    enum Token {
+        BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT
+    }
+
+    Token peek() throws IOException;
+
+    void beginObject() throws IOException;
+
+    void endObject() throws IOException;
+
+    void beginArray() throws IOException;
+
+    void endArray() throws IOException;
+
+    /**
+     * Vérifie qu'il ne reste rien après la valeur racine.
+     */
+    void endDocument() throws IOException;
+
+    /**
+     * true s'il reste un élément ou une propriété dans le conteneur courant.
+     */
+    boolean hasNext() throws IOException;
+
+    String nextName() throws IOException;
+
+    /**
+     * Texte d'une chaîne, d'un nombre ou d'un booléen, sans copie: valable
+     * jusqu'au prochain appel du reader.
+     */
+    CharSequence nextText() throws IOException;
+
+    /**
+     * Valeur simple dans sa forme la plus directe: le texte (nextText()) pour
+     * JSON, la valeur typée (Long, Double, String...) pour un format binaire.
+     */
+    default Object nextScalar() throws IOException {
+        return nextText();
+    }
+
+    String nextString() throws IOException;
+
+    boolean nextBoolean() throws IOException;
+
+    void nextNull() throws IOException;
+
+    /**
+     * Valeur quelconque: Map (ordre conservé), List, String, nombre, Boolean,
+     * null.
+     */
+    Object readValue() throws IOException;
+
+    /**
+     * Saute la valeur suivante, conteneurs compris.
+     */
+    void skipValue() throws IOException;
+
+    /**
+     * Nombre d'octets lus depuis le flux.
+     */
+    long bytesRead();
+
+    /**
+     * Rend le tampon au pool; le reader n'est plus utilisable.
+     */
+    void release();
+}
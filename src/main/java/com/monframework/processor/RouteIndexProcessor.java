@@ -0,0 +1,217 @@
+package com.monframework.processor;
+
+import com.monframework.annotation.Controller;
+import com.monframework.annotation.DeleteMapping;
+import com.monframework.annotation.GetMapping;
+import com.monframework.annotation.PostMapping;
+import com.monframework.annotation.PutMapping;
+import com.monframework.annotation.RequestMapping;
+import com.monframework.annotation.URLMapping;
+import com.monframework.mapping.RouteIndex;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Génère l'index des routes (RouteIndex.RESOURCE) à la compilation des
+ * applications: avec l'init-param "route-index" à true, FrontServlet le charge
+ * au démarrage au lieu de scanner le package.
+ *
+ * En compilation incrémentale, seuls les contrôleurs recompilés passent par
+ * le processeur: les lignes de l'index existant des autres contrôleurs sont
+ * reprises tant que leur classe existe et porte encore @Controller.
+ *
+ * Déclaré dans META-INF/services: javac l'active automatiquement dès que le
+ * framework est dans le classpath de compilation.
+ */
+@SupportedAnnotationTypes("com.monframework.annotation.Controller")
+public class RouteIndexProcessor extends AbstractProcessor {
+
+    private final List<String> lines = new ArrayList<>();
+    private final Set<String> indexed = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(Controller.class)) {
+            if (element.getKind() == ElementKind.CLASS) {
+                indexController((TypeElement) element);
+            }
+        }
+        if (roundEnv.processingOver() && !lines.isEmpty()) {
+            writeIndex();
+        }
+        return false;
+    }
+
+    private void indexController(TypeElement controller) {
+        String className = processingEnv.getElementUtils().getBinaryName(controller).toString();
+        indexed.add(className);
+        for (Element member : controller.getEnclosedElements()) {
+            if (member.getKind() != ElementKind.METHOD) {
+                continue;
+            }
+            ExecutableElement method = (ExecutableElement) member;
+            String[] mapping = mapping(method);
+            if (mapping == null) {
+                continue;
+            }
+            if (mapping[1].indexOf('\t') >= 0 || mapping[1].indexOf('\n') >= 0) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Pattern d'URL invalide: " + mapping[1], method);
+                continue;
+            }
+
+            StringBuilder types = new StringBuilder();
+            for (VariableElement parameter : method.getParameters()) {
+                if (types.length() > 0) {
+                    types.append(',');
+                }
+                types.append(className(parameter.asType()));
+            }
+            lines.add(mapping[0] + '\t' + mapping[1] + '\t' + className + '\t'
+                    + method.getSimpleName() + '\t' + types);
+        }
+    }
+
+    // Même ordre de priorité que ControllerScanner
+    private static String[] mapping(ExecutableElement method) {
+        RequestMapping requestMapping = method.getAnnotation(RequestMapping.class);
+        if (requestMapping != null) {
+            return new String[]{requestMapping.method().toUpperCase(), requestMapping.value()};
+        }
+        GetMapping getMapping = method.getAnnotation(GetMapping.class);
+        if (getMapping != null) {
+            return new String[]{"GET", getMapping.value()};
+        }
+        PostMapping postMapping = method.getAnnotation(PostMapping.class);
+        if (postMapping != null) {
+            return new String[]{"POST", postMapping.value()};
+        }
+        PutMapping putMapping = method.getAnnotation(PutMapping.class);
+        if (putMapping != null) {
+            return new String[]{"PUT", putMapping.value()};
+        }
+        DeleteMapping deleteMapping = method.getAnnotation(DeleteMapping.class);
+        if (deleteMapping != null) {
+            return new String[]{"DELETE", deleteMapping.value()};
+        }
+        URLMapping urlMapping = method.getAnnotation(URLMapping.class);
+        if (urlMapping != null) {
+            return new String[]{"GET", urlMapping.value()};
+        }
+        return null;
+    }
+
+    // Nom au format Class.getName() (après effacement des génériques)
+    private String className(TypeMirror type) {
+        TypeMirror erased = processingEnv.getTypeUtils().erasure(type);
+        switch (erased.getKind()) {
+            case ARRAY:
+                return "[" + descriptor(((ArrayType) erased).getComponentType());
+            case DECLARED:
+                return binaryName(erased);
+            default:
+                return erased.toString();
+        }
+    }
+
+    private String descriptor(TypeMirror type) {
+        switch (type.getKind()) {
+            case BOOLEAN: return "Z";
+            case BYTE: return "B";
+            case CHAR: return "C";
+            case SHORT: return "S";
+            case INT: return "I";
+            case LONG: return "J";
+            case FLOAT: return "F";
+            case DOUBLE: return "D";
+            case ARRAY: return "[" + descriptor(((ArrayType) type).getComponentType());
+            default: return "L" + binaryName(processingEnv.getTypeUtils().erasure(type)) + ";";
+        }
+    }
+
+    private String binaryName(TypeMirror declared) {
+        TypeElement element = (TypeElement) ((DeclaredType) declared).asElement();
+        return processingEnv.getElementUtils().getBinaryName(element).toString();
+    }
+
+    // Lignes de l'index précédent pour les contrôleurs non recompilés
+    private List<String> previousLines() {
+        List<String> previous = new ArrayList<>();
+        try {
+            FileObject file = processingEnv.getFiler()
+                    .getResource(StandardLocation.CLASS_OUTPUT, "", RouteIndex.RESOURCE);
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(file.openInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isEmpty() || line.startsWith("#")) {
+                        continue;
+                    }
+                    String[] fields = line.split("\t", -1);
+                    if (fields.length == 5 && !indexed.contains(fields[2]) && isController(fields[2])) {
+                        previous.add(line);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // Pas d'index précédent: compilation complète
+        }
+        return previous;
+    }
+
+    private boolean isController(String binaryName) {
+        TypeElement type = processingEnv.getElementUtils().getTypeElement(binaryName.replace('$', '.'));
+        return type != null && type.getAnnotation(Controller.class) != null;
+    }
+
+    private void writeIndex() {
+        List<String> previous = previousLines();
+        try {
+            FileObject file = processingEnv.getFiler()
+                    .createResource(StandardLocation.CLASS_OUTPUT, "", RouteIndex.RESOURCE);
+            try (Writer writer = new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8)) {
+                writer.write("# Généré par RouteIndexProcessor\n");
+                for (String line : previous) {
+                    writer.write(line);
+                    writer.write('\n');
+                }
+                for (String line : lines) {
+                    writer.write(line);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Impossible d'écrire " + RouteIndex.RESOURCE + ": " + e.getMessage());
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.monframework.security;
 
 import com.monframework.annotation.Authenticated;
 import com.monframework.annotation.RoleAllowed;
+import com.monframework.log.Log;
+import com.monframework.log.Logger;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
@@ -9,13 +11,15 @@ import java.io.IOException;
 import java.lang.reflect.Method;
 
 public class SecurityManager {
+
+    private static final Logger LOG = Log.get(SecurityManager.class);
     
     public static boolean checkAccess(Method method, Class<?> controllerClass, 
                                      HttpServletRequest request, HttpServletResponse response) 
                                      throws IOException {
         
         String path = request.getRequestURI().substring(request.getContextPath().length());
-        System.err.println("=== SECURITY MANAGER - Vérification: " + path + " ===");
+        LOG.debug(() -> "=== SECURITY MANAGER - Vérification: " + path + " ===");
         
         // Étape 1: Récupérer les annotations
         Authenticated methodAuth = method.getAnnotation(Authenticated.class);
@@ -30,36 +34,36 @@ public class SecurityManager {
         
         // Étape 3: Vérifier l'authentification si nécessaire
         if (authToUse != null) {
-            System.err.println("→ Authentification requise");
+            LOG.debug("→ Authentification requise");
             if (!isAuthenticated(request, authToUse.sessionAttribute())) {
-                System.err.println("→ NON AUTHENTIFIÉ - Redirection vers: " + authToUse.redirect());
+                LOG.debug(() -> "→ NON AUTHENTIFIÉ - Redirection vers: " + authToUse.redirect());
                 response.sendRedirect(request.getContextPath() + authToUse.redirect());
                 return false;
             }
-            System.err.println("→ Authentifié ✓");
+            LOG.debug("→ Authentifié ✓");
         }
         
         // Étape 4: Vérifier le rôle si nécessaire
         if (roleToUse != null) {
-            System.err.println("→ Rôle(s) requis: " + String.join(", ", roleToUse.value()));
+            LOG.debug(() -> "→ Rôle(s) requis: " + String.join(", ", roleToUse.value()));
             
             // Pour vérifier un rôle, il faut déjà être authentifié
             if (!isAuthenticated(request, "user")) {
-                System.err.println("→ Non authentifié pour vérification de rôle");
+                LOG.debug("→ Non authentifié pour vérification de rôle");
                 String redirect = roleToUse.redirect().isEmpty() ? "/login" : roleToUse.redirect();
                 response.sendRedirect(request.getContextPath() + redirect);
                 return false;
             }
             
             if (!hasRequiredRole(request, roleToUse.value(), roleToUse.roleAttribute())) {
-                System.err.println("→ Rôle INSUFFISANT - Redirection vers: " + roleToUse.redirect());
+                LOG.debug(() -> "→ Rôle INSUFFISANT - Redirection vers: " + roleToUse.redirect());
                 response.sendRedirect(request.getContextPath() + roleToUse.redirect());
                 return false;
             }
-            System.err.println("→ Rôle OK ✓");
+            LOG.debug("→ Rôle OK ✓");
         }
         
-        System.err.println("=== ACCÈS AUTORISÉ ===");
+        LOG.debug("=== ACCÈS AUTORISÉ ===");
         return true;
     }
     
@@ -69,14 +73,14 @@ public class SecurityManager {
     private static boolean isAuthenticated(HttpServletRequest request, String sessionAttribute) {
         HttpSession session = request.getSession(false);
         if (session == null) {
-            System.err.println("    → Aucune session active");
+            LOG.debug("    → Aucune session active");
             return false;
         }
         
         Object authValue = session.getAttribute(sessionAttribute);
         boolean authenticated = (authValue != null);
         
-        System.err.println("    → Vérification attribut '" + sessionAttribute + "': " + 
+        LOG.debug(() -> "    → Vérification attribut '" + sessionAttribute + "': " + 
                           (authValue != null ? authValue.toString() : "null"));
         
         return authenticated;
@@ -92,12 +96,12 @@ public class SecurityManager {
         
         Object roleObj = session.getAttribute(roleAttribute);
         if (roleObj == null) {
-            System.err.println("    → Aucun rôle trouvé dans l'attribut: " + roleAttribute);
+            LOG.debug(() -> "    → Aucun rôle trouvé dans l'attribut: " + roleAttribute);
             return false;
         }
         
         String userRole = roleObj.toString();
-        System.err.println("    → Rôle utilisateur: " + userRole);
+        LOG.debug(() -> "    → Rôle utilisateur: " + userRole);
         
         for (String requiredRole : requiredRoles) {
             if (requiredRole.equalsIgnoreCase(userRole)) {
@@ -105,7 +109,7 @@ public class SecurityManager {
             }
         }
         
-        System.err.println("    → Rôle non autorisé. Requis: " + String.join(", ", requiredRoles));
+        LOG.debug(() -> "    → Rôle non autorisé. Requis: " + String.join(", ", requiredRoles));
         return false;
     }
     
@@ -116,7 +120,7 @@ public class SecurityManager {
         HttpSession session = request.getSession(true);
         session.setAttribute("user", username);
         session.setAttribute("role", role);
-        System.err.println("Utilisateur authentifié: " + username + " (rôle: " + role + ")");
+        LOG.debug(() -> "Utilisateur authentifié: " + username + " (rôle: " + role + ")");
     }
     
     /**
@@ -126,7 +130,7 @@ public class SecurityManager {
         HttpSession session = request.getSession(false);
         if (session != null) {
             session.invalidate();
-            System.err.println("Session invalidée");
+            LOG.debug("Session invalidée");
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,148 @@
+package com.monframework.web;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Réponse qui compte les octets du corps écrits par l'application.
+ *
+ * getWriter() encode lui-même vers le flux compté, avec l'encodage de la
+ * réponse au moment de l'appel: appeler flushWriter() en fin de requête. Les
+ * octets déjà comptés ne sont pas retirés par reset()/resetBuffer(), et
+ * sendError() n'est pas compté.
+ */
+public class CountingResponseWrapper extends HttpServletResponseWrapper {
+
+    private CountingStream stream;
+    private PrintWriter writer;
+
+    public CountingResponseWrapper(HttpServletResponse response) {
+        super(response);
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() déjà appelé");
+        }
+        return stream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            if (stream != null) {
+                throw new IllegalStateException("getOutputStream() déjà appelé");
+            }
+            writer = new PrintWriter(new OutputStreamWriter(stream(), charset()));
+        }
+        return writer;
+    }
+
+    private Charset charset() {
+        String encoding = getCharacterEncoding();
+        try {
+            return encoding != null ? Charset.forName(encoding) : StandardCharsets.ISO_8859_1;
+        } catch (IllegalArgumentException e) {
+            return StandardCharsets.ISO_8859_1;
+        }
+    }
+
+    private CountingStream stream() throws IOException {
+        if (stream == null) {
+            stream = new CountingStream(super.getOutputStream());
+        }
+        return stream;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        flushWriter();
+        super.flushBuffer();
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        discardWriterBuffer();
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        discardWriterBuffer();
+    }
+
+    // Les caractères encore dans l'encodeur appartiennent au tampon annulé
+    private void discardWriterBuffer() {
+        if (writer != null) {
+            writer = new PrintWriter(new OutputStreamWriter(stream, charset()));
+        }
+    }
+
+    /**
+     * Envoie vers la réponse les caractères encore dans le PrintWriter.
+     */
+    public void flushWriter() {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Octets transmis à la réponse (après flushWriter()).
+     */
+    public long getBytesWritten() {
+        return stream == null ? 0 : stream.count;
+    }
+
+    private static final class CountingStream extends ServletOutputStream {
+
+        private final ServletOutputStream out;
+        long count;
+
+        CountingStream(ServletOutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return out.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            out.setWriteListener(listener);
+        }
+    }
+}
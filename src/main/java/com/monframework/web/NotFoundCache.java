@@ -0,0 +1,91 @@
+package com.monframework.web;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache négatif des chemins qui ne sont ni une ressource ni une route.
+ *
+ * LRU borné, découpé en segments indépendants (un verrou par segment) pour
+ * limiter la contention. Les entrées expirent après ttlMillis afin qu'une
+ * ressource ajoutée plus tard finisse par être servie, et portent la version
+ * du RouteRegistry utilisée: un changement de routes les invalide toutes.
+ */
+public class NotFoundCache {
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final long ttlMillis;
+
+    public NotFoundCache(int maxEntries, long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+        int perSegment = Math.max(1, maxEntries / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+    }
+
+    public boolean contains(String path, long routesVersion) {
+        Segment segment = segmentFor(path);
+        synchronized (segment) {
+            Entry entry = segment.get(path);
+            if (entry == null) {
+                return false;
+            }
+            if (entry.expiresAt <= System.currentTimeMillis() || entry.routesVersion != routesVersion) {
+                segment.remove(path);
+                return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * @param routesVersion version du RouteRegistry lue avant la résolution
+     */
+    public void add(String path, long routesVersion) {
+        Segment segment = segmentFor(path);
+        synchronized (segment) {
+            segment.put(path, new Entry(System.currentTimeMillis() + ttlMillis, routesVersion));
+        }
+    }
+
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    private Segment segmentFor(String path) {
+        int h = path.hashCode();
+        return segments[(h ^ (h >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    private static final class Entry {
+        private final long expiresAt;
+        private final long routesVersion;
+
+        Entry(long expiresAt, long routesVersion) {
+            this.expiresAt = expiresAt;
+            this.routesVersion = routesVersion;
+        }
+    }
+
+    private static final class Segment extends LinkedHashMap<String, Entry> {
+        private static final long serialVersionUID = 1L;
+        private final int maxEntries;
+
+        Segment(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > maxEntries;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.monframework.web;
+
+import jakarta.servlet.ServletContext;
+
+import java.net.MalformedURLException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache des vérifications d'existence des ressources statiques.
+ *
+ * Au démarrage, l'arborescence de la webapp est indexée une fois
+ * (ServletContext.getResourcePaths, hors WEB-INF et META-INF). Les chemins absents
+ * de l'index sont vérifiés par getResource() puis mémorisés avec une durée de vie,
+ * dans une table de taille bornée. Les chemins commençant par un préfixe d'API
+ * configuré ne sont jamais considérés comme des ressources.
+ */
+public class StaticResourceCache {
+
+    private final ServletContext context;
+    private final Set<String> index;
+    private final String[] apiPrefixes;
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public StaticResourceCache(ServletContext context, int maxEntries, long ttlMillis, String[] apiPrefixes) {
+        this.context = context;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.apiPrefixes = apiPrefixes;
+        this.index = buildIndex(context);
+    }
+
+    private static Set<String> buildIndex(ServletContext context) {
+        Set<String> index = new HashSet<>();
+        collect(context, "/", index);
+        return index;
+    }
+
+    private static void collect(ServletContext context, String dir, Set<String> index) {
+        Set<String> paths = context.getResourcePaths(dir);
+        if (paths == null) {
+            return;
+        }
+        for (String path : paths) {
+            if (path.startsWith("/WEB-INF/") || path.startsWith("/META-INF/")) {
+                continue;
+            }
+            if (path.endsWith("/")) {
+                collect(context, path, index);
+            } else {
+                index.add(path);
+            }
+        }
+    }
+
+    /**
+     * Équivalent de getServletContext().getResource(path) != null, sans accès
+     * au système de fichiers pour les chemins déjà connus.
+     */
+    public boolean exists(String path) {
+        if (isApiPath(path)) {
+            return false;
+        }
+        if (index.contains(path)) {
+            return true;
+        }
+
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(path);
+        if (entry != null && entry.expiresAt > now) {
+            return entry.exists;
+        }
+
+        boolean exists = lookup(path);
+        if (maxEntries > 0) {
+            if (entries.size() >= maxEntries) {
+                evict(now);
+            }
+            entries.put(path, new Entry(exists, now + ttlMillis));
+        }
+        return exists;
+    }
+
+    public boolean isApiPath(String path) {
+        for (String prefix : apiPrefixes) {
+            if (path.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean lookup(String path) {
+        try {
+            return context.getResource(path) != null;
+        } catch (MalformedURLException e) {
+            return false;
+        }
+    }
+
+    // Retire les entrées expirées; si la table reste pleine, la vider
+    private void evict(long now) {
+        entries.values().removeIf(e -> e.expiresAt <= now);
+        if (entries.size() >= maxEntries) {
+            entries.clear();
+        }
+    }
+
+    public int getIndexSize() {
+        return index.size();
+    }
+
+    private static final class Entry {
+        private final boolean exists;
+        private final long expiresAt;
+
+        Entry(boolean exists, long expiresAt) {
+            this.exists = exists;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
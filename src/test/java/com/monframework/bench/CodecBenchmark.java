@@ -0,0 +1,189 @@
+package com.monframework.bench;
+
+import com.monframework.mvc.CborReader;
+import com.monframework.mvc.CborSerializer;
+import com.monframework.mvc.CborWriter;
+import com.monframework.mvc.JsonReader;
+import com.monframework.mvc.JsonSerializer;
+import com.monframework.mvc.JsonWriter;
+import com.monframework.mvc.ParameterResolver;
+import com.monframework.mvc.ValueReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compare JSON et CBOR sur une réponse typique d'un appel entre services:
+ * taille du corps, débit d'encodage (JsonSerializer / CborSerializer) et de
+ * décodage vers les objets (binding d'un @RequestBody).
+ *
+ * Hors des sources principales (non livré dans le jar):
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.monframework.bench.CodecBenchmark
+ * Arguments optionnels: nombre d'objets par corps, itérations par tour, nombre de tours.
+ */
+public class CodecBenchmark {
+
+    public static class Line {
+        private String sku;
+        private int quantity;
+        private double unitPrice;
+
+        public String getSku() { return sku; }
+        public int getQuantity() { return quantity; }
+        public double getUnitPrice() { return unitPrice; }
+    }
+
+    public static class Order {
+        private long id;
+        private String customer;
+        private String status;
+        private boolean paid;
+        private double total;
+        private long createdAt;
+        private List<Line> lines;
+
+        public long getId() { return id; }
+        public String getCustomer() { return customer; }
+        public String getStatus() { return status; }
+        public boolean isPaid() { return paid; }
+        public double getTotal() { return total; }
+        public long getCreatedAt() { return createdAt; }
+        public List<Line> getLines() { return lines; }
+    }
+
+    public static class Page {
+        private int page;
+        private int total;
+        private List<Order> orders;
+
+        public int getPage() { return page; }
+        public int getTotal() { return total; }
+        public List<Order> getOrders() { return orders; }
+    }
+
+    // Flux de sortie qui ne garde rien: seul l'encodage est mesuré
+    private static final class Discard extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+
+    private static volatile Object sink;
+
+    public static void main(String[] args) throws Exception {
+        int orders = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        Page page = page(orders);
+        byte[] json = JsonSerializer.toJsonBytes(page);
+        byte[] cbor = CborSerializer.toCbor(page);
+
+        System.out.println("=== Benchmark JSON / CBOR ===");
+        System.out.println("Commandes par corps: " + orders + ", itérations par tour: " + iterations + ", tours: " + rounds);
+        System.out.println(String.format("Taille: JSON %d octets | CBOR %d octets | %.0f%%",
+                json.length, cbor.length, 100.0 * cbor.length / json.length));
+
+        for (int round = 1; round <= rounds; round++) {
+            System.out.println("\nTour " + round + (round == 1 ? " (chauffe)" : ""));
+            double jsonEncode = encodeJson(page, iterations);
+            double cborEncode = encodeCbor(page, iterations);
+            System.out.println(String.format("  encodage  JSON %8.1f µs (%6.1f Mo/s) | CBOR %8.1f µs (%6.1f Mo/s) | x%.2f",
+                    jsonEncode, json.length / jsonEncode, cborEncode, cbor.length / cborEncode, jsonEncode / cborEncode));
+            double jsonDecode = decode(json, false, iterations);
+            double cborDecode = decode(cbor, true, iterations);
+            System.out.println(String.format("  décodage  JSON %8.1f µs (%6.1f Mo/s) | CBOR %8.1f µs (%6.1f Mo/s) | x%.2f",
+                    jsonDecode, json.length / jsonDecode, cborDecode, cbor.length / cborDecode, jsonDecode / cborDecode));
+        }
+    }
+
+    private static Page page(int count) {
+        Page page = new Page();
+        page.page = 1;
+        page.total = count;
+        page.orders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Order order = new Order();
+            order.id = 1_000_000L + i;
+            order.customer = "client-" + (i % 97) + "@exemple.fr";
+            order.status = i % 3 == 0 ? "LIVRÉE" : "EN_COURS";
+            order.paid = i % 2 == 0;
+            order.createdAt = 1_700_000_000_000L + i * 60_000L;
+            order.lines = new ArrayList<>();
+            for (int j = 0; j < 1 + i % 4; j++) {
+                Line line = new Line();
+                line.sku = "SKU-" + (i * 7 + j) % 1000;
+                line.quantity = 1 + j;
+                line.unitPrice = 9.99 + j * 0.5 + i % 10;
+                order.lines.add(line);
+                order.total += line.quantity * line.unitPrice;
+            }
+            page.orders.add(order);
+        }
+        return page;
+    }
+
+    // Durées moyennes en microsecondes par corps
+    private static double encodeJson(Page page, int iterations) throws IOException {
+        Discard out = new Discard();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            JsonWriter writer = new JsonWriter(out);
+            try {
+                JsonSerializer.write(page, writer);
+                writer.flush();
+            } finally {
+                writer.release();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        sink = out.count;
+        return elapsed / 1000.0 / iterations;
+    }
+
+    private static double encodeCbor(Page page, int iterations) throws IOException {
+        Discard out = new Discard();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            CborWriter writer = new CborWriter(out);
+            try {
+                CborSerializer.write(page, writer);
+                writer.flush();
+            } finally {
+                writer.release();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        sink = out.count;
+        return elapsed / 1000.0 / iterations;
+    }
+
+    private static double decode(byte[] body, boolean cbor, int iterations) throws IOException {
+        Object last = null;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            ValueReader reader = cbor ? new CborReader(in, body.length) : new JsonReader(in, body.length);
+            try {
+                last = ParameterResolver.readBody(reader, Page.class);
+                reader.endDocument();
+            } finally {
+                reader.release();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        sink = last;
+        return elapsed / 1000.0 / iterations;
+    }
+}
@@ -0,0 +1,90 @@
+package com.monframework.bench;
+
+import com.monframework.mapping.RouteInvoker;
+import com.monframework.mapping.URLRoute;
+
+import java.lang.reflect.Method;
+
+/**
+ * Compare l'appel d'une méthode de contrôleur par Method.invoke() et par le
+ * RouteInvoker d'une route.
+ *
+ * Hors des sources principales (non livré dans le jar):
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.monframework.bench.InvokerBenchmark
+ * Arguments optionnels: nombre d'itérations par tour, nombre de tours.
+ */
+public class InvokerBenchmark {
+
+    public static class SampleController {
+        private int calls;
+
+        public String show(String name, int id) {
+            calls++;
+            return name;
+        }
+
+        public Object count(long delta) {
+            calls += (int) delta;
+            return null;
+        }
+
+        public void touch() {
+            calls++;
+        }
+    }
+
+    private static volatile Object sink;
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        SampleController controller = new SampleController();
+        Object[][] arguments = {{"produit", 42}, {1L}, {}};
+        Method[] methods = {
+            SampleController.class.getMethod("show", String.class, int.class),
+            SampleController.class.getMethod("count", long.class),
+            SampleController.class.getMethod("touch")
+        };
+        RouteInvoker[] invokers = new RouteInvoker[methods.length];
+        for (int i = 0; i < methods.length; i++) {
+            invokers[i] = new URLRoute("/" + methods[i].getName(), controller, methods[i], "GET").getInvoker();
+        }
+
+        System.out.println("=== Benchmark invocation des contrôleurs ===");
+        System.out.println("Itérations par tour: " + iterations + ", tours: " + rounds);
+
+        for (int round = 1; round <= rounds; round++) {
+            System.out.println("\nTour " + round + (round == 1 ? " (chauffe)" : ""));
+            for (int i = 0; i < methods.length; i++) {
+                double reflective = reflective(methods[i], controller, arguments[i], iterations);
+                double invoker = invoker(invokers[i], arguments[i], iterations);
+                System.out.println(String.format("  %-6s Method.invoke %7.2f ns | RouteInvoker (%s) %7.2f ns | x%.2f",
+                        methods[i].getName(), reflective, invokers[i].isDirect() ? "direct" : "handle", invoker,
+                        reflective / invoker));
+            }
+        }
+    }
+
+    private static double reflective(Method method, Object controller, Object[] args, int iterations) throws Exception {
+        Object last = null;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            last = method.invoke(controller, args);
+        }
+        long elapsed = System.nanoTime() - start;
+        sink = last;
+        return (double) elapsed / iterations;
+    }
+
+    private static double invoker(RouteInvoker invoker, Object[] args, int iterations) throws Exception {
+        Object last = null;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            last = invoker.invoke(args);
+        }
+        long elapsed = System.nanoTime() - start;
+        sink = last;
+        return (double) elapsed / iterations;
+    }
+}